@@ -0,0 +1,95 @@
+package battleship;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+/**
+ * Throughput and allocation of the core Board operations on the default 10 x 10 board.
+ * Benchmarks that need a fresh board build it themselves, so compare them against placeFleet,
+ * which measures that setup alone.
+ */
+@State(Scope.Thread)
+public class BoardBenchmark {
+    private static final int CELLS = Board.DEFAULT_SIZE * Board.DEFAULT_SIZE;
+
+    private List<Ship> fleet;
+    private Coordinate[] guesses;
+    private Board playedBoard;
+    private int shipX;
+    private int shipY;
+
+    @Setup
+    public void setUp() throws Exception {
+        fleet = new FleetGenerator(42).nextShips();
+
+        guesses = new Coordinate[CELLS];
+        for (int i = 0; i < CELLS; i++) {
+            guesses[i] = new Coordinate(i % Board.DEFAULT_SIZE, i / Board.DEFAULT_SIZE);
+        }
+
+        /* A board part way through a game, with some hits and one ship sunk. */
+        playedBoard = new Board();
+        playedBoard.setShips(fleet);
+        for (Coordinate c : fleet.get(fleet.size() - 1).getCoordinates()) {
+            playedBoard.guessLocation(new Coordinate(c.getX(), c.getY()));
+        }
+        Coordinate carrierCell = fleet.get(0).getCoordinates().get(0);
+        playedBoard.guessLocation(new Coordinate(carrierCell.getX(), carrierCell.getY()));
+        shipX = carrierCell.getX();
+        shipY = carrierCell.getY();
+    }
+
+    @Benchmark
+    public Board placeFleet() throws Exception {
+        Board board = new Board();
+        for (Ship ship : fleet) {
+            board.setShip(ship);
+        }
+
+        return board;
+    }
+
+    @Benchmark
+    public Board placeFleetAtomically() throws Exception {
+        Board board = new Board();
+        board.setShips(fleet);
+
+        return board;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CELLS)
+    public int guessEveryCell() throws Exception {
+        Board board = new Board();
+        board.setShips(fleet);
+
+        int hits = 0;
+        for (Coordinate guess : guesses) {
+            if (board.guessLocation(guess)) {
+                hits++;
+            }
+        }
+
+        return hits + board.numShipsSunk();
+    }
+
+    @Benchmark
+    public int numShipsSunk() {
+        return playedBoard.numShipsSunk();
+    }
+
+    @Benchmark
+    public List<Coordinate> getAssociatedShipCoords() throws Exception {
+        return playedBoard.getAssociatedShipCoords(shipX, shipY);
+    }
+
+    @Benchmark
+    public List<Cell> getAssociatedShipCells() throws Exception {
+        return playedBoard.getAssociatedShipCells(shipX, shipY);
+    }
+}
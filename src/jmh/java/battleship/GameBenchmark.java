@@ -0,0 +1,105 @@
+package battleship;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Throughput and allocation of Game-level guessing and event reading on the default board.
+ */
+@State(Scope.Thread)
+public class GameBenchmark {
+    private static final int CELLS = Board.DEFAULT_SIZE * Board.DEFAULT_SIZE;
+
+    private List<Ship> fleetOne;
+    private List<Ship> fleetTwo;
+    private Coordinate[] guesses;
+    private Game playedGame;
+    private GameReplay replay;
+    private int seekTarget = 0;
+
+    @Setup
+    public void setUp() {
+        FleetGenerator fleets = new FleetGenerator(42);
+        fleetOne = fleets.nextShips();
+        fleetTwo = fleets.nextShips();
+
+        /* Guess every cell of player two's board but one of its ships' cells, so the game is never won. */
+        Coordinate spared = fleetTwo.get(0).getCoordinates().get(0);
+        List<Coordinate> guessList = new ArrayList<>(CELLS - 1);
+        for (int i = 0; i < CELLS; i++) {
+            Coordinate guess = new Coordinate(i % Board.DEFAULT_SIZE, i / Board.DEFAULT_SIZE);
+            if (!guess.equals(spared)) {
+                guessList.add(guess);
+            }
+        }
+        guesses = guessList.toArray(new Coordinate[0]);
+
+        playedGame = newGame();
+        for (Coordinate guess : guesses) {
+            playedGame.guessLocation(true, guess);
+        }
+        replay = new GameReplay(playedGame);
+    }
+
+    @Benchmark
+    public Game newGame() {
+        Game game = new Game();
+        game.setFleet(true, fleetOne);
+        game.setFleet(false, fleetTwo);
+
+        return game;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CELLS - 1)
+    public int guessLocation() {
+        Game game = newGame();
+
+        int hits = 0;
+        for (Coordinate guess : guesses) {
+            if (game.guessLocation(true, guess).isHit()) {
+                hits++;
+            }
+        }
+
+        return hits;
+    }
+
+    @Benchmark
+    public List<GameEvent> getAllEvents() {
+        return playedGame.getNewEvents(0);
+    }
+
+    @Benchmark
+    public List<GameEvent> getLatestEvents() {
+        return playedGame.getNewEvents(CELLS - 5);
+    }
+
+    @Benchmark
+    public int scanEventLog() {
+        int hits = 0;
+        EventLog.Cursor cursor = playedGame.getEventLog().cursor(0);
+        while (cursor.next()) {
+            if (cursor.getEventType() == GameEventType.HIT) {
+                hits++;
+            }
+        }
+
+        return hits;
+    }
+
+    @Benchmark
+    public int seekReplay() {
+        /* Jump about the game, as a reviewer would, rather than stepping through it in order. */
+        seekTarget = (seekTarget + 37) % (CELLS - 1);
+        replay.seek(seekTarget);
+
+        return replay.getShipsRemaining(false);
+    }
+}
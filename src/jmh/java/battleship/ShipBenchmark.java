@@ -0,0 +1,36 @@
+package battleship;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+/**
+ * Throughput and allocation of constructing ships, by endpoints and by coordinate list.
+ */
+@State(Scope.Thread)
+public class ShipBenchmark {
+    private Coordinate start;
+    private Coordinate end;
+    private List<Coordinate> coordinates;
+
+    @Setup
+    public void setUp() {
+        start = new Coordinate(2, 3);
+        end = new Coordinate(6, 3);
+        coordinates = List.of(new Coordinate(2, 3), new Coordinate(3, 3), new Coordinate(4, 3),
+                new Coordinate(5, 3), new Coordinate(6, 3));
+    }
+
+    @Benchmark
+    public Ship fromEndpoints() {
+        return new Ship("Carrier", start, end);
+    }
+
+    @Benchmark
+    public Ship fromCoordinateList() {
+        return new Ship("Carrier", coordinates);
+    }
+}
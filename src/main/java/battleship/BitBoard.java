@@ -0,0 +1,386 @@
+package battleship;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A board that keeps its state as packed bitsets rather than as a grid of Coordinate objects.
+ * Cells are numbered row-major (index = y * width + x), one bit per cell. Guessing, hit testing
+ * and sunk checks are a handful of bit operations and never allocate, which makes this board
+ * suited to simulations and AIs that play very large numbers of games.
+ */
+public class BitBoard {
+    private static final int NO_SHIP = -1;
+    private static final int INITIAL_SHIP_CAPACITY = 8;
+
+    private final int width;
+    private final int height;
+    private final long[] occupiedMask;
+    private final long[] guessedMask;
+    private long[][] shipMasks = new long[INITIAL_SHIP_CAPACITY][];
+    private int[] shipCells = new int[INITIAL_SHIP_CAPACITY];
+    private int[] shipHitsRemaining = new int[INITIAL_SHIP_CAPACITY];
+    private final int[] shipAtCell;
+    private int numShips = 0;
+    private int numShipsSunk = 0;
+
+    /**
+     * Initialises a new bit board object with the default 10 x 10 layout.
+     */
+    public BitBoard() {
+        this(Board.DEFAULT_SIZE, Board.DEFAULT_SIZE);
+    }
+
+    /**
+     * Initialises a new bit board object with the given dimensions.
+     * @param width horizontal size of the board; positive.
+     * @param height vertical size of the board; positive.
+     */
+    public BitBoard(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Board dimensions must be positive.");
+        } else if ((long) width * height > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Board area too large for a bit board.");
+        }
+
+        this.width = width;
+        this.height = height;
+
+        int words = wordsFor(width * height);
+        this.occupiedMask = new long[words];
+        this.guessedMask = new long[words];
+        this.shipAtCell = new int[width * height];
+        Arrays.fill(shipAtCell, NO_SHIP);
+    }
+
+    /**
+     * Place a ship on the board.
+     * @param ship the ship to place on the board; not null.
+     * @return the id of the placed ship on this board.
+     * @throws InvalidPlacementException when attempting to place ship in invalid location.
+     */
+    public int setShip(Ship ship) throws InvalidPlacementException {
+        List<Coordinate> coords = ship.getCoordinates();
+        Coordinate start = coords.get(0);
+        Coordinate end = coords.get(coords.size() - 1);
+
+        /* Bit boards only hold straight, gap-free ships; check the endpoints span exactly the ship's cells. */
+        long span = Math.abs((long) end.getX() - start.getX()) + Math.abs((long) end.getY() - start.getY()) + 1;
+        if (span != coords.size()) {
+            throw new InvalidPlacementException("Ship coordinate(s) must be contiguous.");
+        }
+
+        return placeShip(Math.min(start.getX(), end.getX()), Math.min(start.getY(), end.getY()),
+                coords.size(), start.getY() == end.getY());
+    }
+
+    /**
+     * Place a ship on the board by its top-left cell, without building any Ship or Coordinate objects.
+     * @param x horizontal position of the ship's top-left cell.
+     * @param y vertical position of the ship's top-left cell.
+     * @param length number of cells the ship occupies; between 1 and Ship.SIZE_LIMIT.
+     * @param isHorizontal true if the ship extends rightwards, false if it extends downwards.
+     * @return the id of the placed ship on this board.
+     * @throws InvalidPlacementException when attempting to place ship in invalid location.
+     */
+    public int placeShip(int x, int y, int length, boolean isHorizontal) throws InvalidPlacementException {
+        if (length < 1 || length > Ship.SIZE_LIMIT) {
+            throw new IllegalArgumentException("Ship length must be between 1 and the size limit.");
+        }
+
+        int endX = isHorizontal ? x + length - 1 : x;
+        int endY = isHorizontal ? y : y + length - 1;
+        if (coordinateOutsideBoard(x, y) || coordinateOutsideBoard(endX, endY)) {
+            throw new InvalidPlacementException("Ship coordinate(s) outside of board area.");
+        }
+
+        /* Build the ship's mask, checking against current occupancy before committing anything. */
+        long[] mask = new long[occupiedMask.length];
+        int step = isHorizontal ? 1 : width;
+        int index = y * width + x;
+        for (int i = 0; i < length; i++, index += step) {
+            mask[index >>> 6] |= 1L << index;
+        }
+
+        for (int w = 0; w < mask.length; w++) {
+            if ((mask[w] & occupiedMask[w]) != 0) {
+                throw new InvalidPlacementException("Coordinate(s) already occupied by another ship.");
+            }
+
+            if ((mask[w] & guessedMask[w]) != 0) {
+                throw new InvalidPlacementException("Coordinate(s) already previously guessed.");
+            }
+        }
+
+        if (numShips == shipMasks.length) {
+            shipMasks = Arrays.copyOf(shipMasks, numShips * 2);
+            shipCells = Arrays.copyOf(shipCells, numShips * 2);
+            shipHitsRemaining = Arrays.copyOf(shipHitsRemaining, numShips * 2);
+        }
+
+        int shipId = numShips++;
+        index = y * width + x;
+        for (int i = 0; i < length; i++, index += step) {
+            shipAtCell[index] = shipId;
+        }
+
+        for (int w = 0; w < mask.length; w++) {
+            occupiedMask[w] |= mask[w];
+        }
+
+        shipMasks[shipId] = mask;
+        shipCells[shipId] = length;
+        shipHitsRemaining[shipId] = length;
+        return shipId;
+    }
+
+    /**
+     * Guess a location on the board to attempt to hit a ship.
+     * @param guessCoordinate coordinate to guess; not null.
+     * @return true if guess successfully hit a ship, false otherwise.
+     * @throws CoordinateAlreadyGuessedException if location was already guessed.
+     */
+    public boolean guessLocation(Coordinate guessCoordinate) throws CoordinateAlreadyGuessedException {
+        if (guessCoordinate == null) {
+            throw new IllegalArgumentException("Coordinate cannot be null.");
+        }
+
+        return guessLocation(guessCoordinate.getX(), guessCoordinate.getY());
+    }
+
+    /**
+     * Guess a location on the board to attempt to hit a ship.
+     * @param x horizontal position of the guess.
+     * @param y vertical position of the guess.
+     * @return true if guess successfully hit a ship, false otherwise.
+     * @throws CoordinateAlreadyGuessedException if location was already guessed.
+     */
+    public boolean guessLocation(int x, int y) throws CoordinateAlreadyGuessedException {
+        if (coordinateOutsideBoard(x, y)) {
+            throw new IllegalArgumentException("Coordinate outside of board area.");
+        }
+
+        int index = y * width + x;
+        int word = index >>> 6;
+        long bit = 1L << index;
+
+        if ((guessedMask[word] & bit) != 0) {
+            throw new CoordinateAlreadyGuessedException();
+        }
+
+        guessedMask[word] |= bit;
+        if ((occupiedMask[word] & bit) == 0) {
+            return false;
+        }
+
+        if (--shipHitsRemaining[shipAtCell[index]] == 0) {
+            numShipsSunk++;
+        }
+
+        return true;
+    }
+
+    /**
+     * Check if a cell has been guessed.
+     * @param x horizontal position of cell.
+     * @param y vertical position of cell.
+     * @return true if the cell has been guessed, false otherwise.
+     */
+    public boolean isGuessed(int x, int y) {
+        int index = cellIndex(x, y);
+        return (guessedMask[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Check if a cell is occupied by a ship.
+     * @param x horizontal position of cell.
+     * @param y vertical position of cell.
+     * @return true if a ship sits on the cell, false otherwise.
+     */
+    public boolean isOccupied(int x, int y) {
+        int index = cellIndex(x, y);
+        return (occupiedMask[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Get the id of the ship sitting on a cell.
+     * @param x horizontal position of cell.
+     * @param y vertical position of cell.
+     * @return id of the ship on the cell, or -1 if the cell is empty.
+     */
+    public int getShipAt(int x, int y) {
+        return shipAtCell[cellIndex(x, y)];
+    }
+
+    /**
+     * Check if a ship has been sunk.
+     * @param shipId id of the ship, as returned when it was placed.
+     * @return true if every cell of the ship has been guessed, false otherwise.
+     */
+    public boolean isShipSunk(int shipId) {
+        checkShipId(shipId);
+        return shipHitsRemaining[shipId] == 0;
+    }
+
+    /**
+     * Get the number of cells a ship occupies.
+     * @param shipId id of the ship, as returned when it was placed.
+     * @return length of the ship.
+     */
+    public int getShipLength(int shipId) {
+        checkShipId(shipId);
+        return shipCells[shipId];
+    }
+
+    /**
+     * Gets the total number of ships on the board.
+     * @return the total number of ships on the board.
+     */
+    public int numShips() {
+        return numShips;
+    }
+
+    /**
+     * Gets the total number of ships on the board that have been sunk.
+     * @return the number of sunk ships on the board.
+     */
+    public int numShipsSunk() {
+        return numShipsSunk;
+    }
+
+    /**
+     * Check if all ships on this board have been sunk.
+     * @return true if all ships are sunk, false otherwise.
+     */
+    public boolean allShipsSunk() {
+        return numShipsSunk == numShips;
+    }
+
+    /**
+     * Check if a coordinate is outside the board.
+     * @param x horizontal position to check.
+     * @param y vertical position to check.
+     * @return true if outside board and therefore invalid, false otherwise.
+     */
+    public boolean coordinateOutsideBoard(int x, int y) {
+        return x < 0 || y < 0 || x >= width || y >= height;
+    }
+
+    /**
+     * @return horizontal size of board.
+     */
+    public int getXSize() {
+        return width;
+    }
+
+    /**
+     * @return vertical size of board.
+     */
+    public int getYSize() {
+        return height;
+    }
+
+    /**
+     * Copy the words of the guessed-cell mask into the given array.
+     * @param dest array of at least wordCount() elements; not null.
+     */
+    public void copyGuessedMask(long[] dest) {
+        System.arraycopy(guessedMask, 0, dest, 0, guessedMask.length);
+    }
+
+    /**
+     * Copy the words of the guessed-cell mask into part of the given array.
+     * @param dest array to copy into; not null.
+     * @param offset index in dest of the first word, followed by room for wordCount() words.
+     */
+    void copyGuessedMask(long[] dest, int offset) {
+        System.arraycopy(guessedMask, 0, dest, offset, guessedMask.length);
+    }
+
+    /**
+     * Replace every guess with those of a mask copied from this board before, keeping the ships.
+     * @param source array holding the mask; not null.
+     * @param offset index in source of the mask's first word.
+     */
+    void restoreGuessedMask(long[] source, int offset) {
+        System.arraycopy(source, offset, guessedMask, 0, guessedMask.length);
+
+        numShipsSunk = 0;
+        for (int shipId = 0; shipId < numShips; shipId++) {
+            long[] mask = shipMasks[shipId];
+            int hits = 0;
+            for (int w = 0; w < mask.length; w++) {
+                hits += Long.bitCount(mask[w] & guessedMask[w]);
+            }
+            shipHitsRemaining[shipId] = shipCells[shipId] - hits;
+            if (shipHitsRemaining[shipId] == 0) {
+                numShipsSunk++;
+            }
+        }
+    }
+
+    /**
+     * Copy the words of the occupied-cell mask into the given array.
+     * @param dest array of at least wordCount() elements; not null.
+     */
+    public void copyOccupiedMask(long[] dest) {
+        System.arraycopy(occupiedMask, 0, dest, 0, occupiedMask.length);
+    }
+
+    /**
+     * Copy the words of a single ship's mask into the given array.
+     * @param shipId id of the ship, as returned when it was placed.
+     * @param dest array of at least wordCount() elements; not null.
+     */
+    public void copyShipMask(int shipId, long[] dest) {
+        checkShipId(shipId);
+        System.arraycopy(shipMasks[shipId], 0, dest, 0, shipMasks[shipId].length);
+    }
+
+    /**
+     * @return number of 64-bit words used by each mask of this board.
+     */
+    public int wordCount() {
+        return occupiedMask.length;
+    }
+
+    /**
+     * Remove all ships and guesses, so the board can be reused without reallocating it.
+     */
+    public void clear() {
+        Arrays.fill(occupiedMask, 0);
+        Arrays.fill(guessedMask, 0);
+        Arrays.fill(shipMasks, 0, numShips, null);
+        Arrays.fill(shipAtCell, NO_SHIP);
+        numShips = 0;
+        numShipsSunk = 0;
+    }
+
+    /**
+     * Helper for converting a position to its cell index, checking bounds.
+     * @param x horizontal position of cell.
+     * @param y vertical position of cell.
+     * @return row-major index of the cell.
+     */
+    private int cellIndex(int x, int y) {
+        if (coordinateOutsideBoard(x, y)) {
+            throw new IllegalArgumentException("Coordinate outside of board area.");
+        }
+
+        return y * width + x;
+    }
+
+    private void checkShipId(int shipId) {
+        if (shipId < 0 || shipId >= numShips) {
+            throw new IllegalArgumentException("No ship with that id on this board.");
+        }
+    }
+
+    /**
+     * @param cells number of cells to hold.
+     * @return number of 64-bit words needed to hold one bit per cell.
+     */
+    static int wordsFor(int cells) {
+        return (cells + 63) >>> 6;
+    }
+}
@@ -1,25 +1,44 @@
 package battleship;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
+/**
+ * One player's board: where their ships are, and which cells have been guessed.
+ * A board must only be changed by one thread at a time. The ship counts and getShips() may be read from
+ * any thread without locking, and always reflect whole placements and whole guesses.
+ */
 public class Board {
-    private final Coordinate[][] boardMatrix;
+    /* Sparse storage: only ship cells and guessed cells are held, keyed by their row-major cell index. */
+    private final CellTable cells = new CellTable();
     private final List<Ship> shipManager = new ArrayList<>();
+    private volatile List<Ship> shipSnapshots = Collections.emptyList();
+    private final int width;
+    private final int height;
+    private volatile int numShipsSunk = 0;
+    private static final int NO_SHIP = -1;
     public static final int DEFAULT_SIZE = 10;
+    public static final int MAX_SIZE = 100_000;
 
     /**
      * Initialises a new board object with the default 10 x 10 layout.
      */
     public Board() {
-        this.boardMatrix = new Coordinate[DEFAULT_SIZE][DEFAULT_SIZE];
+        this(DEFAULT_SIZE, DEFAULT_SIZE);
+    }
 
-        /* Initialize boardMatrix. */
-        for (int y = 0; y < boardMatrix.length; y++) {
-            for (int x = 0; x < boardMatrix[y].length; x++) {
-                boardMatrix[y][x] = new Coordinate(x, y);
-            }
+    /**
+     * Initialises a new board object with the given dimensions.
+     * Memory use scales with the number of ship and guessed cells rather than with the board's area.
+     * @param width horizontal size of the board; between 1 and MAX_SIZE.
+     * @param height vertical size of the board; between 1 and MAX_SIZE.
+     */
+    public Board(int width, int height) {
+        if (width < 1 || height < 1 || width > MAX_SIZE || height > MAX_SIZE) {
+            throw new IllegalArgumentException("Board dimensions must be between 1 and " + MAX_SIZE + ".");
         }
+
+        this.width = width;
+        this.height = height;
     }
 
     /**
@@ -28,36 +47,86 @@ public class Board {
      * @throws InvalidPlacementException when attempting to place ship in invalid location.
      */
     public void setShip(Ship ship) throws InvalidPlacementException {
-        /* Check all coordinates not occupied and inside boardMatrix. */
-        List<Coordinate> shipCoordinates = ship.getCoordinates();
-        List<Coordinate> boardCoordinates = new ArrayList<>();
+        /* Check all coordinates not occupied and inside the board. */
+        for (Coordinate c : ship.getCoordinates()) {
+            checkPlacement(c);
+        }
 
-        for (Coordinate c : shipCoordinates) {
-            if (coordinateOutsideBoard(c)) {
-                throw new InvalidPlacementException("Ship coordinate(s) outside of board area.");
-            }
+        /* Only after checking no exceptions, add the ship. */
+        List<Ship> snapshots = new ArrayList<>(shipSnapshots);
+        addShip(ship, snapshots);
+        shipSnapshots = Collections.unmodifiableList(snapshots);
+    }
 
-            if (boardMatrix[c.getY()][c.getX()].isOccupied()) {
-                throw new InvalidPlacementException("Coordinate(s) already occupied by another ship.");
-            }
+    /**
+     * Place a whole fleet of ships on the board, either all of them or none of them.
+     * @param ships the ships to place on the board; not null, and contains no nulls.
+     * @throws InvalidPlacementException when any ship would be in an invalid location, or ships overlap each other;
+     *                                   the board is left unchanged.
+     */
+    public void setShips(List<Ship> ships) throws InvalidPlacementException {
+        /* Check every ship in one pass, collecting the fleet's cells to catch ships overlapping each other. */
+        Set<Long> fleetCells = new HashSet<>();
+        for (Ship ship : ships) {
+            for (Coordinate c : ship.getCoordinates()) {
+                checkPlacement(c);
 
-            if (boardMatrix[c.getY()][c.getX()].isGuessed()) {
-                throw new InvalidPlacementException("Coordinate(s) already previously guessed.");
+                if (!fleetCells.add(cellKey(c.getX(), c.getY()))) {
+                    throw new InvalidPlacementException("Coordinate(s) already occupied by another ship.");
+                }
             }
         }
 
-        /* Gather all coordinates for new ship, only after checking no exceptions. */
-        for (Coordinate c : shipCoordinates) {
-            boardCoordinates.add(boardMatrix[c.getY()][c.getX()]);
+        /* Only after checking the whole fleet, commit it. */
+        List<Ship> snapshots = new ArrayList<>(shipSnapshots);
+        for (Ship ship : ships) {
+            addShip(ship, snapshots);
+        }
+        shipSnapshots = Collections.unmodifiableList(snapshots);
+    }
+
+    /**
+     * Check that a ship's coordinate can be placed on this board.
+     * @param c coordinate of the ship to check; not null.
+     * @throws InvalidPlacementException if coordinate is outside the board, occupied, or already guessed.
+     */
+    private void checkPlacement(Coordinate c) throws InvalidPlacementException {
+        if (coordinateOutsideBoard(c)) {
+            throw new InvalidPlacementException("Ship coordinate(s) outside of board area.");
+        }
+
+        int slot = cells.find(cellKey(c.getX(), c.getY()));
+        if (slot == CellTable.NOT_FOUND) {
+            return;
+        }
+
+        Coordinate boardCoordinate = cells.coordinateAt(slot);
+        if (boardCoordinate != null && boardCoordinate.isOccupied()) {
+            throw new InvalidPlacementException("Coordinate(s) already occupied by another ship.");
         }
-        Ship shipToAdd = new Ship(ship.getName(), boardCoordinates);
 
-        /* Now set the coordinates to be linked to the ship. */
+        /* Only guessed cells are held without a coordinate. */
+        if (boardCoordinate == null || boardCoordinate.isGuessed()) {
+            throw new InvalidPlacementException("Coordinate(s) already previously guessed.");
+        }
+    }
+
+    /**
+     * Add an already checked ship to the board.
+     * @param ship the ship to place on the board; not null.
+     * @param snapshots list to add a snapshot of the ship to, to be published once placement is done.
+     */
+    private void addShip(Ship ship, List<Ship> snapshots) {
+        /* Link the ship's coordinates to the board, and index them to the ship's id. */
+        Ship shipToAdd = new Ship(ship.getName(), ship.getCoordinates());
         for (Coordinate c : shipToAdd.getCoordinates()) {
-            boardMatrix[c.getY()][c.getX()] = c;
+            cells.put(cellKey(c.getX(), c.getY()), c, shipManager.size());
         }
 
         shipManager.add(shipToAdd);
+
+        /* Snapshot is detached from the board and cannot be guessed, so it can be handed out without copying again. */
+        snapshots.add(Ship.snapshotOf(ship));
     }
 
     /**
@@ -73,8 +142,26 @@ public class Board {
             throw new IllegalArgumentException("Coordinate outside of board area.");
         }
 
-        Coordinate guessedCoordinates = boardMatrix[guessCoordinate.getY()][guessCoordinate.getX()];
-        return guessedCoordinates.guessCoordinate();
+        /* Guessing an empty cell only records the guess, so a miss allocates nothing. */
+        long key = cellKey(guessCoordinate.getX(), guessCoordinate.getY());
+        int slot = cells.find(key);
+        if (slot == CellTable.NOT_FOUND) {
+            cells.put(key, null, NO_SHIP);
+            return false;
+        }
+
+        Coordinate guessedCoordinates = cells.coordinateAt(slot);
+        if (guessedCoordinates == null) {
+            throw new CoordinateAlreadyGuessedException();
+        }
+        boolean isHit = guessedCoordinates.guessCoordinate();
+
+        /* A ship can only become sunk on the guess of its final unguessed coordinate, so count it here. */
+        if (isHit && guessedCoordinates.isOccupyingShipSunk()) {
+            numShipsSunk++;
+        }
+
+        return isHit;
     }
 
     /**
@@ -82,22 +169,23 @@ public class Board {
      * @return the total number of ships on the board.
      */
     public int numShips() {
-        return shipManager.size();
+        return shipSnapshots.size();
     }
 
     /**
-     * Gets the total number of ships on the board.
-     * @return the total number of ships on the board.
+     * Gets the total number of ships on the board that have been sunk.
+     * @return the number of sunk ships on the board.
      */
     public int numShipsSunk() {
-        int numSunk = 0;
-        for (Ship s : shipManager) {
-            if (s.isSunk()) {
-                numSunk++;
-            }
-        }
+        return numShipsSunk;
+    }
 
-        return numSunk;
+    /**
+     * Gets the number of ships on the board that are still afloat.
+     * @return the number of ships not yet sunk.
+     */
+    public int numShipsRemaining() {
+        return shipSnapshots.size() - numShipsSunk;
     }
 
     /**
@@ -105,7 +193,7 @@ public class Board {
      * @return true if all ships are sunk, false otherwise.
      */
     public boolean allShipsSunk() {
-        return numShipsSunk() == numShips();
+        return numShipsSunk == shipSnapshots.size();
     }
 
     /**
@@ -114,8 +202,17 @@ public class Board {
      * @return true if outside board and therefore invalid, false otherwise.
      */
     public boolean coordinateOutsideBoard(Coordinate coordinate) {
-        return coordinate.getY() >= boardMatrix.length || coordinate.getY() < 0
-                || coordinate.getX() >= boardMatrix[coordinate.getY()].length || coordinate.getX() < 0;
+        return coordinateOutsideBoard(coordinate.getX(), coordinate.getY());
+    }
+
+    /**
+     * Check if a position is outside the board.
+     * @param x horizontal position to check.
+     * @param y vertical position to check.
+     * @return true if outside board and therefore invalid, false otherwise.
+     */
+    public boolean coordinateOutsideBoard(int x, int y) {
+        return y >= height || y < 0 || x >= width || x < 0;
     }
 
     /**
@@ -126,12 +223,21 @@ public class Board {
      * @throws InvalidPlacementException when attempting to access coordinate in invalid location.
      */
     public Coordinate getCoordinate(int x, int y) throws InvalidPlacementException {
-        if (coordinateOutsideBoard(new Coordinate(x, y))) {
+        if (coordinateOutsideBoard(x, y)) {
             throw new InvalidPlacementException("Coordinate outside of board area.");
         }
 
         /* Occupying ship is different for duplicatedCoordinate than boardCoordinate to avoid accidental modification. */
-        Coordinate boardCoordinate = boardMatrix[y][x];
+        int slot = cells.find(cellKey(x, y));
+        if (slot == CellTable.NOT_FOUND) {
+            return new Coordinate(x, y);
+        }
+
+        Coordinate boardCoordinate = cells.coordinateAt(slot);
+        if (boardCoordinate == null) {
+            return new Coordinate(x, y, true, null);
+        }
+
         Coordinate duplicatedCoordinate = new Coordinate(boardCoordinate.getX(), boardCoordinate.getY(), boardCoordinate.isGuessed(), null);
 
         if (boardCoordinate.isOccupied()) {
@@ -141,6 +247,56 @@ public class Board {
         return duplicatedCoordinate;
     }
 
+    /**
+     * Get a read-only view of the cell at the position (x,y) on the board.
+     * Cells holding a ship return a shared view that follows the board as it changes;
+     * other cells return a view of the empty cell as it is now.
+     * @param x horizontal position of cell on board.
+     * @param y vertical position of cell on board.
+     * @return read-only view of the cell at the specified position.
+     * @throws InvalidPlacementException when attempting to access cell in invalid location.
+     */
+    public Cell getCell(int x, int y) throws InvalidPlacementException {
+        if (coordinateOutsideBoard(x, y)) {
+            throw new InvalidPlacementException("Coordinate outside of board area.");
+        }
+
+        int slot = cells.find(cellKey(x, y));
+        if (slot == CellTable.NOT_FOUND) {
+            return new CellView(Position.of(x, y), false);
+        }
+
+        Coordinate boardCoordinate = cells.coordinateAt(slot);
+        return boardCoordinate == null ? new CellView(Position.of(x, y), true) : boardCoordinate.asCell();
+    }
+
+    /**
+     * Check if the position (x,y) on the board has been guessed, without building any objects.
+     * @param x horizontal position of cell on board.
+     * @param y vertical position of cell on board.
+     * @return true if guessed, false otherwise or if outside the board.
+     */
+    public boolean isGuessed(int x, int y) {
+        int slot = coordinateOutsideBoard(x, y) ? CellTable.NOT_FOUND : cells.find(cellKey(x, y));
+        if (slot == CellTable.NOT_FOUND) {
+            return false;
+        }
+
+        Coordinate boardCoordinate = cells.coordinateAt(slot);
+        return boardCoordinate == null || boardCoordinate.isGuessed();
+    }
+
+    /**
+     * Check if the position (x,y) on the board is occupied by a ship, without building any objects.
+     * @param x horizontal position of cell on board.
+     * @param y vertical position of cell on board.
+     * @return true if occupied, false otherwise or if outside the board.
+     */
+    public boolean isOccupied(int x, int y) {
+        int slot = coordinateOutsideBoard(x, y) ? CellTable.NOT_FOUND : cells.find(cellKey(x, y));
+        return slot != CellTable.NOT_FOUND && cells.coordinateAt(slot) != null;
+    }
+
     /**
      * Reset a specified coordinate to default values.
      * @param x horizontal position of coordinate on board.
@@ -148,62 +304,115 @@ public class Board {
      * @throws InvalidPlacementException when attempting to access coordinate in invalid location.
      */
     public void resetCoordinate(int x, int y) throws InvalidPlacementException {
-        if (coordinateOutsideBoard(new Coordinate(x, y))) {
+        if (coordinateOutsideBoard(x, y)) {
             throw new InvalidPlacementException("Coordinate outside of board area.");
         }
 
-        boardMatrix[y][x] = new Coordinate(x, y);
+        cells.remove(cellKey(x, y));
     }
 
     /**
      * @return horizontal size of board.
      */
     public int getXSize() {
-        return boardMatrix[0].length;
+        return width;
     }
 
     /**
      * @return vertical size of board.
      */
     public int getYSize() {
-        return boardMatrix.length;
+        return height;
     }
 
     /**
      * Get the location and info about all ships on this board.
-     * @return list of ships and their placement on the board, can be modified without mutating this board.
+     * @return unmodifiable list of ships and their placement on the board, shared between calls until
+     *         more ships are placed; the ships are snapshots taken on placement, so using them cannot
+     *         mutate this board.
      */
     public List<Ship> getShips() {
-        List<Ship> shipList = new ArrayList<>();
+        return shipSnapshots;
+    }
+
+    /**
+     * Gets all the coordinates associated with a ship (if a ship exists on this coordinate).
+     * @param x horizontal position of coordinate on board.
+     * @param y vertical position of coordinate on board.
+     * @return list of all coordinates of a ship that is on the specified coordinate; empty if no ship is.
+     * @throws InvalidPlacementException when attempting to access coordinate in invalid location.
+     */
+    public List<Coordinate> getAssociatedShipCoords(int x, int y) throws InvalidPlacementException {
+        int shipId = getShipId(x, y);
+        if (shipId == NO_SHIP) {
+            return new ArrayList<>();
+        }
 
-        for (Ship ship : shipManager) {
-            List<Coordinate> coords = ship.getCoordinates();
-            Coordinate startCoord = coords.get(0);
-            Coordinate endCoord = coords.get(coords.size() - 1);
-            shipList.add(new Ship(ship.getName(), new Coordinate(startCoord.getX(), startCoord.getY()), new Coordinate(endCoord.getX(), endCoord.getY())));
+        /* Board cells of a ship are the ship's own coordinates, so read them directly from the ship. */
+        Ship ship = shipManager.get(shipId);
+        List<Coordinate> shipCoords = new ArrayList<>(ship.getShipLength());
+        for (Coordinate c : ship.getCoordinates()) {
+            // Detached from the ship's coordinate, so guessing it cannot affect this board.
+            shipCoords.add(new Coordinate(c.getX(), c.getY(), c.isGuessed(), ship));
         }
 
-        return shipList;
+        return shipCoords;
     }
 
     /**
-     * Gets all the coordinates associated with a ship (if a ship exists on this coordinate).
+     * Gets read-only views of all the cells of a ship (if a ship exists on this coordinate).
      * @param x horizontal position of coordinate on board.
      * @param y vertical position of coordinate on board.
-     * @return list of all coordinates of a ship that is on the specified coordinate.
+     * @return unmodifiable list of the cells of a ship on the specified coordinate, shared between calls;
+     *         empty if no ship is.
      * @throws InvalidPlacementException when attempting to access coordinate in invalid location.
      */
-    public List<Coordinate> getAssociatedShipCoords(int x, int y) throws InvalidPlacementException {
-        return shipManager.stream()
-                .filter(ship -> ship.getCoordinates().contains(new Coordinate(x, y)))
-                .flatMap(ship -> ship.getCoordinates().stream())
-                .map(coordinate -> {
-                    try {
-                        return getCoordinate(coordinate.getX(), coordinate.getY());
-                    } catch (InvalidPlacementException e) {
-                        throw new RuntimeException(e);
-                    }
-                })
-                .collect(Collectors.toList());
+    public List<Cell> getAssociatedShipCells(int x, int y) throws InvalidPlacementException {
+        int shipId = getShipId(x, y);
+        return shipId == NO_SHIP ? Collections.emptyList() : shipManager.get(shipId).getCells();
+    }
+
+    /**
+     * Get the id of the ship occupying a coordinate, being its order of placement on this board.
+     * @param x horizontal position of coordinate on board.
+     * @param y vertical position of coordinate on board.
+     * @return id of the ship on the coordinate, or -1 if no ship is.
+     * @throws InvalidPlacementException when attempting to access coordinate in invalid location.
+     */
+    public int getShipId(int x, int y) throws InvalidPlacementException {
+        if (coordinateOutsideBoard(x, y)) {
+            throw new InvalidPlacementException("Coordinate outside of board area.");
+        }
+
+        int slot = cells.find(cellKey(x, y));
+        return slot == CellTable.NOT_FOUND ? NO_SHIP : cells.shipIdAt(slot);
+    }
+
+    /**
+     * List every guessed cell, for saving the board.
+     * @return row-major index of each guessed cell, in no particular order.
+     */
+    long[] getGuessedCells() {
+        long[] guessed = new long[cells.capacity()];
+        int count = 0;
+        for (int slot = 0; slot < cells.capacity(); slot++) {
+            long key = cells.keyAt(slot);
+            Coordinate boardCoordinate = key < 0 ? null : cells.coordinateAt(slot);
+            if (key >= 0 && (boardCoordinate == null || boardCoordinate.isGuessed())) {
+                guessed[count++] = key;
+            }
+        }
+
+        return Arrays.copyOf(guessed, count);
+    }
+
+    /**
+     * Helper for converting a position on the board to its key in the sparse cell maps.
+     * @param x horizontal position of coordinate on board.
+     * @param y vertical position of coordinate on board.
+     * @return row-major index of the cell.
+     */
+    private long cellKey(int x, int y) {
+        return (long) y * width + x;
     }
 }
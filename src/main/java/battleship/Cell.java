@@ -0,0 +1,48 @@
+package battleship;
+
+/**
+ * A read-only view of one cell of a board: its position, whether it has been guessed, and the ship on it.
+ * Views from a Board reflect the board as it changes, and have no way to modify it, so they can be shared without
+ * copying. Cells from a Game are copies taken under the game's lock, so they can be read from any thread.
+ */
+public interface Cell {
+
+    /**
+     * @return the position of this cell on its board.
+     */
+    Position getPosition();
+
+    /**
+     * @return the cell's horizontal x-value.
+     */
+    default int getX() {
+        return getPosition().getX();
+    }
+
+    /**
+     * @return the cell's vertical y-value.
+     */
+    default int getY() {
+        return getPosition().getY();
+    }
+
+    /**
+     * @return whether the cell has been guessed or not.
+     */
+    boolean isGuessed();
+
+    /**
+     * @return whether the cell is occupied by a ship or not.
+     */
+    boolean isOccupied();
+
+    /**
+     * @return name of the ship occupying the cell; null if no ship is.
+     */
+    String getShipName();
+
+    /**
+     * @return true if the cell is occupied by a ship that has been sunk, false otherwise.
+     */
+    boolean isShipSunk();
+}
@@ -0,0 +1,168 @@
+package battleship;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash table from a cell's row-major index to what a Board holds there: the ship's own
+ * coordinate and the ship's id for ship cells, or only the fact of a guess for empty cells that have been
+ * guessed. Keys are primitive longs in parallel arrays, probed linearly, so looking up or adding a cell
+ * allocates nothing except when the table grows.
+ */
+final class CellTable {
+    static final int NOT_FOUND = -1;
+    private static final long EMPTY = -1;
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private Coordinate[] coordinates;
+    private int[] shipIds;
+    private int mask;
+    private int size = 0;
+
+    /**
+     * Initialises an empty table.
+     */
+    CellTable() {
+        allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * Find the slot holding a cell.
+     * @param key row-major index of the cell; not negative.
+     * @return the cell's slot, or NOT_FOUND if the table does not hold it.
+     */
+    int find(long key) {
+        for (int slot = slotOf(key); ; slot = (slot + 1) & mask) {
+            long found = keys[slot];
+            if (found == key) {
+                return slot;
+            } else if (found == EMPTY) {
+                return NOT_FOUND;
+            }
+        }
+    }
+
+    /**
+     * Add a cell, or replace what the table holds for it.
+     * @param key row-major index of the cell; not negative.
+     * @param coordinate the ship's coordinate on the cell, or null for a guessed empty cell.
+     * @param shipId id of the ship on the cell, or -1 if none.
+     */
+    void put(long key, Coordinate coordinate, int shipId) {
+        int slot = slotOf(key);
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+
+        if (keys[slot] == EMPTY) {
+            keys[slot] = key;
+            size++;
+        }
+        coordinates[slot] = coordinate;
+        shipIds[slot] = shipId;
+
+        /* Kept at most half full, so probe runs stay short. */
+        if (size * 2 > keys.length) {
+            grow();
+        }
+    }
+
+    /**
+     * Remove a cell, if the table holds it.
+     * @param key row-major index of the cell.
+     */
+    void remove(long key) {
+        int hole = key < 0 ? NOT_FOUND : find(key);
+        if (hole == NOT_FOUND) {
+            return;
+        }
+        size--;
+
+        /* Shift back any later entry of the same probe run that could have used the hole, so none is lost. */
+        for (int slot = (hole + 1) & mask; keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+            int home = slotOf(keys[slot]);
+            if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                keys[hole] = keys[slot];
+                coordinates[hole] = coordinates[slot];
+                shipIds[hole] = shipIds[slot];
+                hole = slot;
+            }
+        }
+        keys[hole] = EMPTY;
+        coordinates[hole] = null;
+    }
+
+    /**
+     * @return number of slots, for visiting every cell with keyAt().
+     */
+    int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * @param slot a slot of the table.
+     * @return row-major index of the cell in the slot, or -1 if the slot is free.
+     */
+    long keyAt(int slot) {
+        return keys[slot];
+    }
+
+    /**
+     * @param slot a slot holding a cell.
+     * @return the ship's coordinate on the cell, or null for a guessed empty cell.
+     */
+    Coordinate coordinateAt(int slot) {
+        return coordinates[slot];
+    }
+
+    /**
+     * @param slot a slot holding a cell.
+     * @return id of the ship on the cell, or -1 if none.
+     */
+    int shipIdAt(int slot) {
+        return shipIds[slot];
+    }
+
+    /**
+     * Helper for finding where a cell's probe run starts.
+     * @param key row-major index of the cell.
+     * @return the cell's home slot.
+     */
+    private int slotOf(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    /**
+     * Helper for doubling the table, re-adding every cell.
+     */
+    private void grow() {
+        long[] oldKeys = keys;
+        Coordinate[] oldCoordinates = coordinates;
+        int[] oldShipIds = shipIds;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slotOf(oldKeys[i]);
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                coordinates[slot] = oldCoordinates[i];
+                shipIds[slot] = oldShipIds[i];
+            }
+        }
+    }
+
+    /**
+     * Helper for creating empty arrays for the table.
+     * @param capacity number of slots; a power of two.
+     */
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        coordinates = new Coordinate[capacity];
+        shipIds = new int[capacity];
+        mask = capacity - 1;
+    }
+}
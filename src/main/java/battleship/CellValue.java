@@ -0,0 +1,56 @@
+package battleship;
+
+/**
+ * Immutable copy of a cell as it stood when copied, for handing cells of a shared board to other threads.
+ * Unlike a CellView, it does not follow the board as it changes, so it can be read without holding the
+ * board's lock.
+ */
+final class CellValue implements Cell {
+    private final Position position;
+    private final boolean guessed;
+    private final String shipName;
+    private final boolean occupied;
+    private final boolean shipSunk;
+
+    /**
+     * Initialises a copy of a cell's current state.
+     * @param cell the cell to copy; not null.
+     */
+    CellValue(Cell cell) {
+        this.position = cell.getPosition();
+        this.guessed = cell.isGuessed();
+        this.shipName = cell.getShipName();
+        this.occupied = cell.isOccupied();
+        this.shipSunk = cell.isShipSunk();
+    }
+
+    @Override
+    public Position getPosition() {
+        return position;
+    }
+
+    @Override
+    public boolean isGuessed() {
+        return guessed;
+    }
+
+    @Override
+    public boolean isOccupied() {
+        return occupied;
+    }
+
+    @Override
+    public String getShipName() {
+        return shipName;
+    }
+
+    @Override
+    public boolean isShipSunk() {
+        return shipSunk;
+    }
+
+    @Override
+    public String toString() {
+        return position.toString();
+    }
+}
@@ -0,0 +1,62 @@
+package battleship;
+
+/**
+ * Read-only Cell view onto a board's Coordinate, or onto an empty cell as it stood when viewed.
+ * Never exposes the underlying Coordinate or Ship, so callers cannot mutate the board through it.
+ */
+final class CellView implements Cell {
+    private final Position position;
+    private final Coordinate coordinate;
+    private final boolean guessed;
+
+    /**
+     * Initialises a view onto a coordinate held by a board or ship.
+     * @param coordinate the coordinate to view; not null.
+     */
+    CellView(Coordinate coordinate) {
+        this.position = coordinate.getPosition();
+        this.coordinate = coordinate;
+        this.guessed = false;
+    }
+
+    /**
+     * Initialises a view of an empty cell, with no ship.
+     * @param position the position of the cell; not null.
+     * @param guessed whether the cell has been guessed.
+     */
+    CellView(Position position, boolean guessed) {
+        this.position = position;
+        this.coordinate = null;
+        this.guessed = guessed;
+    }
+
+    @Override
+    public Position getPosition() {
+        return position;
+    }
+
+    @Override
+    public boolean isGuessed() {
+        return coordinate == null ? guessed : coordinate.isGuessed();
+    }
+
+    @Override
+    public boolean isOccupied() {
+        return coordinate != null && coordinate.isOccupied();
+    }
+
+    @Override
+    public String getShipName() {
+        return coordinate == null ? null : coordinate.getOccupyingShipName();
+    }
+
+    @Override
+    public boolean isShipSunk() {
+        return coordinate != null && coordinate.isOccupyingShipSunk();
+    }
+
+    @Override
+    public String toString() {
+        return position.toString();
+    }
+}
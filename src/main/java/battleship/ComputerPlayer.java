@@ -0,0 +1,58 @@
+package battleship;
+
+/**
+ * A computer player that picks shots at its opponent's board in a Game, learning only from the outcomes
+ * of its own shots.
+ */
+public interface ComputerPlayer {
+
+    /**
+     * @return the game this player plays in.
+     */
+    Game getGame();
+
+    /**
+     * @return true if this player plays as player one, false for player two.
+     */
+    boolean isPlayerOne();
+
+    /**
+     * Pick the next cell to shoot at, without shooting at it.
+     * @return position of the chosen cell; never one this player has already shot at.
+     */
+    Position chooseShot();
+
+    /**
+     * Learn the outcome of a shot at a cell of the opponent's board.
+     * Shots the game rejected, and shots already recorded, are ignored.
+     * @param x horizontal position of the shot.
+     * @param y vertical position of the shot.
+     * @param result result of the shot, as returned by Game.guessLocation; not null.
+     */
+    void recordShot(int x, int y, GuessResult result);
+
+    /**
+     * Shoot once at the chosen cell, and learn from the outcome.
+     * @return result of the shot, as returned by Game.guessLocation.
+     */
+    default GuessResult takeShot() {
+        Position shot = chooseShot();
+        GuessResult result = getGame().guessLocation(isPlayerOne(), shot.toCoordinate());
+        recordShot(shot.getX(), shot.getY(), result);
+
+        return result;
+    }
+
+    /**
+     * Take a full turn: keep shooting until a shot misses or the game is over.
+     * @return result of the last shot, as returned by Game.guessLocation.
+     */
+    default GuessResult takeTurn() {
+        GuessResult result;
+        do {
+            result = takeShot();
+        } while (result.isHit() && !result.isWin());
+
+        return result;
+    }
+}
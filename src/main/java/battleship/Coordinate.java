@@ -1,12 +1,12 @@
 package battleship;
 
-import java.util.Objects;
-
 public class Coordinate {
     private final int x;
     private final int y;
     private boolean guessed;
     private Ship occupyingShip = null;
+    private Cell cellView = null;
+    private boolean frozen = false;
 
     /**
      * Initialises a new Coordinate object.
@@ -65,6 +65,14 @@ public class Coordinate {
         return y;
     }
 
+    /**
+     * Provides the coordinate's position, without any of its guess or ship state.
+     * @return the shared immutable position of this coordinate.
+     */
+    public Position getPosition() {
+        return Position.of(x, y);
+    }
+
     /**
      * Provides the coordinate's guessed-value.
      * @return whether the coordinate has been guessed or not.
@@ -93,17 +101,60 @@ public class Coordinate {
     }
 
     /**
-     * Guesses this coordinate and attempts to hit a ship.
+     * Provides the name of the occupying ship, without copying the ship.
+     * @return name of the ship occupying this coordinate; null if no ship is.
+     */
+    String getOccupyingShipName() {
+        return occupyingShip == null ? null : occupyingShip.getName();
+    }
+
+    /**
+     * Provides a read-only view of this coordinate, which follows its guess and ship state as they change.
+     * @return the shared read-only view of this coordinate.
+     */
+    public Cell asCell() {
+        if (cellView == null) {
+            cellView = new CellView(this);
+        }
+
+        return cellView;
+    }
+
+    /**
+     * Stop this coordinate from ever being guessed, for coordinates of ship snapshots shared between callers.
+     */
+    void freeze() {
+        frozen = true;
+    }
+
+    /**
+     * Guesses this coordinate and attempts to hit a ship, registering the hit with the occupying ship.
      * @return true if it was a successful hit; false if unsuccessful.
+     * @throws UnsupportedOperationException if this coordinate belongs to a ship snapshot.
      */
     public boolean guessCoordinate() throws CoordinateAlreadyGuessedException {
-        if (guessed) {
+        if (frozen) {
+            throw new UnsupportedOperationException("Coordinate of a ship snapshot cannot be guessed.");
+        } else if (guessed) {
             throw new CoordinateAlreadyGuessedException();
         }
 
         guessed = true;
 
-        return occupyingShip != null;
+        if (occupyingShip != null) {
+            occupyingShip.registerHit(this);
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Check if the ship occupying this coordinate has been sunk, without copying the ship.
+     * @return true if occupied by a sunk ship, false otherwise.
+     */
+    boolean isOccupyingShipSunk() {
+        return occupyingShip != null && occupyingShip.isSunk();
     }
 
     @Override
@@ -122,7 +173,7 @@ public class Coordinate {
 
     @Override
     public int hashCode() {
-        return Objects.hash(x, y);
+        return 31 * x + y;
     }
 
     @Override
@@ -0,0 +1,332 @@
+package battleship;
+
+import java.util.List;
+
+/**
+ * The history of every guess made in a game, held column by column in primitive arrays rather than
+ * as one object per event. Each event takes 13 bytes: its outcome and attacker packed into one byte,
+ * its position packed into one long, and the id of any ship it sunk.
+ *
+ * Events are numbered from 1 in the order they were made, and are read back either by index or with
+ * a Cursor. GameEvent objects are only built when asked for.
+ *
+ * Numbering belongs to each log, so games never share a sequence. Appends are serialised, and an event
+ * is only counted in size() once fully written, so any thread may read every event up to size() without
+ * locking. Events are stored in chunks that double in size, so appending never moves an event already
+ * written and a game with few events holds only a small first chunk.
+ */
+public final class EventLog {
+    /* The first chunk holds 16 events, and each chunk after holds twice as many as the one before. */
+    private static final int FIRST_CHUNK_BITS = 4;
+    private static final int MAX_CHUNKS = 31 - FIRST_CHUNK_BITS;
+    private static final int MAX_EVENTS = ((1 << MAX_CHUNKS) - 1) << FIRST_CHUNK_BITS;
+    private static final int ATTACKER_BIT = 0x80;
+    private static final int OUTCOME_MASK = 0x7F;
+    private static final GuessOutcome[] OUTCOMES = GuessOutcome.values();
+
+    private final Chunk[] chunks = new Chunk[MAX_CHUNKS];
+    private volatile int size = 0;
+
+    /**
+     * A block of events, one primitive array per column.
+     */
+    private static final class Chunk {
+        private final byte[] codes;
+        private final long[] positions;
+        private final int[] sunkShipIds;
+
+        Chunk(int capacity) {
+            this.codes = new byte[capacity];
+            this.positions = new long[capacity];
+            this.sunkShipIds = new int[capacity];
+        }
+    }
+
+    /**
+     * Add an event to the end of the log.
+     * @param result result of the guess; not null.
+     * @param isPlayerOneAttacker true if player one made the guess, false for player two.
+     * @param x horizontal position guessed.
+     * @param y vertical position guessed.
+     * @return the number of the new event.
+     */
+    synchronized int append(GuessResult result, boolean isPlayerOneAttacker, int x, int y) {
+        int index = size;
+        if (index == MAX_EVENTS) {
+            throw new IllegalStateException("Event log is full.");
+        }
+
+        int chunkNum = chunkOf(index);
+        Chunk chunk = chunks[chunkNum];
+        if (chunk == null) {
+            chunk = new Chunk(1 << (chunkNum + FIRST_CHUNK_BITS));
+            chunks[chunkNum] = chunk;
+        }
+
+        int offset = offsetOf(index, chunkNum);
+        chunk.codes[offset] = (byte) (result.getOutcome().ordinal() | (isPlayerOneAttacker ? ATTACKER_BIT : 0));
+        chunk.positions[offset] = Position.pack(x, y);
+        chunk.sunkShipIds[offset] = result.getSunkShipId();
+
+        /* Written last, so readers that see the new size also see the event and any new chunk. */
+        size = index + 1;
+        return index + 1;
+    }
+
+    /**
+     * @return number of events in the log, which is also the number of the latest event.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param index index of the event, being one less than its event number.
+     * @return outcome of the guess.
+     */
+    public GuessOutcome getOutcome(int index) {
+        return OUTCOMES[code(index) & OUTCOME_MASK];
+    }
+
+    /**
+     * @param index index of the event, being one less than its event number.
+     * @return type of the event: a hit (including sinks and wins), a miss, or a failed guess.
+     */
+    public GameEventType getEventType(int index) {
+        return typeOf(getOutcome(index));
+    }
+
+    /**
+     * @param index index of the event, being one less than its event number.
+     * @return true if player one made the guess, false for player two.
+     */
+    public boolean isPlayerOneAttacker(int index) {
+        return (code(index) & ATTACKER_BIT) != 0;
+    }
+
+    /**
+     * @param index index of the event, being one less than its event number.
+     * @return horizontal position guessed.
+     */
+    public int getX(int index) {
+        return Position.unpackX(position(index));
+    }
+
+    /**
+     * @param index index of the event, being one less than its event number.
+     * @return vertical position guessed.
+     */
+    public int getY(int index) {
+        return Position.unpackY(position(index));
+    }
+
+    /**
+     * @param index index of the event, being one less than its event number.
+     * @return id of the ship the guess sunk; GuessResult.NO_SHIP if none was sunk.
+     */
+    public int getSunkShipId(int index) {
+        checkIndex(index);
+        int chunkNum = chunkOf(index);
+        return chunks[chunkNum].sunkShipIds[offsetOf(index, chunkNum)];
+    }
+
+    /**
+     * Build a GameEvent object for an event in the log.
+     * @param index index of the event, being one less than its event number.
+     * @return a new GameEvent holding the event.
+     */
+    public GameEvent getEvent(int index) {
+        GuessOutcome outcome = getOutcome(index);
+        return new GameEvent(index + 1, typeOf(outcome), Position.fromPacked(position(index)),
+                isPlayerOneAttacker(index), List.of(extraInfoOf(outcome)));
+    }
+
+    /**
+     * Get a cursor over the events after a given event number, including any added while it is in use.
+     * @param startingEventNum event number which everything after will be read; between 0 and size().
+     * @return a cursor placed before the first event to read.
+     */
+    public Cursor cursor(int startingEventNum) {
+        if (startingEventNum < 0 || startingEventNum > size) {
+            throw new IllegalArgumentException("Event number outside log.");
+        }
+
+        return new Cursor(startingEventNum - 1);
+    }
+
+    /**
+     * Helper for reading the packed outcome and attacker of an event.
+     * @param index index of the event.
+     * @return the event's code.
+     */
+    private byte code(int index) {
+        checkIndex(index);
+        int chunkNum = chunkOf(index);
+        return chunks[chunkNum].codes[offsetOf(index, chunkNum)];
+    }
+
+    /**
+     * Helper for reading the packed position of an event.
+     * @param index index of the event.
+     * @return the event's position, as packed by Position.pack().
+     */
+    private long position(int index) {
+        checkIndex(index);
+        int chunkNum = chunkOf(index);
+        return chunks[chunkNum].positions[offsetOf(index, chunkNum)];
+    }
+
+    /**
+     * Helper for finding the chunk an event is stored in.
+     * @param index index of the event; not negative.
+     * @return number of the chunk holding the event.
+     */
+    private static int chunkOf(int index) {
+        return 31 - Integer.numberOfLeadingZeros((index >>> FIRST_CHUNK_BITS) + 1);
+    }
+
+    /**
+     * Helper for finding where in its chunk an event is stored.
+     * @param index index of the event; not negative.
+     * @param chunkNum number of the chunk holding the event.
+     * @return offset of the event within the chunk.
+     */
+    private static int offsetOf(int index, int chunkNum) {
+        return index - (((1 << chunkNum) - 1) << FIRST_CHUNK_BITS);
+    }
+
+    /**
+     * Helper for checking an index refers to an event in the log.
+     * @param index index to check.
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("No event at index " + index + ".");
+        }
+    }
+
+    /**
+     * Helper for getting the type of event a guess outcome is.
+     * @param outcome outcome of the guess; not null.
+     * @return HIT for hits, sinks and wins, MISS for misses, FAIL otherwise.
+     */
+    private static GameEventType typeOf(GuessOutcome outcome) {
+        switch (outcome) {
+            case HIT:
+            case SUNK:
+            case WIN:
+                return GameEventType.HIT;
+            case MISS:
+                return GameEventType.MISS;
+            default:
+                return GameEventType.FAIL;
+        }
+    }
+
+    /**
+     * Helper for getting the extra info a GameEvent gives for a guess outcome.
+     * @param outcome outcome of the guess; not null.
+     * @return "sunk" or "win" for sinks, "miss" for misses, the fail reason for failed guesses, empty otherwise.
+     */
+    private static String extraInfoOf(GuessOutcome outcome) {
+        switch (outcome) {
+            case MISS:
+                return "miss";
+            case SUNK:
+                return "sunk";
+            case WIN:
+                return "win";
+            case ALREADY_GUESSED:
+                return "already guessed";
+            case OUTSIDE_BOARD:
+                return "outside board";
+            case GAME_OVER:
+                return "game over";
+            case OUT_OF_TURN:
+                return "out of turn";
+            default:
+                return "";
+        }
+    }
+
+    /**
+     * Reads events from the log one at a time, without building an object per event.
+     * Call next() to move onto each event, then read it with the getters.
+     */
+    public final class Cursor {
+        private int index;
+
+        private Cursor(int index) {
+            this.index = index;
+        }
+
+        /**
+         * Move onto the next event, if there is one yet.
+         * @return true if the cursor is now on an event, false if there are no more events for now.
+         */
+        public boolean next() {
+            if (index + 1 >= size) {
+                return false;
+            }
+
+            index++;
+            return true;
+        }
+
+        /**
+         * @return number of the event the cursor is on; 0 before the first event.
+         */
+        public int getEventNum() {
+            return index + 1;
+        }
+
+        /**
+         * @return outcome of the guess the cursor is on.
+         */
+        public GuessOutcome getOutcome() {
+            return EventLog.this.getOutcome(index);
+        }
+
+        /**
+         * @return type of the event the cursor is on.
+         */
+        public GameEventType getEventType() {
+            return EventLog.this.getEventType(index);
+        }
+
+        /**
+         * @return true if player one made the guess the cursor is on, false for player two.
+         */
+        public boolean isPlayerOneAttacker() {
+            return EventLog.this.isPlayerOneAttacker(index);
+        }
+
+        /**
+         * @return horizontal position of the guess the cursor is on.
+         */
+        public int getX() {
+            return EventLog.this.getX(index);
+        }
+
+        /**
+         * @return vertical position of the guess the cursor is on.
+         */
+        public int getY() {
+            return EventLog.this.getY(index);
+        }
+
+        /**
+         * @return id of the ship sunk by the guess the cursor is on; GuessResult.NO_SHIP if none was sunk.
+         */
+        public int getSunkShipId() {
+            return EventLog.this.getSunkShipId(index);
+        }
+
+        /**
+         * @return a new GameEvent holding the event the cursor is on.
+         */
+        public GameEvent toEvent() {
+            return EventLog.this.getEvent(index);
+        }
+    }
+}
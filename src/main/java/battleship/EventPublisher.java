@@ -0,0 +1,211 @@
+package battleship;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+/**
+ * Pushes the events of a game's EventLog to subscribers as they are added.
+ * Each subscription keeps its own place in the log rather than a queue of copies, so a slow subscriber
+ * costs one index, and events wait in the log until the subscriber requests them. Every pass delivers as
+ * many waiting events as have been requested, so a subscriber that falls behind catches up in one go.
+ *
+ * Events are delivered on whichever thread adds them to the log or requests them. Once the publisher is
+ * closed, subscribers are completed after the events logged before it closed; later events are not sent.
+ */
+final class EventPublisher {
+    private final EventLog log;
+    private final List<EventSubscription<?>> subscriptions = new CopyOnWriteArrayList<>();
+    private volatile int closedAt = -1;
+
+    /**
+     * Initialises a new publisher with no subscribers.
+     * @param log log to publish the events of; not null.
+     */
+    EventPublisher(EventLog log) {
+        this.log = log;
+    }
+
+    /**
+     * Subscribe to events after a certain point in the log.
+     * @param subscriber subscriber to send events to; not null.
+     * @param startingEventNum event number which everything after will be sent; between 0 and the log's size.
+     */
+    void subscribe(Flow.Subscriber<? super GameEvent> subscriber, int startingEventNum) {
+        checkStart(startingEventNum);
+        register(new EventSubscription<>(subscriber, startingEventNum, log::getEvent));
+    }
+
+    /**
+     * Subscribe to events after a certain point in the log, sending each as a cursor moved onto it.
+     * @param subscriber subscriber to send the subscription's cursor to; not null.
+     * @param startingEventNum event number which everything after will be sent; between 0 and the log's size.
+     */
+    void subscribeToLog(Flow.Subscriber<? super EventLog.Cursor> subscriber, int startingEventNum) {
+        checkStart(startingEventNum);
+        EventLog.Cursor cursor = log.cursor(startingEventNum);
+
+        /* Events are sent in order, one at a time, so moving on by one always lands on the event being sent. */
+        register(new EventSubscription<>(subscriber, startingEventNum, index -> {
+            cursor.next();
+            return cursor;
+        }));
+    }
+
+    /**
+     * Helper for checking a subscription starts within the log.
+     * @param startingEventNum event number which everything after will be sent.
+     */
+    private void checkStart(int startingEventNum) {
+        if (startingEventNum < 0 || startingEventNum > log.size()) {
+            throw new IllegalArgumentException("Event number outside log.");
+        }
+    }
+
+    /**
+     * Helper for starting a new subscription, and sending it any events it requests straight away.
+     * @param subscription the new subscription; not null.
+     */
+    private void register(EventSubscription<?> subscription) {
+        subscription.subscriber.onSubscribe(subscription);
+        if (!subscription.cancelled) {
+            subscriptions.add(subscription);
+            subscription.drain();
+        }
+    }
+
+    /**
+     * Send any newly logged events to subscribers that have requested them.
+     */
+    void publish() {
+        for (EventSubscription<?> subscription : subscriptions) {
+            subscription.drain();
+        }
+    }
+
+    /**
+     * Stop publishing at the current end of the log, completing each subscriber once it has been sent every
+     * event up to there. Closing an already closed publisher does nothing.
+     */
+    void close() {
+        if (closedAt < 0) {
+            closedAt = log.size();
+        }
+        publish();
+    }
+
+    /**
+     * @return number of subscribers that have not cancelled or been completed.
+     */
+    int subscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * One subscriber's place in the log and outstanding demand.
+     * Only one thread delivers to a subscriber at a time; a drain started while another is running,
+     * including from within onNext, is picked up by the running one.
+     * @param <T> type of item each event is sent as.
+     */
+    private final class EventSubscription<T> implements Flow.Subscription {
+        private final Flow.Subscriber<? super T> subscriber;
+        private final IntFunction<? extends T> items;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger pendingDrains = new AtomicInteger();
+        private volatile boolean cancelled = false;
+        private volatile Throwable invalidRequest = null;
+        private int nextIndex;
+
+        EventSubscription(Flow.Subscriber<? super T> subscriber, int nextIndex, IntFunction<? extends T> items) {
+            this.subscriber = Objects.requireNonNull(subscriber);
+            this.nextIndex = nextIndex;
+            this.items = items;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("Number of events requested must be positive.");
+            } else {
+                long current;
+                do {
+                    current = demand.get();
+                } while (current != Long.MAX_VALUE && !demand.compareAndSet(current, addCapped(current, n)));
+            }
+
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+        }
+
+        void drain() {
+            if (pendingDrains.getAndIncrement() != 0) {
+                return;
+            }
+
+            int missed = 1;
+            do {
+                deliver();
+                missed = pendingDrains.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        /**
+         * Helper for sending every waiting event that has been requested, then finishing if done.
+         */
+        private void deliver() {
+            if (cancelled) {
+                return;
+            } else if (invalidRequest != null) {
+                cancel();
+                subscriber.onError(invalidRequest);
+                return;
+            }
+
+            int closed = closedAt;
+            int end = closed >= 0 ? closed : log.size();
+            long requested = demand.get();
+            long sent = 0;
+
+            try {
+                while (sent != requested && nextIndex < end && !cancelled) {
+                    subscriber.onNext(items.apply(nextIndex++));
+                    sent++;
+                }
+            } catch (RuntimeException e) {
+                /* A subscriber that throws is treated as having cancelled. */
+                cancel();
+                subscriber.onError(e);
+                return;
+            }
+
+            if (sent != 0 && requested != Long.MAX_VALUE) {
+                demand.addAndGet(-sent);
+            }
+
+            if (closed >= 0 && nextIndex >= closed && !cancelled) {
+                cancel();
+                subscriber.onComplete();
+            }
+        }
+
+        /**
+         * Helper for adding to demand without overflowing.
+         * @param current current demand; not negative.
+         * @param n amount to add; positive.
+         * @return the sum, or Long.MAX_VALUE if it would overflow.
+         */
+        private long addCapped(long current, long n) {
+            long sum = current + n;
+            return sum < 0 ? Long.MAX_VALUE : sum;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package battleship;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Generates random, legal fleet placements from a seed.
+ * Placements are picked from the board's shared PlacementMasks, so generating a fleet is only random
+ * picks and bit tests; no Ship objects are built and no exceptions are thrown unless a List of Ships
+ * is asked for.
+ */
+public class FleetGenerator {
+    /* Rejected picks allowed for one ship before the whole fleet is restarted. */
+    private static final int MAX_ATTEMPTS_PER_SHIP = 64;
+    /* Whole-fleet restarts allowed before giving up on a fleet that will not fit. */
+    private static final int MAX_FLEET_ATTEMPTS = 10_000;
+
+    private final int width;
+    private final int height;
+    private final List<Ship> fleetTemplate;
+    private final int[] shipLengths;
+    private final int[] placementOrder;
+    private final PlacementMasks masks;
+    private final SplittableRandom random;
+    private final long[] scratchOccupancy;
+
+    /**
+     * Initialises a new generator for the default board size and ships.
+     * @param seed seed for the random placements; the same seed always produces the same fleets.
+     */
+    public FleetGenerator(long seed) {
+        this(Board.DEFAULT_SIZE, Board.DEFAULT_SIZE, Game.DEFAULT_SHIPS, seed);
+    }
+
+    /**
+     * Initialises a new generator for a given board size and fleet.
+     * @param width horizontal size of the board; positive.
+     * @param height vertical size of the board; positive.
+     * @param fleetTemplate ships to place, whose names and lengths are used but not positions; not null.
+     * @param seed seed for the random placements; the same seed always produces the same fleets.
+     * @throws IllegalArgumentException if a ship does not fit on the board, or the ships cover more cells
+     *                                  than the board has.
+     */
+    public FleetGenerator(int width, int height, List<Ship> fleetTemplate, long seed) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Board dimensions must be positive.");
+        } else if (fleetTemplate.isEmpty()) {
+            throw new IllegalArgumentException("Fleet must contain at least one ship.");
+        }
+
+        this.width = width;
+        this.height = height;
+        this.fleetTemplate = Collections.unmodifiableList(new ArrayList<>(fleetTemplate));
+        this.shipLengths = new int[fleetTemplate.size()];
+        this.masks = PlacementMasks.forBoard(width, height);
+        this.random = new SplittableRandom(seed);
+
+        long fleetArea = 0;
+        for (int i = 0; i < shipLengths.length; i++) {
+            int length = fleetTemplate.get(i).getShipLength();
+            shipLengths[i] = length;
+            fleetArea += length;
+
+            if (masks.placementCount(length) == 0) {
+                throw new IllegalArgumentException("Ship of length " + length + " does not fit on the board.");
+            }
+        }
+        if (fleetArea > (long) width * height) {
+            throw new IllegalArgumentException("Fleet covers more cells than the board has.");
+        }
+
+        /* Place longest ships first, as they are the hardest to fit around the others. */
+        this.placementOrder = new int[shipLengths.length];
+        for (int i = 0; i < placementOrder.length; i++) {
+            placementOrder[i] = i;
+        }
+        for (int i = 1; i < placementOrder.length; i++) {
+            int j = i;
+            while (j > 0 && shipLengths[placementOrder[j - 1]] < shipLengths[placementOrder[j]]) {
+                int temp = placementOrder[j];
+                placementOrder[j] = placementOrder[j - 1];
+                placementOrder[j - 1] = temp;
+                j--;
+            }
+        }
+
+        this.scratchOccupancy = new long[masks.wordCount()];
+    }
+
+    /**
+     * Generate a random fleet without building any objects.
+     * @param placements array of at least one element per ship, filled in fleet order with each ship's
+     *                   placement; decode with placementX, placementY and isHorizontal.
+     * @param occupancy array of at least wordCount() elements, filled with the fleet's occupied-cell mask,
+     *                  numbered row-major as in BitBoard; may be null if not needed.
+     * @throws IllegalStateException if no fleet could be fitted on the board after many attempts.
+     */
+    public void nextFleet(int[] placements, long[] occupancy) {
+        long[] occupied = occupancy == null ? scratchOccupancy : occupancy;
+
+        fleet:
+        for (int fleetAttempt = 0; fleetAttempt < MAX_FLEET_ATTEMPTS; fleetAttempt++) {
+            for (int w = 0; w < scratchOccupancy.length; w++) {
+                occupied[w] = 0;
+            }
+
+            for (int shipIndex : placementOrder) {
+                int length = shipLengths[shipIndex];
+                int count = masks.placementCount(length);
+                int attempt = 0;
+                int placement;
+
+                do {
+                    if (++attempt > MAX_ATTEMPTS_PER_SHIP) {
+                        continue fleet;
+                    }
+                    placement = random.nextInt(count);
+                } while (masks.intersects(length, placement, occupied));
+
+                masks.set(length, placement, occupied);
+                int origin = masks.placementY(length, placement) * width + masks.placementX(length, placement);
+                placements[shipIndex] = (origin << 1) | (masks.isHorizontal(length, placement) ? 1 : 0);
+            }
+
+            return;
+        }
+
+        throw new IllegalStateException("Fleet could not be fitted on the board.");
+    }
+
+    /**
+     * Generate a random fleet as Ship objects, named after the fleet template.
+     * @return list of ships in fleet template order, all legally placed on the board.
+     * @throws IllegalStateException if no fleet could be fitted on the board after many attempts.
+     */
+    public List<Ship> nextShips() {
+        int[] placements = new int[shipLengths.length];
+        nextFleet(placements, null);
+
+        List<Ship> ships = new ArrayList<>(shipLengths.length);
+        for (int i = 0; i < placements.length; i++) {
+            int x = placementX(placements[i]);
+            int y = placementY(placements[i]);
+            int endX = isHorizontal(placements[i]) ? x + shipLengths[i] - 1 : x;
+            int endY = isHorizontal(placements[i]) ? y : y + shipLengths[i] - 1;
+            ships.add(new Ship(fleetTemplate.get(i).getName(), new Coordinate(x, y), new Coordinate(endX, endY)));
+        }
+
+        return ships;
+    }
+
+    /**
+     * @param placement a placement filled in by nextFleet.
+     * @return horizontal position of the placed ship's top-left cell.
+     */
+    public int placementX(int placement) {
+        return (placement >>> 1) % width;
+    }
+
+    /**
+     * @param placement a placement filled in by nextFleet.
+     * @return vertical position of the placed ship's top-left cell.
+     */
+    public int placementY(int placement) {
+        return (placement >>> 1) / width;
+    }
+
+    /**
+     * @param placement a placement filled in by nextFleet.
+     * @return true if the placed ship extends rightwards, false if downwards.
+     */
+    public static boolean isHorizontal(int placement) {
+        return (placement & 1) != 0;
+    }
+
+    /**
+     * @return number of ships in each generated fleet.
+     */
+    public int fleetSize() {
+        return shipLengths.length;
+    }
+
+    /**
+     * @return number of 64-bit words in each occupancy mask.
+     */
+    public int wordCount() {
+        return scratchOccupancy.length;
+    }
+
+    /**
+     * @return horizontal size of the board fleets are generated for.
+     */
+    public int getXSize() {
+        return width;
+    }
+
+    /**
+     * @return vertical size of the board fleets are generated for.
+     */
+    public int getYSize() {
+        return height;
+    }
+}
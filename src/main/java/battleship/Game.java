@@ -3,11 +3,36 @@ package battleship;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
-public class Game {
+/**
+ * A game between two players, each with their own board.
+ * Games may be shared between threads. Each board is guarded by its own lock, so guesses at one board are
+ * made one at a time while guesses at the other carry on alongside them. Checking the winner, the ships
+ * placed, the ships remaining and the events never take a lock.
+ *
+ * The game's phase and whose turn it is are held in one atomic value, changed only by compare-and-set.
+ * A game moves from preparation to playing on its first guess, and is over once ended, once a finished
+ * game is noticed by checkWinner(), or, when turns are enforced, once a guess wins it. Whose turn it is
+ * follows the usual rules: the first player to guess starts, keeps the turn while they hit, and passes
+ * it on a miss. If turns are enforced, guesses out of turn are rejected, as are guesses made while the
+ * same player's last guess is still being made, so each guess is accepted or rejected without waiting.
+ */
+public class Game implements Flow.Publisher<GameEvent> {
+    /* Each board is also the lock for changes to and detailed reads of it; neither is ever handed out. */
     private final Board playerOne, playerTwo;
-    private boolean gameStarted = false;
-    private boolean gameOver = false;
+    /* State bits: the phase's ordinal, whose turn it is, and whether a guess is being made under enforced turns. */
+    private static final int PHASE_MASK = 0b11;
+    private static final int PLAYER_ONE_TO_MOVE = 0b100;
+    private static final int GUESS_IN_PROGRESS = 0b1000;
+    private static final GamePhase[] PHASES = GamePhase.values();
+
+    private final AtomicInteger state = new AtomicInteger(GamePhase.PREPARATION.ordinal());
+    /* Phase and turn the event log starts from: those the game was restored into, if it was. */
+    private volatile int startingState = GamePhase.PREPARATION.ordinal();
+    private final boolean enforceTurns;
     public final static List<Ship> DEFAULT_SHIPS = Collections.unmodifiableList(
             List.of(new Ship("Carrier", new Coordinate(0, 0), new Coordinate(0, 4)),
                     new Ship("Battleship", new Coordinate(0, 0), new Coordinate(0, 3)),
@@ -16,93 +41,310 @@ public class Game {
                     new Ship("Destroyer", new Coordinate(0,0), new Coordinate(0, 1)))
     );
 
-    public final List<GameEvent> gameHistory = new ArrayList<>();
+    private final EventLog gameHistory = new EventLog();
+    private final EventPublisher eventPublisher = new EventPublisher(gameHistory);
+    /* Set before the game is shared, if at all, so read without synchronisation. */
+    private MoveJournal journal = null;
+    private long journalId = 0;
+    /* Guesses at the two boards are journalled under different locks, so this only ever moves forward. */
+    private final AtomicLong lastJournalRecord = new AtomicLong(0);
 
     /**
      * Initialises a new Game object, with the default board size and ships.
      */
     public Game() {
-        this.playerOne = new Board();
-        this.playerTwo = new Board();
-        GameEvent.resetCount();
+        this(Board.DEFAULT_SIZE, Board.DEFAULT_SIZE);
+    }
+
+    /**
+     * Initialises a new Game object, with both players' boards of the given size and the default ships.
+     * @param boardWidth horizontal size of each player's board; between 1 and Board.MAX_SIZE.
+     * @param boardHeight vertical size of each player's board; between 1 and Board.MAX_SIZE.
+     */
+    public Game(int boardWidth, int boardHeight) {
+        this(boardWidth, boardHeight, false);
+    }
+
+    /**
+     * Initialises a new Game object, with both players' boards of the given size and the default ships.
+     * @param boardWidth horizontal size of each player's board; between 1 and Board.MAX_SIZE.
+     * @param boardHeight vertical size of each player's board; between 1 and Board.MAX_SIZE.
+     * @param enforceTurns true to reject guesses made out of turn, false to accept guesses from either
+     *                     player at any time.
+     */
+    public Game(int boardWidth, int boardHeight, boolean enforceTurns) {
+        this.playerOne = new Board(boardWidth, boardHeight);
+        this.playerTwo = new Board(boardWidth, boardHeight);
+        this.enforceTurns = enforceTurns;
     }
 
     /**
      * Have a player attempt to guess the location of another player's ship.
      * @param firstPlayerTurn the player's turn it is to guess; true if first player, false otherwise.
      * @param guessCoordinate the coordinate to guess where a ship is; not null.
-     * @return a String containing one of "HIT", "MISS", or "FAIL" and any appropriate details:
-     *         "HIT" attacking player, victim player, if the hit sunk a ship, if attacker won.
-     *         "MISS" attacking player, victim player.
-     *         "FAIL" reason guess failed.
+     * @return the result of the guess: a miss, a hit, a hit that sunk a ship or won the game,
+     *         or the reason the guess could not be made.
      */
-    public String guessLocation(boolean firstPlayerTurn, Coordinate guessCoordinate) {
-        gameStarted = true;
-
-        if (gameOver) {
-            gameHistory.add(new GameEvent(GameEventType.FAIL, guessCoordinate, firstPlayerTurn, List.of("game over")));
-            return "FAIL: Game over!";
-        }
-
-        if (firstPlayerTurn) {
-            if (playerTwo.coordinateOutsideBoard(guessCoordinate)) {
-                gameHistory.add(new GameEvent(GameEventType.FAIL, guessCoordinate, firstPlayerTurn, List.of("outside board")));
-                return "FAIL: Guess outside P2 board.";
-            }
+    public GuessResult guessLocation(boolean firstPlayerTurn, Coordinate guessCoordinate) {
+        Board victim = firstPlayerTurn ? playerTwo : playerOne;
+        GuessResult result = beginGuess(firstPlayerTurn);
+        boolean ended = false;
 
-            int numShipsSunk = playerTwo.numShipsSunk();
+        if (result != null) {
+            gameHistory.append(result, firstPlayerTurn, guessCoordinate.getX(), guessCoordinate.getY());
+        } else {
             try {
-                if (playerTwo.guessLocation(guessCoordinate)) {
-                    if (playerTwo.numShipsSunk() > numShipsSunk) {
-                        if (playerTwo.allShipsSunk()) { // TODO: add as test, bug here.
-                            gameHistory.add(new GameEvent(GameEventType.HIT, guessCoordinate, firstPlayerTurn, List.of("win")));
-                            return "HIT: P1 sunk P2's ship and won!";
-                        }
-                        gameHistory.add(new GameEvent(GameEventType.HIT, guessCoordinate, firstPlayerTurn, List.of("sunk")));
-                        return "HIT: P1 sunk P2's ship!";
-                    } else {
-                        gameHistory.add(new GameEvent(GameEventType.HIT, guessCoordinate, firstPlayerTurn, List.of("")));
-                        return "HIT: P1 hit P2's ship!";
+                /* Logged under the lock too, so the log holds each board's guesses in the order they were made. */
+                synchronized (victim) {
+                    result = makeGuess(victim, guessCoordinate);
+                    gameHistory.append(result, firstPlayerTurn, guessCoordinate.getX(), guessCoordinate.getY());
+                    if (journal != null && !result.isFail()) {
+                        journalled(journal.appendGuess(journalId, firstPlayerTurn, guessCoordinate.getX(),
+                                guessCoordinate.getY()));
                     }
-                } else {
-                    gameHistory.add(new GameEvent(GameEventType.MISS, guessCoordinate, firstPlayerTurn, List.of("miss")));
-                    return "MISS: P1 did not hit P2's ship.";
                 }
-            } catch (CoordinateAlreadyGuessedException e) {
-                gameHistory.add(new GameEvent(GameEventType.FAIL, guessCoordinate, firstPlayerTurn, List.of("already guessed")));
-                return "FAIL: P1 already guessed this coordinate.";
+            } finally {
+                /* Passed on even if a closed journal refuses the guess, so the game is never left mid-guess. */
+                ended = endGuess(firstPlayerTurn, result);
             }
+        }
+
+        /* Subscribers are completed exactly when the game is over, which a win only makes it with enforced turns. */
+        if (ended) {
+            eventPublisher.close();
         } else {
-            if (playerOne.coordinateOutsideBoard(guessCoordinate)) {
-                gameHistory.add(new GameEvent(GameEventType.FAIL, guessCoordinate, firstPlayerTurn, List.of("outside board")));
-                return "FAIL: Guess outside P1 board.";
+            eventPublisher.publish();
+        }
+
+        return result;
+    }
+
+    /**
+     * Helper for making a guess without recording it, while holding the victim's lock.
+     * @param victim the board being guessed at; not null.
+     * @param guessCoordinate the coordinate to guess where a ship is; not null.
+     * @return the result of the guess.
+     */
+    private GuessResult makeGuess(Board victim, Coordinate guessCoordinate) {
+        if (victim.coordinateOutsideBoard(guessCoordinate)) {
+            return GuessResult.OUTSIDE_BOARD;
+        }
+
+        int numShipsSunk = victim.numShipsSunk();
+        try {
+            if (!victim.guessLocation(guessCoordinate)) {
+                return GuessResult.MISS;
+            } else if (victim.numShipsSunk() == numShipsSunk) {
+                return GuessResult.HIT;
             }
 
-            int numShipsSunk = playerOne.numShipsSunk();
-            try {
-                if (playerOne.guessLocation(guessCoordinate)) {
-                    if (playerOne.numShipsSunk() > numShipsSunk) {
-                        if (playerOne.allShipsSunk()) {
-                            gameHistory.add(new GameEvent(GameEventType.HIT, guessCoordinate, firstPlayerTurn, List.of("win")));
-                            return "HIT: P2 sunk P1's ship and won!";
-                        }
-                        gameHistory.add(new GameEvent(GameEventType.HIT, guessCoordinate, firstPlayerTurn, List.of("sunk")));
-                        return "HIT: P2 sunk P1's ship!";
-                    } else {
-                        gameHistory.add(new GameEvent(GameEventType.HIT, guessCoordinate, firstPlayerTurn, List.of("")));
-                        return "HIT: P2 hit P1's ship!";
-                    }
-                } else {
-                    gameHistory.add(new GameEvent(GameEventType.MISS, guessCoordinate, firstPlayerTurn, List.of("")));
-                    return "MISS: P2 not hit P1's ship.";
+            int shipId = victim.getShipId(guessCoordinate.getX(), guessCoordinate.getY());
+            return GuessResult.sunk(shipId, victim.allShipsSunk());
+        } catch (CoordinateAlreadyGuessedException e) {
+            return GuessResult.ALREADY_GUESSED;
+        } catch (InvalidPlacementException e) {
+            /* Unreachable, as the coordinate was checked to be on the board above. */
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Helper for claiming the right to make a guess, starting the game if it has not started.
+     * @param isPlayerOne true if player one is guessing, false for player two.
+     * @return null if the guess may be made, otherwise the reason it cannot be.
+     */
+    private GuessResult beginGuess(boolean isPlayerOne) {
+        while (true) {
+            int current = state.get();
+            GamePhase phase = phaseOf(current);
+            int next;
+
+            if (phase == GamePhase.OVER) {
+                return GuessResult.GAME_OVER;
+            } else if (phase == GamePhase.PREPARATION) {
+                /* Whoever guesses first takes the first turn. */
+                next = GamePhase.PLAYING.ordinal() | (isPlayerOne ? PLAYER_ONE_TO_MOVE : 0)
+                        | (enforceTurns ? GUESS_IN_PROGRESS : 0);
+            } else if (!enforceTurns) {
+                return null;
+            } else if ((current & GUESS_IN_PROGRESS) != 0 || isPlayerOneToMove(current) != isPlayerOne) {
+                return GuessResult.OUT_OF_TURN;
+            } else {
+                next = current | GUESS_IN_PROGRESS;
+            }
+
+            if (state.compareAndSet(current, next)) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Helper for passing the turn on, or ending the game, once a guess has been made.
+     * @param isPlayerOne true if player one guessed, false for player two.
+     * @param result the result of the guess; not null.
+     * @return true if the guess ended the game, false otherwise.
+     */
+    private boolean endGuess(boolean isPlayerOne, GuessResult result) {
+        while (true) {
+            int current = state.get();
+            int next = current & ~GUESS_IN_PROGRESS;
+
+            if (phaseOf(current) == GamePhase.PLAYING) {
+                if (enforceTurns && result.isWin()) {
+                    next = (next & ~PHASE_MASK) | GamePhase.OVER.ordinal();
+                } else if (result.isMiss() || result.isHit()) {
+                    boolean playerOneNext = result.isMiss() != isPlayerOne;
+                    next = playerOneNext ? next | PLAYER_ONE_TO_MOVE : next & ~PLAYER_ONE_TO_MOVE;
                 }
-            } catch (CoordinateAlreadyGuessedException e) {
-                gameHistory.add(new GameEvent(GameEventType.FAIL, guessCoordinate, firstPlayerTurn, List.of("already guessed")));
-                return "FAIL: P2 already guessed this coordinate.";
+            }
+
+            if (next == current || state.compareAndSet(current, next)) {
+                return phaseOf(next) == GamePhase.OVER && phaseOf(current) != GamePhase.OVER;
             }
         }
     }
 
+    /**
+     * Helper for moving the game to its over phase, keeping whose turn it was, and completing subscribers.
+     * @return true if this call ended the game, false if it was already over.
+     */
+    private boolean setOver() {
+        while (true) {
+            int current = state.get();
+            if (phaseOf(current) == GamePhase.OVER) {
+                return false;
+            }
+
+            if (state.compareAndSet(current, (current & ~PHASE_MASK) | GamePhase.OVER.ordinal())) {
+                eventPublisher.close();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @param state a value of the game's state.
+     * @return the phase the state is in.
+     */
+    private static GamePhase phaseOf(int state) {
+        return PHASES[state & PHASE_MASK];
+    }
+
+    /**
+     * @param state a value of the game's state.
+     * @return true if it is player one's turn in the state, false if player two's.
+     */
+    private static boolean isPlayerOneToMove(int state) {
+        return (state & PLAYER_ONE_TO_MOVE) != 0;
+    }
+
+    /**
+     * Get a player's board, for saving and restoring the game within the package. The board is also the
+     * lock for changes to it, so hold it while reading.
+     * @param isPlayerOne true if referring to player one, false for player two.
+     * @return the player's board.
+     */
+    Board getBoard(boolean isPlayerOne) {
+        return isPlayerOne ? playerOne : playerTwo;
+    }
+
+    /**
+     * Check whether a guess is being made under enforced turns, and so whose turn it is may be about to change.
+     * @return true if a guess is being made, false otherwise or if turns are not enforced.
+     */
+    boolean isGuessInProgress() {
+        return (state.get() & GUESS_IN_PROGRESS) != 0;
+    }
+
+    /**
+     * Put a game being restored into a saved phase and turn, once its boards are restored.
+     * @param phase the saved phase; not null.
+     * @param playerOneToMove true if it was player one's turn, false if player two's.
+     */
+    void restoreState(GamePhase phase, boolean playerOneToMove) {
+        startingState = phase.ordinal() | (playerOneToMove ? PLAYER_ONE_TO_MOVE : 0);
+        state.set(startingState);
+        if (phase == GamePhase.OVER) {
+            eventPublisher.close();
+        }
+    }
+
+    /**
+     * @return phase the event log starts from: the phase the game was restored into, or PREPARATION.
+     */
+    GamePhase getStartingPhase() {
+        return phaseOf(startingState);
+    }
+
+    /**
+     * Check whose turn it was where the event log starts, by the same rules as isPlayerOneTurn().
+     * @return true if it was player one's turn, false if player two's.
+     */
+    boolean isPlayerOneTurnAtStart() {
+        int start = startingState;
+        return phaseOf(start) == GamePhase.PREPARATION || isPlayerOneToMove(start);
+    }
+
+    /**
+     * Record every ship placed and guess accepted from now on in a journal, so the game can be rebuilt from it
+     * after a crash. Games that end by winning need no more; a game ended early is journalled as ended.
+     * Must be called before the game is shared between threads, and before any ship is placed.
+     * @param journal the journal to append to; not null.
+     * @param gameId id of the game in the journal, not used by any other game in it.
+     * @throws IllegalStateException if already journalled, ships have been placed, or the journal is closed.
+     */
+    public void setJournal(MoveJournal journal, long gameId) {
+        if (this.journal != null || getPhase() != GamePhase.PREPARATION
+                || !playerOne.getShips().isEmpty() || !playerTwo.getShips().isEmpty()) {
+            throw new IllegalStateException("Only a game not yet begun can be journalled.");
+        }
+
+        journalled(journal.appendCreate(gameId, playerOne.getXSize(), playerOne.getYSize(), enforceTurns));
+        this.journal = journal;
+        this.journalId = gameId;
+    }
+
+    /**
+     * Get the last record journalled for this game, so callers can wait for only this game's moves to be durable.
+     * @return number of the record, as counted by MoveJournal.getAppendedCount(); 0 if the game is not journalled.
+     */
+    public long getLastJournalRecord() {
+        return lastJournalRecord.get();
+    }
+
+    /**
+     * Helper for noting a record journalled for this game.
+     * @param record number of the record.
+     */
+    private void journalled(long record) {
+        lastJournalRecord.accumulateAndGet(record, Math::max);
+    }
+
+    /**
+     * @return the phase the game is in: preparing, playing, or over.
+     */
+    public GamePhase getPhase() {
+        return phaseOf(state.get());
+    }
+
+    /**
+     * Check whose turn it is, following the usual rules whether or not turns are enforced.
+     * Before the first guess, either player may start, and this returns true.
+     * @return true if it is player one's turn, false if player two's.
+     */
+    public boolean isPlayerOneTurn() {
+        int current = state.get();
+        return phaseOf(current) == GamePhase.PREPARATION || isPlayerOneToMove(current);
+    }
+
+    /**
+     * @return true if guesses made out of turn are rejected, false otherwise.
+     */
+    public boolean isTurnEnforced() {
+        return enforceTurns;
+    }
+
     /**
      * Set a ship on a specific player's board.
      * @param firstPlayerTurn who's turn it is to place the ship.
@@ -110,22 +352,44 @@ public class Game {
      * @return true if successfully placed, false otherwise.
      */
     public boolean setShip(boolean firstPlayerTurn, Ship ship) {
-        if (gameStarted) {
-            return false;
-        }
-
-        Ship copyShip = new Ship(ship.getName(), ship.getCoordinates());
+        /* Board takes its own copy of the ship, so no need to copy it here as well. */
+        Board board = firstPlayerTurn ? playerOne : playerTwo;
+        synchronized (board) {
+            /* Checked under the lock, so a placement either lands before the first guess at the board or fails. */
+            if (getPhase() != GamePhase.PREPARATION) {
+                return false;
+            }
 
-        if (firstPlayerTurn) {
             try {
-                playerOne.setShip(copyShip);
+                board.setShip(ship);
+                if (journal != null) {
+                    journalled(journal.appendShip(journalId, firstPlayerTurn, ship));
+                }
                 return true;
             } catch (InvalidPlacementException e) {
                 return false;
             }
-        } else {
+        }
+    }
+
+    /**
+     * Set a whole fleet of ships on a specific player's board, placing either all of them or none of them.
+     * @param firstPlayerTurn who's turn it is to place the fleet.
+     * @param ships the ships to place on a player's board; not null.
+     * @return true if the whole fleet was successfully placed, false if none of it was.
+     */
+    public boolean setFleet(boolean firstPlayerTurn, List<Ship> ships) {
+        Board board = firstPlayerTurn ? playerOne : playerTwo;
+        synchronized (board) {
+            if (getPhase() != GamePhase.PREPARATION) {
+                return false;
+            }
+
             try {
-                playerTwo.setShip(copyShip);
+                board.setShips(ships);
+                if (journal != null) {
+                    journalled(journal.appendFleet(journalId, firstPlayerTurn, ships));
+                }
                 return true;
             } catch (InvalidPlacementException e) {
                 return false;
@@ -138,11 +402,11 @@ public class Game {
      * @return true if game is over, false otherwise.
      */
     private boolean checkEndGame() {
-        if (gameStarted && !gameOver) {
-            gameOver = playerOne.allShipsSunk() || playerTwo.allShipsSunk();
+        if (getPhase() == GamePhase.PLAYING && (playerOne.allShipsSunk() || playerTwo.allShipsSunk())) {
+            setOver();
         }
 
-        return gameOver;
+        return getPhase() == GamePhase.OVER;
     }
 
     /**
@@ -150,7 +414,7 @@ public class Game {
      * @return player(s) who won; "Not Ended", "Player 1", "Player 2", "Tie", or "Neither".
      */
     public String checkWinner() {
-        if (gameOver || checkEndGame()) {
+        if (checkEndGame()) {
             boolean playerOneLoss = playerOne.allShipsSunk();
             boolean playerTwoLoss = playerTwo.allShipsSunk();
             if (playerOneLoss && playerTwoLoss) {
@@ -171,7 +435,9 @@ public class Game {
      * Ends the game, allowing no more moves to be made for the game.
      */
     public void endGame() {
-        this.gameOver = true;
+        if (setOver() && journal != null) {
+            journalled(journal.appendEnd(journalId));
+        }
     }
 
     /**
@@ -207,11 +473,22 @@ public class Game {
      * @return true if the given coordinate is valid for the specified player, false otherwise.
      */
     public boolean isValidCoordinate(Coordinate coordinate, boolean isPlayerOne) {
+        return isValidCoordinate(coordinate.getX(), coordinate.getY(), isPlayerOne);
+    }
+
+    /**
+     * Check if a position is valid for a specific player's board.
+     * @param x horizontal position to check.
+     * @param y vertical position to check.
+     * @param isPlayerOne true if referring to first player, false for second player.
+     * @return true if the given position is valid for the specified player, false otherwise.
+     */
+    public boolean isValidCoordinate(int x, int y, boolean isPlayerOne) {
         if (isPlayerOne) {
-            return !playerOne.coordinateOutsideBoard(coordinate);
+            return !playerOne.coordinateOutsideBoard(x, y);
         }
 
-        return !playerTwo.coordinateOutsideBoard(coordinate);
+        return !playerTwo.coordinateOutsideBoard(x, y);
     }
 
     /**
@@ -238,25 +515,73 @@ public class Game {
         return isPlayerOne ? playerOne.getShips() : playerTwo.getShips();
     }
 
+    /**
+     * Get the number of ships a specified player still has afloat.
+     * @param isPlayerOne true if referring to first player, false for second player.
+     * @return number of the player's placed ships that have not been sunk.
+     */
+    public int getShipsRemaining(boolean isPlayerOne) {
+        return isPlayerOne ? playerOne.numShipsRemaining() : playerTwo.numShipsRemaining();
+    }
+
     /**
      * Get all new events that have happened in the game, past a certain point.
      * @param startingEventNum event number which everything after will be returned.
-     * @return all events that happened after specified point.
+     * @return all events that happened after specified point, other than failed guesses.
      */
     public List<GameEvent> getNewEvents(int startingEventNum) {
         List<GameEvent> newEvents = new ArrayList<>();
 
-        for (int i = startingEventNum; i < gameHistory.size(); i++) {
-            GameEvent event = gameHistory.get(i);
-
-            if (event.getEventType() != GameEventType.FAIL) {
-                newEvents.add(event);
+        EventLog.Cursor cursor = gameHistory.cursor(Math.min(startingEventNum, gameHistory.size()));
+        while (cursor.next()) {
+            if (cursor.getEventType() != GameEventType.FAIL) {
+                newEvents.add(cursor.toEvent());
             }
         }
 
         return newEvents;
     }
 
+    /**
+     * Subscribe to every event in the game, from the first guess onwards.
+     * Events already made are sent first, then each new one as it happens, as far as the subscriber has
+     * requested them. The subscriber is completed once the game is over, after the winning guess when turns
+     * are enforced, or once the game is ended or found to be over.
+     * @param subscriber subscriber to send events to; not null.
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super GameEvent> subscriber) {
+        subscribe(subscriber, 0);
+    }
+
+    /**
+     * Subscribe to events in the game, past a certain point.
+     * Events are sent on the thread that makes the guess or requests them, and include failed guesses.
+     * @param subscriber subscriber to send events to; not null.
+     * @param startingEventNum event number which everything after will be sent; between 0 and the number of events.
+     */
+    public void subscribe(Flow.Subscriber<? super GameEvent> subscriber, int startingEventNum) {
+        eventPublisher.subscribe(subscriber, startingEventNum);
+    }
+
+    /**
+     * Subscribe to events in the game, past a certain point, read through a cursor rather than as GameEvents.
+     * Each event is sent as the subscription's own cursor, moved onto that event, so no object is built per
+     * event; the cursor must only be read within onNext. Otherwise the same as subscribe().
+     * @param subscriber subscriber to send the cursor to; not null.
+     * @param startingEventNum event number which everything after will be sent; between 0 and the number of events.
+     */
+    public void subscribeToLog(Flow.Subscriber<? super EventLog.Cursor> subscriber, int startingEventNum) {
+        eventPublisher.subscribeToLog(subscriber, startingEventNum);
+    }
+
+    /**
+     * @return the log of every guess made in the game, including failed guesses.
+     */
+    public EventLog getEventLog() {
+        return gameHistory;
+    }
+
     /**
      * Get the associated coordinates of any ships that are on a specified coordinate.
      * @param isPlayerOne true if referring to player one, false otherwise.
@@ -265,10 +590,80 @@ public class Game {
      * @return list of all coordinates of a ship that is on the specified coordinate.
      */
     public List<Coordinate> getAssociatedShipCoords (boolean isPlayerOne, int x, int y) {
-        try {
-            return isPlayerOne ? playerOne.getAssociatedShipCoords(x, y) : playerTwo.getAssociatedShipCoords(x, y);
-        } catch (Exception e) {
-            return new ArrayList<Coordinate>();
+        Board board = isPlayerOne ? playerOne : playerTwo;
+        synchronized (board) {
+            try {
+                return board.getAssociatedShipCoords(x, y);
+            } catch (Exception e) {
+                return new ArrayList<Coordinate>();
+            }
+        }
+    }
+
+    /**
+     * Get copies of the cells of any ship that is on a specified coordinate, as they stand now.
+     * Copies are taken under the board's lock, so they can be read from any thread, but do not follow later guesses.
+     * @param isPlayerOne true if referring to player one, false otherwise.
+     * @param x horizontal position of coordinate on board.
+     * @param y vertical position of coordinate on board.
+     * @return unmodifiable list of all cells of a ship that is on the specified coordinate; empty if none.
+     */
+    public List<Cell> getAssociatedShipCells(boolean isPlayerOne, int x, int y) {
+        Board board = isPlayerOne ? playerOne : playerTwo;
+        synchronized (board) {
+            try {
+                List<Cell> views = board.getAssociatedShipCells(x, y);
+                Cell[] cells = new Cell[views.size()];
+                for (int i = 0; i < cells.length; i++) {
+                    cells[i] = new CellValue(views.get(i));
+                }
+                return List.of(cells);
+            } catch (InvalidPlacementException e) {
+                return Collections.emptyList();
+            }
+        }
+    }
+
+    /**
+     * Get a copy of a cell on a specified player's board, as it stands now.
+     * The copy is taken under the board's lock, so it can be read from any thread, but does not follow later guesses.
+     * @param isPlayerOne true if referring to player one, false otherwise.
+     * @param x horizontal position of cell on board.
+     * @param y vertical position of cell on board.
+     * @return copy of the cell, or null if outside the board.
+     */
+    public Cell getCell(boolean isPlayerOne, int x, int y) {
+        Board board = isPlayerOne ? playerOne : playerTwo;
+        synchronized (board) {
+            try {
+                return new CellValue(board.getCell(x, y));
+            } catch (InvalidPlacementException e) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Get the id of the ship on a cell of a specified player's board, as used by GuessResult.getSunkShipId().
+     * Unlike getCell(), nothing is allocated, so it suits callers reading many cells.
+     * @param isPlayerOne true if referring to player one, false otherwise.
+     * @param x horizontal position of cell on board.
+     * @param y vertical position of cell on board.
+     * @return id of the ship on the cell, or GuessResult.NO_SHIP if none is or the cell is outside the board.
+     */
+    public int getShipId(boolean isPlayerOne, int x, int y) {
+        Board board = isPlayerOne ? playerOne : playerTwo;
+        if (board.coordinateOutsideBoard(x, y)) {
+            return GuessResult.NO_SHIP;
+        }
+
+        synchronized (board) {
+            try {
+                return board.getShipId(x, y);
+            } catch (InvalidPlacementException e) {
+                /* Unreachable, as the cell was checked to be on the board above. */
+                throw new IllegalStateException(e);
+            }
         }
     }
 }
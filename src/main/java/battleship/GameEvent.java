@@ -4,34 +4,40 @@ import java.util.Collections;
 import java.util.List;
 
 public class GameEvent {
-    private static int totalEvents = 0;
-    private int eventNum;
+    private final int eventNum;
     private final GameEventType eventType;
-    private final Coordinate coordinate;
+    private final Position position;
     private final boolean isPlayerOneAttacker;
     private final List<String> extraInfo;
 
     /**
      * Initialises a new GameEvent object, representing an event that happened at one point during play.
+     * @param eventNum number of the event within its game, counting from 1.
      * @param eventType the type of event; not null.
      * @param coordinate the coordinate this event occurred; not null.
      * @param isPlayerOneAttacker true if player one was attacking, false for player two.
      * @param extraInfo any other info related to the event; not null, contains at least one element.
      */
-    public GameEvent(GameEventType eventType, Coordinate coordinate, boolean isPlayerOneAttacker, List<String> extraInfo) {
-        // TODO: Store what ship was at this event?
-        this.eventNum = ++totalEvents;
+    public GameEvent(int eventNum, GameEventType eventType, Coordinate coordinate, boolean isPlayerOneAttacker, List<String> extraInfo) {
+        this(eventNum, eventType, Position.of(coordinate.getX(), coordinate.getY()), isPlayerOneAttacker, extraInfo);
+    }
+
+    /**
+     * Initialises a GameEvent object for an event already numbered by a game's EventLog.
+     * @param eventNum number of the event within its game, counting from 1.
+     * @param eventType the type of event; not null.
+     * @param position the position this event occurred; not null.
+     * @param isPlayerOneAttacker true if player one was attacking, false for player two.
+     * @param extraInfo any other info related to the event; not null, contains at least one element.
+     */
+    GameEvent(int eventNum, GameEventType eventType, Position position, boolean isPlayerOneAttacker, List<String> extraInfo) {
+        this.eventNum = eventNum;
         this.eventType = eventType;
-        this.coordinate = new Coordinate(coordinate.getX(), coordinate.getY(), coordinate.isGuessed(), null);
+        this.position = position;
         this.isPlayerOneAttacker = isPlayerOneAttacker;
         this.extraInfo = Collections.unmodifiableList(extraInfo);
     }
 
-    public static void resetCount() {
-        // FIXME: this is quite messy.
-        totalEvents = 0;
-    }
-
     /**
      * @return attacker (active player) in this event; true for player one, false for player two.
      */
@@ -57,7 +63,14 @@ public class GameEvent {
      * @return the coordinate this event occurred at, does not include guess value and occupying ship.
      */
     public Coordinate getCoordinate() {
-        return new Coordinate(coordinate.getX(), coordinate.getY());
+        return position.toCoordinate();
+    }
+
+    /**
+     * @return the position this event occurred at, shared rather than copied.
+     */
+    public Position getPosition() {
+        return position;
     }
 
     /**
@@ -75,6 +88,9 @@ public class GameEvent {
         return "";
     }
 
+    /**
+     * @return number of this event within its game, counting from 1 in the order events happened.
+     */
     public int getEventNum() {
         return eventNum;
     }
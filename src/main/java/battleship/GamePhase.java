@@ -0,0 +1,7 @@
+package battleship;
+
+public enum GamePhase {
+    PREPARATION,
+    PLAYING,
+    OVER
+}
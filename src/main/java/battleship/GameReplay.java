@@ -0,0 +1,351 @@
+package battleship;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rebuilds both boards of a game as they stood after any event in its history, for reviewing matches,
+ * auditing them, and extracting positions to train AIs on. The event log holds only guesses, so a replay
+ * starts from the fleets placed, which are fixed once play begins, and applies each guess to a pair of
+ * bit boards.
+ *
+ * Every snapshot interval of events, the replay keeps a snapshot of both boards' guessed cells and whose turn
+ * it was. Seeking to an event restores the latest snapshot at or before it and applies only the events after,
+ * so any event is reached in at most one interval of steps rather than by replaying from the start. Moving on
+ * to the next event applies just that event. Each snapshot holds one bit per cell of both boards, so a longer
+ * interval trades seeking time for less memory.
+ *
+ * Events are numbered as in the event log; event 0 is the game before any guess logged. A game restored from a
+ * GameSnapshot starts a new log, so its event 0 holds the guesses and turn it was restored with. A replay covers
+ * the events logged when it was created, and catchUp() extends it to events logged since, so a game still in play
+ * can be followed. A replay must only be used by one thread at a time.
+ */
+public final class GameReplay {
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 32;
+    private static final int PLAYER_ONE_TO_MOVE = 0b1;
+    private static final int STARTED = 0b10;
+
+    private final EventLog log;
+    private final int snapshotInterval;
+    private final BitBoard playerOne;
+    private final BitBoard playerTwo;
+    private final int words;
+    /* Snapshot k is both boards' guessed masks after event k * snapshotInterval, then the turn flags. */
+    private final List<long[]> snapshots = new ArrayList<>();
+    private int eventCount = 0;
+    private int eventNum = 0;
+    private boolean playerOneToMove = true;
+    private boolean started = false;
+
+    /**
+     * Initialises a replay of a game's events so far, taking a snapshot every DEFAULT_SNAPSHOT_INTERVAL events.
+     * @param game the game, with both fleets placed; not null.
+     */
+    public GameReplay(Game game) {
+        this(game, DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    /**
+     * Initialises a replay of a game's events so far, left at the latest event.
+     * @param game the game, with both fleets placed; not null.
+     * @param snapshotInterval number of events between snapshots; positive.
+     * @throws IllegalArgumentException if a board is too large for a bit board, or holds a ship that is not
+     *                                  straight and gap-free.
+     */
+    public GameReplay(Game game, int snapshotInterval) {
+        if (snapshotInterval <= 0) {
+            throw new IllegalArgumentException("Snapshot interval must be positive.");
+        }
+
+        this.log = game.getEventLog();
+        this.snapshotInterval = snapshotInterval;
+        this.playerOne = fleetBoard(game, true);
+        this.playerTwo = fleetBoard(game, false);
+        this.words = playerOne.wordCount();
+        this.started = game.getStartingPhase() != GamePhase.PREPARATION;
+        this.playerOneToMove = game.isPlayerOneTurnAtStart();
+        seedGuesses(game);
+        takeSnapshot();
+        catchUp();
+    }
+
+    /**
+     * Extend the replay to every event logged so far, and move to the latest.
+     * @return number of events the replay covers.
+     */
+    public int catchUp() {
+        int target = log.size();
+        seek(eventCount);
+        eventCount = target;
+        while (next()) {
+            if (eventNum % snapshotInterval == 0) {
+                takeSnapshot();
+            }
+        }
+
+        return eventCount;
+    }
+
+    /**
+     * Move to the boards as they stood after an event.
+     * @param eventNum number of the event; between 0, before any guess, and getEventCount().
+     */
+    public void seek(int eventNum) {
+        if (eventNum < 0 || eventNum > eventCount) {
+            throw new IllegalArgumentException("Event number outside replay.");
+        }
+
+        /* Carry on from here if no snapshot lies between, otherwise start from the closest snapshot. */
+        int snapshot = eventNum / snapshotInterval;
+        if (this.eventNum > eventNum || this.eventNum < snapshot * snapshotInterval) {
+            restoreSnapshot(snapshot);
+        }
+        while (this.eventNum < eventNum) {
+            next();
+        }
+    }
+
+    /**
+     * Move on by one event.
+     * @return true if moved on, false if already at the last event covered.
+     */
+    public boolean next() {
+        if (eventNum == eventCount) {
+            return false;
+        }
+
+        apply(eventNum);
+        eventNum++;
+        return true;
+    }
+
+    /**
+     * @return number of the event the boards stand after; 0 before any guess.
+     */
+    public int getEventNumber() {
+        return eventNum;
+    }
+
+    /**
+     * @return number of events the replay covers.
+     */
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    /**
+     * @return number of events between snapshots.
+     */
+    public int getSnapshotInterval() {
+        return snapshotInterval;
+    }
+
+    /**
+     * Check whose turn it was, by the same rules as Game.isPlayerOneTurn().
+     * @return true if it was player one's turn, false if player two's.
+     */
+    public boolean isPlayerOneTurn() {
+        return !started || playerOneToMove;
+    }
+
+    /**
+     * @param isPlayerOne true if referring to player one's board, false for player two's.
+     * @param x horizontal position of the cell.
+     * @param y vertical position of the cell.
+     * @return true if the cell had been guessed.
+     */
+    public boolean isGuessed(boolean isPlayerOne, int x, int y) {
+        return board(isPlayerOne).isGuessed(x, y);
+    }
+
+    /**
+     * @param isPlayerOne true if referring to player one's board, false for player two's.
+     * @param x horizontal position of the cell.
+     * @param y vertical position of the cell.
+     * @return true if a ship sits on the cell.
+     */
+    public boolean isOccupied(boolean isPlayerOne, int x, int y) {
+        return board(isPlayerOne).isOccupied(x, y);
+    }
+
+    /**
+     * @param isPlayerOne true if referring to player one's board, false for player two's.
+     * @param x horizontal position of the cell.
+     * @param y vertical position of the cell.
+     * @return id of the ship on the cell, in the order the fleet was placed, or -1 if the cell is empty.
+     */
+    public int getShipAt(boolean isPlayerOne, int x, int y) {
+        return board(isPlayerOne).getShipAt(x, y);
+    }
+
+    /**
+     * @param isPlayerOne true if referring to player one's board, false for player two's.
+     * @param shipId id of the ship, in the order the fleet was placed.
+     * @return true if every cell of the ship had been guessed.
+     */
+    public boolean isShipSunk(boolean isPlayerOne, int shipId) {
+        return board(isPlayerOne).isShipSunk(shipId);
+    }
+
+    /**
+     * @param isPlayerOne true if referring to player one's board, false for player two's.
+     * @return number of the player's ships still afloat.
+     */
+    public int getShipsRemaining(boolean isPlayerOne) {
+        BitBoard board = board(isPlayerOne);
+        return board.numShips() - board.numShipsSunk();
+    }
+
+    /**
+     * Copy the guessed cells of a board, one bit per cell in row-major order, without allocating.
+     * @param isPlayerOne true if referring to player one's board, false for player two's.
+     * @param dest array of at least wordCount() elements; not null.
+     */
+    public void copyGuessedMask(boolean isPlayerOne, long[] dest) {
+        board(isPlayerOne).copyGuessedMask(dest);
+    }
+
+    /**
+     * Copy the cells of a board that ships sit on, one bit per cell in row-major order, without allocating.
+     * @param isPlayerOne true if referring to player one's board, false for player two's.
+     * @param dest array of at least wordCount() elements; not null.
+     */
+    public void copyOccupiedMask(boolean isPlayerOne, long[] dest) {
+        board(isPlayerOne).copyOccupiedMask(dest);
+    }
+
+    /**
+     * @return number of 64-bit words in each board's masks.
+     */
+    public int wordCount() {
+        return words;
+    }
+
+    /**
+     * Helper for applying an event to the boards and the turn, following Game's rules.
+     * @param index index of the event in the log.
+     */
+    private void apply(int index) {
+        GuessOutcome outcome = log.getOutcome(index);
+        if (outcome == GuessOutcome.GAME_OVER || outcome == GuessOutcome.OUT_OF_TURN) {
+            return;
+        }
+
+        /* Whoever guesses first takes the first turn, even if the guess itself fails. */
+        boolean isPlayerOne = log.isPlayerOneAttacker(index);
+        if (!started) {
+            started = true;
+            playerOneToMove = isPlayerOne;
+        }
+
+        GameEventType type = log.getEventType(index);
+        if (type == GameEventType.FAIL) {
+            return;
+        }
+        try {
+            board(!isPlayerOne).guessLocation(log.getX(index), log.getY(index));
+        } catch (CoordinateAlreadyGuessedException | IllegalArgumentException e) {
+            throw new IllegalStateException("Event " + (index + 1) + " does not fit the game's boards.", e);
+        }
+        playerOneToMove = type == GameEventType.HIT ? isPlayerOne : !isPlayerOne;
+    }
+
+    /**
+     * Helper for keeping a snapshot of the boards as they stand, at the next snapshot's event.
+     */
+    private void takeSnapshot() {
+        long[] snapshot = new long[words * 2 + 1];
+        playerOne.copyGuessedMask(snapshot, 0);
+        playerTwo.copyGuessedMask(snapshot, words);
+        snapshot[words * 2] = (playerOneToMove ? PLAYER_ONE_TO_MOVE : 0) | (started ? STARTED : 0);
+        snapshots.add(snapshot);
+    }
+
+    /**
+     * Helper for putting the boards back as they stood at a snapshot.
+     * @param snapshotNum number of the snapshot.
+     */
+    private void restoreSnapshot(int snapshotNum) {
+        long[] snapshot = snapshots.get(snapshotNum);
+        playerOne.restoreGuessedMask(snapshot, 0);
+        playerTwo.restoreGuessedMask(snapshot, words);
+        long flags = snapshot[words * 2];
+        playerOneToMove = (flags & PLAYER_ONE_TO_MOVE) != 0;
+        started = (flags & STARTED) != 0;
+        eventNum = snapshotNum * snapshotInterval;
+    }
+
+    /**
+     * Helper for guessing, before event 0, every cell the game's boards hold a guess on that its log does not,
+     * as in a game restored from a snapshot.
+     * @param game the game; not null.
+     */
+    private void seedGuesses(Game game) {
+        Board boardOne = game.getBoard(true);
+        Board boardTwo = game.getBoard(false);
+        long[][] guessed = new long[2][];
+        int logged;
+
+        /* Guesses are logged under their board's lock, so holding both reads boards and log as they agree. */
+        synchronized (boardOne) {
+            synchronized (boardTwo) {
+                guessed[0] = boardOne.getGuessedCells();
+                guessed[1] = boardTwo.getGuessedCells();
+                logged = log.size();
+            }
+        }
+        if (guessed[0].length == 0 && guessed[1].length == 0) {
+            return;
+        }
+
+        int width = playerOne.getXSize();
+        long[][] loggedMasks = {new long[words], new long[words]};
+        for (int i = 0; i < logged; i++) {
+            if (log.getEventType(i) != GameEventType.FAIL) {
+                long cell = (long) log.getY(i) * width + log.getX(i);
+                loggedMasks[log.isPlayerOneAttacker(i) ? 1 : 0][(int) (cell >>> 6)] |= 1L << cell;
+            }
+        }
+
+        for (int player = 0; player < 2; player++) {
+            BitBoard board = board(player == 0);
+            for (long cell : guessed[player]) {
+                if ((loggedMasks[player][(int) (cell >>> 6)] & (1L << cell)) != 0) {
+                    continue;
+                }
+                try {
+                    board.guessLocation((int) (cell % width), (int) (cell / width));
+                } catch (CoordinateAlreadyGuessedException e) {
+                    throw new IllegalStateException("Board lists a cell as guessed twice.", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param isPlayerOne true if referring to player one's board, false for player two's.
+     * @return the player's board.
+     */
+    private BitBoard board(boolean isPlayerOne) {
+        return isPlayerOne ? playerOne : playerTwo;
+    }
+
+    /**
+     * Helper for building a bit board holding a player's fleet, with nothing guessed.
+     * @param game the game; not null.
+     * @param isPlayerOne true if referring to player one's board, false for player two's.
+     * @return the new board.
+     */
+    private static BitBoard fleetBoard(Game game, boolean isPlayerOne) {
+        BitBoard board = new BitBoard(game.getBoardWidth(isPlayerOne), game.getBoardHeight(isPlayerOne));
+        for (Ship ship : game.getPlacedShips(isPlayerOne)) {
+            try {
+                board.setShip(ship);
+            } catch (InvalidPlacementException e) {
+                throw new IllegalArgumentException("Ship cannot be held by a bit board.", e);
+            }
+        }
+
+        return board;
+    }
+}
@@ -0,0 +1,317 @@
+package battleship;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * The state of a game at one moment: both boards' ships and guessed cells, the phase, and whose turn it is.
+ * Snapshots are saved to a compact binary file and loaded back through a memory mapping, so many games can
+ * be resumed at once. The event log is not kept; a restored game starts a new one.
+ *
+ * A file is a header, then one record per game, each prefixed with its length:
+ * <pre>
+ * header:  magic:int version:byte games:int
+ * game:    length:int width:int height:int flags:byte board board
+ * board:   ships:short ship* encoding:byte guesses
+ * ship:    nameLength:short name:bytes startX:int startY:int endX:int endY:int
+ * guesses: count:int then, by encoding, a row-major bitmap of the board or each cell's row-major index:long
+ * </pre>
+ * The flags hold the phase's ordinal, whether it is player one's turn, and whether turns are enforced.
+ */
+public final class GameSnapshot {
+    private static final int MAGIC = 0x42534E50;
+    private static final byte VERSION = 1;
+    private static final int HEADER_SIZE = Integer.BYTES + 1 + Integer.BYTES;
+    private static final int PHASE_MASK = 0b11;
+    private static final int PLAYER_ONE_TO_MOVE = 0b100;
+    private static final int ENFORCE_TURNS = 0b1000;
+    private static final byte GUESS_LIST = 0;
+    private static final byte GUESS_BITMAP = 1;
+
+    private final int width;
+    private final int height;
+    private final GamePhase phase;
+    private final boolean playerOneToMove;
+    private final boolean enforceTurns;
+    private final List<List<Ship>> ships;
+    private final List<long[]> guessedCells;
+
+    private GameSnapshot(int width, int height, GamePhase phase, boolean playerOneToMove, boolean enforceTurns,
+                         List<List<Ship>> ships, List<long[]> guessedCells) {
+        this.width = width;
+        this.height = height;
+        this.phase = phase;
+        this.playerOneToMove = playerOneToMove;
+        this.enforceTurns = enforceTurns;
+        this.ships = ships;
+        this.guessedCells = guessedCells;
+    }
+
+    /**
+     * Take a snapshot of a game, which may be in play on other threads.
+     * Both boards are locked while they are read, and a guess being made under enforced turns is waited
+     * for, so the snapshot never holds a guess without the turn change it caused.
+     * @param game the game to take a snapshot of; not null.
+     * @return the snapshot.
+     */
+    public static GameSnapshot of(Game game) {
+        Board playerOne = game.getBoard(true);
+        Board playerTwo = game.getBoard(false);
+
+        while (true) {
+            synchronized (playerOne) {
+                synchronized (playerTwo) {
+                    if (!game.isGuessInProgress()) {
+                        return new GameSnapshot(playerOne.getXSize(), playerOne.getYSize(), game.getPhase(),
+                                game.isPlayerOneTurn(), game.isTurnEnforced(),
+                                List.of(playerOne.getShips(), playerTwo.getShips()),
+                                List.of(playerOne.getGuessedCells(), playerTwo.getGuessedCells()));
+                    }
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Build a new game in the state of this snapshot.
+     * @return the restored game, with an empty event log.
+     * @throws IllegalStateException if the snapshot's ships or guesses do not fit its boards.
+     */
+    public Game toGame() {
+        Game game = new Game(width, height, enforceTurns);
+        for (int player = 0; player < 2; player++) {
+            boolean isPlayerOne = player == 0;
+            if (!game.setFleet(isPlayerOne, ships.get(player))) {
+                throw new IllegalStateException("Saved ships cannot be placed.");
+            }
+
+            Board board = game.getBoard(isPlayerOne);
+            for (long cell : guessedCells.get(player)) {
+                try {
+                    board.guessLocation(new Coordinate((int) (cell % width), (int) (cell / width)));
+                } catch (CoordinateAlreadyGuessedException | IllegalArgumentException e) {
+                    throw new IllegalStateException("Saved guess cannot be made.", e);
+                }
+            }
+        }
+        game.restoreState(phase, playerOneToMove);
+
+        return game;
+    }
+
+    /**
+     * Save snapshots of games to a file, replacing it whole once every game is written.
+     * @param file the file to save to; not null.
+     * @param games the games to save; not null.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void save(Path file, Collection<Game> games) throws IOException {
+        List<GameSnapshot> snapshots = new ArrayList<>(games.size());
+        long size = HEADER_SIZE;
+        for (Game game : games) {
+            GameSnapshot snapshot = of(game);
+            snapshots.add(snapshot);
+            size += snapshot.encodedSize();
+        }
+
+        /* Written beside the file then moved over it, so a crash mid-save leaves the last save intact. */
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect((int) Math.min(size, 1 << 20));
+            buffer.putInt(MAGIC).put(VERSION).putInt(snapshots.size());
+            for (GameSnapshot snapshot : snapshots) {
+                int recordSize = snapshot.encodedSize();
+                if (buffer.remaining() < recordSize) {
+                    writeFully(channel, buffer);
+                    if (buffer.capacity() < recordSize) {
+                        buffer = ByteBuffer.allocate(recordSize);
+                    }
+                }
+                snapshot.encode(buffer);
+            }
+            writeFully(channel, buffer);
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Load every game saved in a file, of up to 2GB.
+     * @param file a file written by save(); not null.
+     * @return the restored games, in the order they were saved.
+     * @throws IOException if the file cannot be read, or is not a snapshot file.
+     */
+    public static List<Game> load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.get() != VERSION) {
+                throw new IOException("Not a game snapshot file: " + file);
+            }
+
+            try {
+                /* Records are found by their lengths alone, then rebuilt across every core. */
+                int count = buffer.getInt();
+                if (count < 0 || count > buffer.remaining()) {
+                    throw new IOException("Corrupt game snapshot file: " + file);
+                }
+                int[] offsets = new int[count];
+                for (int i = 0; i < offsets.length; i++) {
+                    offsets[i] = buffer.position();
+                    buffer.position(offsets[i] + buffer.getInt(offsets[i]));
+                }
+
+                return IntStream.range(0, offsets.length).parallel()
+                        .mapToObj(i -> decode(buffer.slice(offsets[i], buffer.getInt(offsets[i]))).toGame())
+                        .collect(Collectors.toList());
+            } catch (RuntimeException e) {
+                throw new IOException("Corrupt game snapshot file: " + file, e);
+            }
+        }
+    }
+
+    /**
+     * Helper for finding how many bytes the snapshot takes in a file.
+     * @return the size of the snapshot's record, including its length.
+     */
+    private int encodedSize() {
+        int size = Integer.BYTES * 3 + 1;
+        for (int player = 0; player < 2; player++) {
+            size += Short.BYTES + 1 + Integer.BYTES;
+            for (Ship ship : ships.get(player)) {
+                size += ShipCodec.FIXED_SIZE + ShipCodec.nameBytes(ship).length;
+            }
+            size += guessEncoding(guessedCells.get(player)) == GUESS_BITMAP
+                    ? bitmapSize() : guessedCells.get(player).length * Long.BYTES;
+        }
+
+        return size;
+    }
+
+    /**
+     * Helper for writing the snapshot's record.
+     * @param buffer buffer to write to, with room for encodedSize() bytes.
+     */
+    private void encode(ByteBuffer buffer) {
+        int flags = phase.ordinal() | (playerOneToMove ? PLAYER_ONE_TO_MOVE : 0) | (enforceTurns ? ENFORCE_TURNS : 0);
+        buffer.putInt(encodedSize()).putInt(width).putInt(height).put((byte) flags);
+
+        for (int player = 0; player < 2; player++) {
+            List<Ship> boardShips = ships.get(player);
+            buffer.putShort((short) boardShips.size());
+            for (Ship ship : boardShips) {
+                ShipCodec.put(buffer, ship, ShipCodec.nameBytes(ship));
+            }
+
+            long[] guessed = guessedCells.get(player);
+            byte encoding = guessEncoding(guessed);
+            buffer.put(encoding).putInt(guessed.length);
+            if (encoding == GUESS_LIST) {
+                for (long cell : guessed) {
+                    buffer.putLong(cell);
+                }
+            } else {
+                byte[] bitmap = new byte[bitmapSize()];
+                for (long cell : guessed) {
+                    bitmap[(int) (cell >>> 3)] |= (byte) (1 << (cell & 7));
+                }
+                buffer.put(bitmap);
+            }
+        }
+    }
+
+    /**
+     * Helper for reading a snapshot's record.
+     * @param buffer buffer positioned at the start of a record, and not shared with other threads.
+     * @return the snapshot read.
+     */
+    private static GameSnapshot decode(ByteBuffer buffer) {
+        int start = buffer.position();
+        int length = buffer.getInt();
+        int width = buffer.getInt();
+        int height = buffer.getInt();
+        int flags = buffer.get();
+
+        List<List<Ship>> ships = new ArrayList<>(2);
+        List<long[]> guessedCells = new ArrayList<>(2);
+        for (int player = 0; player < 2; player++) {
+            int shipCount = buffer.getShort() & 0xFFFF;
+            List<Ship> boardShips = new ArrayList<>(shipCount);
+            for (int i = 0; i < shipCount; i++) {
+                boardShips.add(ShipCodec.get(buffer));
+            }
+            ships.add(boardShips);
+
+            byte encoding = buffer.get();
+            long[] guessed = new long[buffer.getInt()];
+            if (encoding == GUESS_LIST) {
+                for (int i = 0; i < guessed.length; i++) {
+                    guessed[i] = buffer.getLong();
+                }
+            } else {
+                int bitmapStart = buffer.position();
+                int count = 0;
+                for (int b = 0; count < guessed.length; b++) {
+                    int bits = buffer.get(bitmapStart + b) & 0xFF;
+                    while (bits != 0) {
+                        guessed[count++] = (long) b * 8 + Integer.numberOfTrailingZeros(bits);
+                        bits &= bits - 1;
+                    }
+                }
+                buffer.position(bitmapStart + (int) (((long) width * height + 7) / 8));
+            }
+            guessedCells.add(guessed);
+        }
+
+        if (buffer.position() != start + length) {
+            throw new IllegalStateException("Game record length does not match its contents.");
+        }
+
+        return new GameSnapshot(width, height, GamePhase.values()[flags & PHASE_MASK],
+                (flags & PLAYER_ONE_TO_MOVE) != 0, (flags & ENFORCE_TURNS) != 0, ships, guessedCells);
+    }
+
+    /**
+     * Helper for choosing how to write a board's guesses: as a bitmap if that is smaller.
+     * @param guessed the guessed cells.
+     * @return GUESS_BITMAP or GUESS_LIST.
+     */
+    private byte guessEncoding(long[] guessed) {
+        long area = (long) width * height;
+        return area <= Integer.MAX_VALUE && bitmapSize() < (long) guessed.length * Long.BYTES
+                ? GUESS_BITMAP : GUESS_LIST;
+    }
+
+    /**
+     * @return size of a bitmap of the board's cells in bytes; only meaningful for boards of fewer than 2^31 cells.
+     */
+    private int bitmapSize() {
+        return (int) (((long) width * height + 7) / 8);
+    }
+
+    /**
+     * Helper for writing all of a buffer to a channel.
+     * @param channel the channel to write to.
+     * @param buffer the buffer to write, which is left cleared.
+     * @throws IOException if the channel fails.
+     */
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,12 @@
+package battleship;
+
+public enum GuessOutcome {
+    MISS,
+    HIT,
+    SUNK,
+    WIN,
+    ALREADY_GUESSED,
+    OUTSIDE_BOARD,
+    GAME_OVER,
+    OUT_OF_TURN
+}
@@ -0,0 +1,127 @@
+package battleship;
+
+/**
+ * The result of a guess: its outcome, and the id of the ship it sunk if it sunk one.
+ * Results are shared immutable instances, so making a guess allocates nothing for its result.
+ * Message text for players is left to the UI.
+ */
+public final class GuessResult {
+    public static final int NO_SHIP = -1;
+    /* Results for sinking ships with ids below this are built once and shared. */
+    private static final int CACHED_SHIP_IDS = 64;
+
+    public static final GuessResult MISS = new GuessResult(GuessOutcome.MISS, NO_SHIP);
+    public static final GuessResult HIT = new GuessResult(GuessOutcome.HIT, NO_SHIP);
+    public static final GuessResult ALREADY_GUESSED = new GuessResult(GuessOutcome.ALREADY_GUESSED, NO_SHIP);
+    public static final GuessResult OUTSIDE_BOARD = new GuessResult(GuessOutcome.OUTSIDE_BOARD, NO_SHIP);
+    public static final GuessResult GAME_OVER = new GuessResult(GuessOutcome.GAME_OVER, NO_SHIP);
+    public static final GuessResult OUT_OF_TURN = new GuessResult(GuessOutcome.OUT_OF_TURN, NO_SHIP);
+
+    private static final GuessResult[] SUNK = new GuessResult[CACHED_SHIP_IDS];
+    private static final GuessResult[] WIN = new GuessResult[CACHED_SHIP_IDS];
+
+    static {
+        for (int shipId = 0; shipId < CACHED_SHIP_IDS; shipId++) {
+            SUNK[shipId] = new GuessResult(GuessOutcome.SUNK, shipId);
+            WIN[shipId] = new GuessResult(GuessOutcome.WIN, shipId);
+        }
+    }
+
+    private final GuessOutcome outcome;
+    private final int sunkShipId;
+
+    private GuessResult(GuessOutcome outcome, int sunkShipId) {
+        this.outcome = outcome;
+        this.sunkShipId = sunkShipId;
+    }
+
+    /**
+     * Get the result of a guess that sunk a ship.
+     * @param shipId id of the sunk ship on its board; not negative.
+     * @param isWin true if the ship was the last one afloat, false otherwise.
+     * @return result for sinking that ship.
+     */
+    public static GuessResult sunk(int shipId, boolean isWin) {
+        if (shipId < 0) {
+            throw new IllegalArgumentException("Ship id cannot be negative.");
+        } else if (shipId < CACHED_SHIP_IDS) {
+            return isWin ? WIN[shipId] : SUNK[shipId];
+        }
+
+        return new GuessResult(isWin ? GuessOutcome.WIN : GuessOutcome.SUNK, shipId);
+    }
+
+    /**
+     * @return the outcome of the guess.
+     */
+    public GuessOutcome getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * @return id of the ship the guess sunk, being its order of placement on its board; -1 if none was sunk.
+     */
+    public int getSunkShipId() {
+        return sunkShipId;
+    }
+
+    /**
+     * @return true if the guess hit a ship, including hits that sunk it or won the game.
+     */
+    public boolean isHit() {
+        return outcome == GuessOutcome.HIT || outcome == GuessOutcome.SUNK || outcome == GuessOutcome.WIN;
+    }
+
+    /**
+     * @return true if the guess sunk a ship, including the sinking that won the game.
+     */
+    public boolean isSunk() {
+        return outcome == GuessOutcome.SUNK || outcome == GuessOutcome.WIN;
+    }
+
+    /**
+     * @return true if the guess sunk the last ship afloat and won the game.
+     */
+    public boolean isWin() {
+        return outcome == GuessOutcome.WIN;
+    }
+
+    /**
+     * @return true if the guess was made but hit nothing.
+     */
+    public boolean isMiss() {
+        return outcome == GuessOutcome.MISS;
+    }
+
+    /**
+     * @return true if the guess was not made at all, so the turn has not been used.
+     */
+    public boolean isFail() {
+        return outcome == GuessOutcome.ALREADY_GUESSED || outcome == GuessOutcome.OUTSIDE_BOARD
+                || outcome == GuessOutcome.GAME_OVER || outcome == GuessOutcome.OUT_OF_TURN;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+
+        GuessResult objResult = (GuessResult) obj;
+        return this.outcome == objResult.outcome && this.sunkShipId == objResult.sunkShipId;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * outcome.hashCode() + sunkShipId;
+    }
+
+    @Override
+    public String toString() {
+        return isSunk() ? outcome + "(" + sunkShipId + ")" : outcome.toString();
+    }
+}
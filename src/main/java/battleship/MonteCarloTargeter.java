@@ -0,0 +1,298 @@
+package battleship;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * A computer opponent that estimates where ships are by sampling whole fleets.
+ * Each move, it draws random fleets of the ships still afloat that agree with every shot taken so far:
+ * no ship on a known miss or sunk ship, and every hit on an unsunk ship covered. It then shoots at
+ * the unguessed cell covered by the most of those fleets.
+ *
+ * Sampling is split across every worker of a ForkJoinPool and runs until the move's time budget is
+ * spent, so more cores mean more samples and a better estimate. If no agreeing fleet is found in time,
+ * the move falls back to TargetingAI's density estimate.
+ */
+public class MonteCarloTargeter implements ComputerPlayer {
+    private static final Duration DEFAULT_MOVE_BUDGET = Duration.ofMillis(50);
+    /* Fleets drawn between checks of the clock. */
+    private static final int SAMPLES_PER_CLOCK_CHECK = 256;
+    /* Rejected picks allowed for one ship before the whole fleet is thrown away. */
+    private static final int MAX_ATTEMPTS_PER_SHIP = 64;
+
+    private final Game game;
+    private final boolean isPlayerOne;
+    private final ShotKnowledge knowledge;
+    private final PlacementMasks masks;
+    private final ForkJoinPool pool;
+    private final long moveBudgetNanos;
+    private final TargetingAI fallback;
+    private final SplittableRandom random;
+    private long lastSamples = 0;
+    private long lastAcceptedSamples = 0;
+    private long lastElapsedNanos = 0;
+
+    /**
+     * Initialises a new engine that plays one side of a game, sampling on the common pool for 50ms a move.
+     * @param game the game to play in; not null.
+     * @param isPlayerOne true if the engine plays as player one, false for player two.
+     * @param seed seed for sampling fleets.
+     */
+    public MonteCarloTargeter(Game game, boolean isPlayerOne, long seed) {
+        this(game, isPlayerOne, seed, ForkJoinPool.commonPool(), DEFAULT_MOVE_BUDGET);
+    }
+
+    /**
+     * Initialises a new engine that plays one side of a game.
+     * @param game the game to play in; not null.
+     * @param isPlayerOne true if the engine plays as player one, false for player two.
+     * @param seed seed for sampling fleets.
+     * @param pool pool to sample on, using all of its workers; not null.
+     * @param moveBudget time to spend sampling each move; positive.
+     */
+    public MonteCarloTargeter(Game game, boolean isPlayerOne, long seed, ForkJoinPool pool, Duration moveBudget) {
+        if (moveBudget.isNegative() || moveBudget.isZero()) {
+            throw new IllegalArgumentException("Move budget must be positive.");
+        }
+
+        int width = game.getBoardWidth(!isPlayerOne);
+        int height = game.getBoardHeight(!isPlayerOne);
+
+        this.game = game;
+        this.isPlayerOne = isPlayerOne;
+        this.knowledge = new ShotKnowledge(width, height, game.getAllShips(!isPlayerOne));
+        this.masks = PlacementMasks.forBoard(width, height);
+        this.pool = pool;
+        this.moveBudgetNanos = moveBudget.toNanos();
+        this.random = new SplittableRandom(seed);
+        this.fallback = new TargetingAI(game, isPlayerOne, random.nextLong(), knowledge);
+    }
+
+    @Override
+    public Position chooseShot() {
+        int[] lengths = remainingLengths();
+        long[] guessed = knowledge.guessedMask().clone();
+        long[] blocked = knowledge.blockedMask().clone();
+        long[] hits = knowledge.hitMask().clone();
+
+        long start = System.nanoTime();
+        Sampler sampler = new Sampler(masks, lengths, guessed, blocked, hits, start + moveBudgetNanos);
+        Samples samples = pool.invoke(new SampleTask(sampler, pool.getParallelism(), random.split()));
+
+        lastElapsedNanos = Math.max(1, System.nanoTime() - start);
+        lastSamples = samples.drawn;
+        lastAcceptedSamples = samples.accepted;
+
+        if (samples.accepted == 0) {
+            return fallback.chooseShot();
+        }
+
+        int best = -1;
+        for (int cell = 0; cell < samples.counts.length; cell++) {
+            if (!ShotKnowledge.isSet(guessed, cell) && (best < 0 || samples.counts[cell] > samples.counts[best])) {
+                best = cell;
+            }
+        }
+
+        if (best < 0) {
+            throw new IllegalStateException("Every cell has already been guessed.");
+        }
+
+        return Position.of(best % masks.getXSize(), best / masks.getXSize());
+    }
+
+    @Override
+    public void recordShot(int x, int y, GuessResult result) {
+        knowledge.record(game, !isPlayerOne, x, y, result);
+    }
+
+    @Override
+    public Game getGame() {
+        return game;
+    }
+
+    @Override
+    public boolean isPlayerOne() {
+        return isPlayerOne;
+    }
+
+    /**
+     * @return number of fleets drawn for the last move, whether or not they agreed with the shots so far.
+     */
+    public long getLastSampleCount() {
+        return lastSamples;
+    }
+
+    /**
+     * @return number of fleets drawn for the last move that agreed with the shots so far.
+     */
+    public long getLastAcceptedSampleCount() {
+        return lastAcceptedSamples;
+    }
+
+    /**
+     * @return fleets drawn per second, across all workers, for the last move.
+     */
+    public double getLastSamplesPerSecond() {
+        return lastSamples * 1e9 / Math.max(1, lastElapsedNanos);
+    }
+
+    /**
+     * Helper for listing the lengths of every ship still afloat, longest first.
+     * @return lengths of the ships still afloat.
+     */
+    private int[] remainingLengths() {
+        int[] lengths = new int[knowledge.shipsRemaining()];
+        int i = 0;
+        for (int length = Ship.SIZE_LIMIT; length >= 1; length--) {
+            for (int n = knowledge.shipsRemaining(length); n > 0; n--) {
+                lengths[i++] = length;
+            }
+        }
+
+        return lengths;
+    }
+
+    /**
+     * A read-only snapshot of what is known at the start of a move, shared by every worker.
+     */
+    private static final class Sampler {
+        private final PlacementMasks masks;
+        private final int[] lengths;
+        private final long[] guessed;
+        private final long[] blocked;
+        private final long[] hits;
+        private final long deadline;
+
+        Sampler(PlacementMasks masks, int[] lengths, long[] guessed, long[] blocked, long[] hits, long deadline) {
+            this.masks = masks;
+            this.lengths = lengths;
+            this.guessed = guessed;
+            this.blocked = blocked;
+            this.hits = hits;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Draw fleets until the deadline, counting how often each unguessed cell is covered.
+         * At least one batch is always drawn, however little time is left.
+         * @param random source of randomness owned by the calling worker.
+         * @return counts from this worker's samples.
+         */
+        Samples sample(SplittableRandom random) {
+            Samples samples = new Samples(masks.getXSize() * masks.getYSize());
+            long[] fleet = new long[blocked.length];
+
+            do {
+                for (int i = 0; i < SAMPLES_PER_CLOCK_CHECK; i++) {
+                    samples.drawn++;
+                    if (!drawFleet(random, fleet)) {
+                        continue;
+                    }
+
+                    samples.accepted++;
+                    for (int w = 0; w < fleet.length; w++) {
+                        /* Blocked cells and hits are all guessed, so this leaves only the new ship cells. */
+                        for (long bits = fleet[w] & ~guessed[w]; bits != 0; bits &= bits - 1) {
+                            samples.counts[(w << 6) + Long.numberOfTrailingZeros(bits)]++;
+                        }
+                    }
+                }
+            } while (System.nanoTime() < deadline);
+
+            return samples;
+        }
+
+        /**
+         * Draw one random fleet of the remaining ships, avoiding blocked cells.
+         * @param random source of randomness.
+         * @param fleet mask to fill with the blocked cells and the fleet's cells.
+         * @return true if the fleet was placed and covers every hit, false if it should be thrown away.
+         */
+        private boolean drawFleet(SplittableRandom random, long[] fleet) {
+            System.arraycopy(blocked, 0, fleet, 0, blocked.length);
+
+            for (int length : lengths) {
+                int count = masks.placementCount(length);
+                if (count == 0) {
+                    return false;
+                }
+
+                int attempt = 0;
+                int placement;
+                do {
+                    if (++attempt > MAX_ATTEMPTS_PER_SHIP) {
+                        return false;
+                    }
+                    placement = random.nextInt(count);
+                } while (masks.intersects(length, placement, fleet));
+
+                masks.set(length, placement, fleet);
+            }
+
+            for (int w = 0; w < hits.length; w++) {
+                if ((hits[w] & ~fleet[w]) != 0) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+
+    /**
+     * Samples drawn by one or more workers.
+     */
+    private static final class Samples {
+        private final long[] counts;
+        private long drawn = 0;
+        private long accepted = 0;
+
+        Samples(int cells) {
+            this.counts = new long[cells];
+        }
+
+        Samples merge(Samples other) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += other.counts[i];
+            }
+            drawn += other.drawn;
+            accepted += other.accepted;
+
+            return this;
+        }
+    }
+
+    /**
+     * Splits sampling into one leaf per worker, each with its own random stream.
+     * Serializable only because ForkJoinTask is; it is never serialized.
+     */
+    @SuppressWarnings("serial")
+    private static final class SampleTask extends RecursiveTask<Samples> {
+        private final Sampler sampler;
+        private final int workers;
+        private final SplittableRandom random;
+
+        SampleTask(Sampler sampler, int workers, SplittableRandom random) {
+            this.sampler = sampler;
+            this.workers = workers;
+            this.random = random;
+        }
+
+        @Override
+        protected Samples compute() {
+            if (workers <= 1) {
+                return sampler.sample(random);
+            }
+
+            SampleTask left = new SampleTask(sampler, workers / 2, random.split());
+            SampleTask right = new SampleTask(sampler, workers - workers / 2, random);
+            left.fork();
+            Samples samples = right.compute();
+
+            return samples.merge(left.join());
+        }
+    }
+}
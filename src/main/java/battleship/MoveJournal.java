@@ -0,0 +1,616 @@
+package battleship;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * An append-only file recording every ship placed and guess accepted in the games attached to it, so they can
+ * be rebuilt by replaying it after a crash. Games attach with Game.setJournal(), under an id of their own.
+ *
+ * Records are appended to an in-memory batch by the threads making the moves, which never wait on the disk.
+ * A single writer thread writes out whatever has gathered and forces it to disk with one fsync, while the next
+ * batch gathers behind it, so every move made during one fsync shares the next. Records are numbered from 1
+ * in the order appended; a move is durable once the count of durable records reaches its number. Anyone that
+ * must not acknowledge a move before then waits for the count, blocking with awaitDurable() or being called
+ * back with whenDurable().
+ *
+ * Each record is its length, a checksum, then its body:
+ * <pre>
+ * record:  length:int checksum:int type:byte game:long body
+ * CREATE:  width:int height:int enforceTurns:byte
+ * SHIP:    player:byte ship
+ * FLEET:   player:byte ships:short ship*
+ * GUESS:   player:byte x:int y:int
+ * END:     (empty)
+ * ship:    nameLength:short name:bytes startX:int startY:int endX:int endY:int
+ * </pre>
+ * The length counts the bytes after it, and the checksum is the CRC32C of the type and body. A crash can only
+ * tear the batch being written, so the journal ends at the first record that is cut short or fails its
+ * checksum, and reopening a journal cuts off whatever follows it.
+ */
+public final class MoveJournal implements AutoCloseable {
+    private static final byte CREATE = 1;
+    private static final byte SHIP = 2;
+    private static final byte FLEET = 3;
+    private static final byte GUESS = 4;
+    private static final byte END = 5;
+    private static final int HEADER_SIZE = Integer.BYTES * 2;
+    private static final int MIN_LENGTH = Integer.BYTES + 1 + Long.BYTES;
+    private static final int BATCH_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final Thread writer;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private final Condition committed = lock.newCondition();
+    /* Records gather in one batch while the writer owns the other; the writer swaps them. Guarded by lock. */
+    private ByteBuffer batch = ByteBuffer.allocate(BATCH_SIZE);
+    private ByteBuffer spare = ByteBuffer.allocate(BATCH_SIZE);
+    private final CRC32C checksum = new CRC32C();
+    private final List<Callback> callbacks = new ArrayList<>();
+    private long appendedCount = 0;
+    private long lastGameId;
+    private boolean closing = false;
+    private boolean closed = false;
+    private volatile long durableCount = 0;
+    private volatile IOException failure = null;
+
+    /**
+     * An action to run once a record is durable.
+     */
+    private static final class Callback {
+        private final long record;
+        private final Runnable action;
+
+        Callback(long record, Runnable action) {
+            this.record = record;
+            this.action = action;
+        }
+    }
+
+    /**
+     * Open a journal for appending, creating the file if it does not exist. Anything after the last whole
+     * record of an existing journal is cut off.
+     * @param file the journal file; not null.
+     * @throws IOException if the file cannot be opened.
+     */
+    public MoveJournal(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            Scan scan = new Scan();
+            long end = scan.readAll(channel);
+            if (end < channel.size()) {
+                channel.truncate(end);
+                channel.force(false);
+            }
+            channel.position(end);
+            this.lastGameId = scan.lastGameId;
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+
+        this.writer = new Thread(this::writeBatches, "battleship-journal");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * @return the highest game id in the journal, or 0 if there are none; new games should use higher ids.
+     */
+    public long getLastGameId() {
+        lock.lock();
+        try {
+            return lastGameId;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return number of records appended since the journal was opened, durable or not.
+     */
+    public long getAppendedCount() {
+        lock.lock();
+        try {
+            return appendedCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return number of records appended since the journal was opened that are on disk.
+     */
+    public long getDurableCount() {
+        return durableCount;
+    }
+
+    /**
+     * @return the error that stopped the journal writing, or null if it has not failed, including once closed
+     *         cleanly. Records appended since are never made durable.
+     */
+    public IOException getFailure() {
+        return failure;
+    }
+
+    /**
+     * Wait until a record is on disk.
+     * @param record number of the record, as counted by getAppendedCount().
+     * @throws IOException if the journal failed, or was closed, before the record was written.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public void awaitDurable(long record) throws IOException, InterruptedException {
+        if (durableCount >= record) {
+            return;
+        }
+
+        lock.lock();
+        try {
+            while (durableCount < record && failure == null && !closed) {
+                committed.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (durableCount < record) {
+            throw failure != null ? failure : new IOException("Journal closed before the record was written.");
+        }
+    }
+
+    /**
+     * Run an action once a record is on disk, or the journal has failed or closed without writing it; check
+     * getDurableCount() to tell which.
+     * @param record number of the record, as counted by getAppendedCount().
+     * @param action the action, run on the writer's thread unless it can be run at once; must not block.
+     */
+    public void whenDurable(long record, Runnable action) {
+        lock.lock();
+        try {
+            if (durableCount < record && failure == null && !closed) {
+                callbacks.add(new Callback(record, action));
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        action.run();
+    }
+
+    /**
+     * Record a game attached to the journal.
+     * @param gameId the game's id.
+     * @param width horizontal size of each board.
+     * @param height vertical size of each board.
+     * @param enforceTurns whether the game enforces turns.
+     * @return number of the record, as counted by getAppendedCount().
+     * @throws IllegalStateException if the journal has been closed.
+     */
+    long appendCreate(long gameId, int width, int height, boolean enforceTurns) {
+        lock.lock();
+        try {
+            int start = begin(CREATE, gameId, Integer.BYTES * 2 + 1);
+            batch.putInt(width).putInt(height).put((byte) (enforceTurns ? 1 : 0));
+            lastGameId = Math.max(lastGameId, gameId);
+            return finish(start);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Record a ship placed.
+     * @param gameId the game's id.
+     * @param isPlayerOne true if placed on player one's board, false for player two's.
+     * @param ship the ship; not null.
+     * @return number of the record, as counted by getAppendedCount().
+     * @throws IllegalStateException if the journal has been closed.
+     */
+    long appendShip(long gameId, boolean isPlayerOne, Ship ship) {
+        byte[] name = ShipCodec.nameBytes(ship);
+        lock.lock();
+        try {
+            int start = begin(SHIP, gameId, 1 + ShipCodec.FIXED_SIZE + name.length);
+            batch.put((byte) (isPlayerOne ? 1 : 0));
+            ShipCodec.put(batch, ship, name);
+            return finish(start);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Record a whole fleet placed at once.
+     * @param gameId the game's id.
+     * @param isPlayerOne true if placed on player one's board, false for player two's.
+     * @param ships the ships; not null.
+     * @return number of the record, as counted by getAppendedCount().
+     * @throws IllegalStateException if the journal has been closed.
+     */
+    long appendFleet(long gameId, boolean isPlayerOne, List<Ship> ships) {
+        byte[][] names = new byte[ships.size()][];
+        int size = 1 + Short.BYTES;
+        for (int i = 0; i < names.length; i++) {
+            names[i] = ShipCodec.nameBytes(ships.get(i));
+            size += ShipCodec.FIXED_SIZE + names[i].length;
+        }
+
+        lock.lock();
+        try {
+            int start = begin(FLEET, gameId, size);
+            batch.put((byte) (isPlayerOne ? 1 : 0)).putShort((short) ships.size());
+            for (int i = 0; i < names.length; i++) {
+                ShipCodec.put(batch, ships.get(i), names[i]);
+            }
+            return finish(start);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Record a guess accepted.
+     * @param gameId the game's id.
+     * @param isPlayerOne true if player one guessed, false for player two.
+     * @param x horizontal position guessed.
+     * @param y vertical position guessed.
+     * @return number of the record, as counted by getAppendedCount().
+     * @throws IllegalStateException if the journal has been closed.
+     */
+    long appendGuess(long gameId, boolean isPlayerOne, int x, int y) {
+        lock.lock();
+        try {
+            int start = begin(GUESS, gameId, 1 + Integer.BYTES * 2);
+            batch.put((byte) (isPlayerOne ? 1 : 0)).putInt(x).putInt(y);
+            return finish(start);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Record a game ended early.
+     * @param gameId the game's id.
+     * @return number of the record, as counted by getAppendedCount().
+     * @throws IllegalStateException if the journal has been closed.
+     */
+    long appendEnd(long gameId) {
+        lock.lock();
+        try {
+            return finish(begin(END, gameId, 0));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Helper for starting a record in the batch, while holding the lock.
+     * @param type the record's type.
+     * @param gameId the game's id.
+     * @param bodySize size of the body to follow.
+     * @return position of the record in the batch, which is left positioned for the body.
+     * @throws IllegalStateException if the journal has been closed.
+     */
+    private int begin(byte type, long gameId, int bodySize) {
+        if (closing) {
+            throw new IllegalStateException("Journal closed.");
+        }
+
+        int size = HEADER_SIZE + 1 + Long.BYTES + bodySize;
+        if (batch.remaining() < size) {
+            /* The disk has fallen behind; let the batch grow rather than hold up the game. */
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(batch.capacity() * 2, batch.position() + size));
+            batch.flip();
+            larger.put(batch);
+            batch = larger;
+        }
+
+        int start = batch.position();
+        batch.putInt(size - Integer.BYTES).putInt(0).put(type).putLong(gameId);
+        return start;
+    }
+
+    /**
+     * Helper for filling in the checksum of the record just written, and counting it, while holding the lock.
+     * @param start position of the record in the batch.
+     * @return number of the record.
+     */
+    private long finish(int start) {
+        int end = batch.position();
+        checksum.reset();
+        checksum.update(batch.array(), start + HEADER_SIZE, end - start - HEADER_SIZE);
+        batch.putInt(start + Integer.BYTES, (int) checksum.getValue());
+
+        appended.signal();
+        return ++appendedCount;
+    }
+
+    /**
+     * Write out batches as they gather, forcing each to disk, until the journal is closed and drained.
+     */
+    private void writeBatches() {
+        while (true) {
+            ByteBuffer full;
+            long count;
+            lock.lock();
+            try {
+                while (batch.position() == 0 && !closing) {
+                    appended.awaitUninterruptibly();
+                }
+                if (batch.position() == 0) {
+                    return;
+                }
+                full = batch;
+                batch = spare;
+                spare = null;
+                count = appendedCount;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                full.flip();
+                while (full.hasRemaining()) {
+                    channel.write(full);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                fail(e);
+                return;
+            }
+            full.clear();
+
+            List<Runnable> ready = new ArrayList<>();
+            lock.lock();
+            try {
+                spare = full.capacity() > BATCH_SIZE ? ByteBuffer.allocate(BATCH_SIZE) : full;
+                durableCount = count;
+                committed.signalAll();
+                takeCallbacks(ready, count);
+            } finally {
+                lock.unlock();
+            }
+            for (Runnable action : ready) {
+                action.run();
+            }
+        }
+    }
+
+    /**
+     * Helper for stopping the journal after a write fails, waking everyone waiting on it.
+     * @param e the error.
+     */
+    private void fail(IOException e) {
+        List<Runnable> ready = new ArrayList<>();
+        lock.lock();
+        try {
+            failure = e;
+            committed.signalAll();
+            takeCallbacks(ready, Long.MAX_VALUE);
+        } finally {
+            lock.unlock();
+        }
+        for (Runnable action : ready) {
+            action.run();
+        }
+    }
+
+    /**
+     * Helper for removing the callbacks due, while holding the lock.
+     * @param ready list to add the callbacks' actions to.
+     * @param count number of records durable.
+     */
+    private void takeCallbacks(List<Runnable> ready, long count) {
+        int kept = 0;
+        for (Callback callback : callbacks) {
+            if (callback.record <= count) {
+                ready.add(callback.action);
+            } else {
+                callbacks.set(kept++, callback);
+            }
+        }
+        callbacks.subList(kept, callbacks.size()).clear();
+    }
+
+    /**
+     * Write out every record appended, then close the file. Appending once closed is an error.
+     * @throws IOException if the journal failed to write, or the file fails to close.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            closing = true;
+            appended.signal();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        /* Everything appended has been written, so only waits on records never appended are left to wake. */
+        List<Runnable> ready = new ArrayList<>();
+        lock.lock();
+        try {
+            closed = true;
+            committed.signalAll();
+            takeCallbacks(ready, Long.MAX_VALUE);
+        } finally {
+            lock.unlock();
+        }
+        for (Runnable action : ready) {
+            action.run();
+        }
+
+        channel.close();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Rebuild every game in a journal by replaying its records in order. Each game is rebuilt as it was after
+     * its last durable record, with its event log replayed too; games ended early are ended once replayed.
+     * The games are not attached to any journal.
+     * @param file a journal file; not null.
+     * @return the games, by id, in the order they were created.
+     * @throws IOException if the file cannot be read, or its records do not replay.
+     */
+    public static Map<Long, Game> recover(Path file) throws IOException {
+        Map<Long, Game> games = new LinkedHashMap<>();
+        Set<Long> ended = new LinkedHashSet<>();
+        Scan scan = new Scan() {
+            @Override
+            void apply(byte type, long gameId, ByteBuffer body) throws IOException {
+                if (type == CREATE) {
+                    games.put(gameId, new Game(body.getInt(), body.getInt(), body.get() != 0));
+                    return;
+                }
+
+                Game game = games.get(gameId);
+                if (game == null) {
+                    throw new IOException("Journal record for unknown game " + gameId);
+                }
+                switch (type) {
+                    case SHIP:
+                    case FLEET:
+                        replayShips(game, type, body);
+                        break;
+                    case GUESS:
+                        boolean isPlayerOne = body.get() != 0;
+                        GuessResult result = game.guessLocation(isPlayerOne, new Coordinate(body.getInt(), body.getInt()));
+                        if (result.isFail()) {
+                            throw new IOException("Journalled guess in game " + gameId + " replays as " + result);
+                        }
+                        break;
+                    case END:
+                        ended.add(gameId);
+                        break;
+                    default:
+                        throw new IOException("Unknown journal record type " + type);
+                }
+            }
+        };
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            scan.readAll(channel);
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupt journal: " + file, e);
+        }
+
+        /* Ended last, as a guess under way when a game was ended may be journalled after its end. */
+        for (long gameId : ended) {
+            games.get(gameId).endGame();
+        }
+
+        return games;
+    }
+
+    /**
+     * Helper for replaying ships placed. They are set on the board directly, as a ship placed just before the
+     * first guess may be journalled just after it.
+     * @param game the game; not null.
+     * @param type SHIP or FLEET.
+     * @param body the record's body.
+     * @throws IOException if the ships cannot be placed.
+     */
+    private static void replayShips(Game game, byte type, ByteBuffer body) throws IOException {
+        Board board = game.getBoard(body.get() != 0);
+        int count = type == SHIP ? 1 : body.getShort() & 0xFFFF;
+        List<Ship> ships = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ships.add(ShipCodec.get(body));
+        }
+
+        synchronized (board) {
+            try {
+                board.setShips(ships);
+            } catch (InvalidPlacementException e) {
+                throw new IOException("Journalled ships cannot be placed.", e);
+            }
+        }
+    }
+
+    /**
+     * Reads a journal's records in order, up to the first that is cut short or corrupt.
+     */
+    private static class Scan {
+        private long lastGameId = 0;
+
+        /**
+         * Read every whole record.
+         * @param channel the journal, positioned at its start.
+         * @return the position just after the last whole record.
+         * @throws IOException if the journal cannot be read, or a record cannot be applied.
+         */
+        long readAll(FileChannel channel) throws IOException {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), BATCH_SIZE));
+            CRC32C crc = new CRC32C();
+            byte[] body = new byte[256];
+            long end = 0;
+            long size = channel.size();
+
+            while (true) {
+                int length;
+                int expected;
+                try {
+                    length = in.readInt();
+                    if (length < MIN_LENGTH || end + Integer.BYTES + length > size) {
+                        return end;
+                    }
+                    expected = in.readInt();
+                    if (body.length < length) {
+                        body = new byte[Math.max(length, body.length * 2)];
+                    }
+                    in.readFully(body, 0, length - Integer.BYTES);
+                } catch (EOFException e) {
+                    return end;
+                }
+
+                crc.reset();
+                crc.update(body, 0, length - Integer.BYTES);
+                if ((int) crc.getValue() != expected) {
+                    return end;
+                }
+
+                ByteBuffer record = ByteBuffer.wrap(body, 0, length - Integer.BYTES);
+                byte type = record.get();
+                long gameId = record.getLong();
+                lastGameId = Math.max(lastGameId, gameId);
+                apply(type, gameId, record);
+                end += Integer.BYTES + length;
+            }
+        }
+
+        /**
+         * Apply one record; by default, nothing.
+         * @param type the record's type.
+         * @param gameId the game's id.
+         * @param body the record's body.
+         * @throws IOException if the record cannot be applied.
+         */
+        void apply(byte type, long gameId, ByteBuffer body) throws IOException {
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package battleship;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Every legal placement of every ship length on a board of one size, each precomputed as a bit mask
+ * over the board's cells, numbered row-major as in BitBoard.
+ * Tables are shared between all users of a board size and built lazily, one ship length at a time,
+ * so checking whether a ship fits or overlaps is a lookup and a few bit tests rather than a loop
+ * over freshly built coordinates. Only the most recently used board sizes are kept shared; masks
+ * for other sizes stay usable by whoever holds them, but are built afresh when next asked for.
+ *
+ * Placements of one length are numbered from 0: all horizontal placements first, row by row, then
+ * all vertical placements, row by row. Length-1 ships have only horizontal placements.
+ */
+public final class PlacementMasks {
+    /* Each table entry is a word index and its bits; each placement also keeps a count of its entries. */
+    private static final int ENTRY_BYTES = Integer.BYTES + Long.BYTES;
+    private static final long MAX_TABLE_BYTES = 64L * 1024 * 1024;
+    /* Horizontal placements span at most two words, vertical ones a word per cell; each cell starts one of each. */
+    private static final int HORIZONTAL_ENTRIES = 2;
+    private static final long MAX_CELLS = MAX_TABLE_BYTES
+            / ((HORIZONTAL_ENTRIES + Ship.SIZE_LIMIT) * ENTRY_BYTES + 2 * Integer.BYTES);
+    private static final int MAX_CACHED_SIZES = 32;
+    private static final Map<Long, PlacementMasks> CACHE = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, PlacementMasks> eldest) {
+            return size() > MAX_CACHED_SIZES;
+        }
+    };
+
+    private final int width;
+    private final int height;
+    private final int wordCount;
+    private final Table[] tables = new Table[Ship.SIZE_LIMIT + 1];
+
+    private PlacementMasks(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.wordCount = BitBoard.wordsFor(width * height);
+    }
+
+    /**
+     * Get the shared placement masks for a board size.
+     * @param width horizontal size of the board; positive.
+     * @param height vertical size of the board; positive.
+     * @return placement masks for boards of that size.
+     */
+    public static PlacementMasks forBoard(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Board dimensions must be positive.");
+        } else if ((long) width * height > MAX_CELLS) {
+            throw new IllegalArgumentException("Board area too large to precompute placements for.");
+        }
+
+        /* Building masks only sizes the tables, so holding the lock while doing so is cheap. */
+        synchronized (CACHE) {
+            return CACHE.computeIfAbsent(Position.pack(width, height), key -> new PlacementMasks(width, height));
+        }
+    }
+
+    /**
+     * Get the number of legal placements of a ship length, ignoring any other ships.
+     * @param length length of the ship; between 1 and Ship.SIZE_LIMIT.
+     * @return number of placements of that length, possibly 0 if it does not fit on the board.
+     */
+    public int placementCount(int length) {
+        return table(length).count;
+    }
+
+    /**
+     * Get the placement a ship would have, if it fits on the board.
+     * @param x horizontal position of the ship's top-left cell.
+     * @param y vertical position of the ship's top-left cell.
+     * @param length length of the ship; between 1 and Ship.SIZE_LIMIT.
+     * @param isHorizontal true if the ship extends rightwards, false if it extends downwards.
+     * @return number of the placement, or -1 if the ship would lie partly or wholly outside the board.
+     */
+    public int placementOf(int x, int y, int length, boolean isHorizontal) {
+        Table table = table(length);
+        if (length == 1) {
+            isHorizontal = true;
+        }
+
+        int spanX = isHorizontal ? width - length + 1 : width;
+        int spanY = isHorizontal ? height : height - length + 1;
+        if (x < 0 || y < 0 || x >= spanX || y >= spanY) {
+            return -1;
+        }
+
+        return (isHorizontal ? 0 : table.horizontalCount) + y * spanX + x;
+    }
+
+    /**
+     * Check if a ship fits on the board without overlapping any occupied cell.
+     * @param x horizontal position of the ship's top-left cell.
+     * @param y vertical position of the ship's top-left cell.
+     * @param length length of the ship; between 1 and Ship.SIZE_LIMIT.
+     * @param isHorizontal true if the ship extends rightwards, false if it extends downwards.
+     * @param occupied mask of at least wordCount() elements of cells the ship may not cover; not null.
+     * @return true if the ship lies wholly on the board and covers no occupied cell, false otherwise.
+     */
+    public boolean canPlace(int x, int y, int length, boolean isHorizontal, long[] occupied) {
+        int placement = placementOf(x, y, length, isHorizontal);
+        return placement >= 0 && !table(length).intersects(placement, occupied);
+    }
+
+    /**
+     * Check if a placement covers any cell set in a mask.
+     * @param length length of the ship; between 1 and Ship.SIZE_LIMIT.
+     * @param placement number of the placement; between 0 and placementCount(length) - 1.
+     * @param mask mask of at least wordCount() elements; not null.
+     * @return true if any cell of the placement is set in the mask, false otherwise.
+     */
+    public boolean intersects(int length, int placement, long[] mask) {
+        return table(length).intersects(placement, mask);
+    }
+
+    /**
+     * Set every cell of a placement in a mask.
+     * @param length length of the ship; between 1 and Ship.SIZE_LIMIT.
+     * @param placement number of the placement; between 0 and placementCount(length) - 1.
+     * @param mask mask of at least wordCount() elements; not null.
+     */
+    public void set(int length, int placement, long[] mask) {
+        table(length).set(placement, mask);
+    }
+
+    /**
+     * Count the placements of a ship length that cover no cell set in a mask.
+     * @param length length of the ship; between 1 and Ship.SIZE_LIMIT.
+     * @param blocked mask of at least wordCount() elements of cells a ship cannot be on; not null.
+     * @return number of placements of that length clear of every blocked cell.
+     */
+    public int countFits(int length, long[] blocked) {
+        Table table = table(length);
+        int fits = 0;
+        for (int p = 0; p < table.count; p++) {
+            if (!table.intersects(p, blocked)) {
+                fits++;
+            }
+        }
+
+        return fits;
+    }
+
+    /**
+     * @param length length of the ship; between 1 and Ship.SIZE_LIMIT.
+     * @param placement number of the placement; between 0 and placementCount(length) - 1.
+     * @return horizontal position of the placement's top-left cell.
+     */
+    public int placementX(int length, int placement) {
+        return originOf(length, placement) % width;
+    }
+
+    /**
+     * @param length length of the ship; between 1 and Ship.SIZE_LIMIT.
+     * @param placement number of the placement; between 0 and placementCount(length) - 1.
+     * @return vertical position of the placement's top-left cell.
+     */
+    public int placementY(int length, int placement) {
+        return originOf(length, placement) / width;
+    }
+
+    /**
+     * @param length length of the ship; between 1 and Ship.SIZE_LIMIT.
+     * @param placement number of the placement; between 0 and placementCount(length) - 1.
+     * @return true if the placement extends rightwards, false if downwards.
+     */
+    public boolean isHorizontal(int length, int placement) {
+        return placement < table(length).horizontalCount;
+    }
+
+    /**
+     * @return number of 64-bit words in each mask of this board size.
+     */
+    public int wordCount() {
+        return wordCount;
+    }
+
+    /**
+     * @return horizontal size of the board.
+     */
+    public int getXSize() {
+        return width;
+    }
+
+    /**
+     * @return vertical size of the board.
+     */
+    public int getYSize() {
+        return height;
+    }
+
+    /**
+     * Helper for finding the row-major cell index of a placement's top-left cell.
+     * @param length length of the ship.
+     * @param placement number of the placement.
+     * @return cell index of the placement's top-left cell.
+     */
+    private int originOf(int length, int placement) {
+        Table table = table(length);
+        if (placement < 0 || placement >= table.count) {
+            throw new IllegalArgumentException("No placement with that number for this length.");
+        }
+
+        if (placement < table.horizontalCount) {
+            int spanX = width - length + 1;
+            return (placement / spanX) * width + placement % spanX;
+        }
+
+        return placement - table.horizontalCount;
+    }
+
+    /**
+     * Get the table for a ship length, building it on first use.
+     * @param length length of the ship.
+     * @return table of every placement of that length.
+     */
+    private Table table(int length) {
+        if (length < 1 || length > Ship.SIZE_LIMIT) {
+            throw new IllegalArgumentException("Ship length must be between 1 and the size limit.");
+        }
+
+        /* Racing threads may each build a table, but its fields are final so any of them is safe to share. */
+        Table table = tables[length];
+        if (table == null) {
+            table = new Table(width, height, length);
+            tables[length] = table;
+        }
+
+        return table;
+    }
+
+    /**
+     * Every placement of one ship length, each stored as the (word, bits) pairs of its mask,
+     * so a placement costs only as much as the words it touches however wide the board is.
+     */
+    private static final class Table {
+        private final int count;
+        private final int horizontalCount;
+        private final int horizontalStride;
+        private final int verticalStride;
+        private final int[] entryCounts;
+        private final int[] wordIndexes;
+        private final long[] wordBits;
+
+        Table(int width, int height, int length) {
+            long horizontal = (long) Math.max(0, width - length + 1) * height;
+            long vertical = length == 1 ? 0 : (long) width * Math.max(0, height - length + 1);
+
+            /* Ships are shorter than a word, so span at most two words across, and a word per cell down. */
+            this.horizontalStride = Math.min(HORIZONTAL_ENTRIES, length);
+            this.verticalStride = length;
+            long entryTotal = horizontal * horizontalStride + vertical * verticalStride;
+            if (entryTotal * ENTRY_BYTES + (horizontal + vertical) * Integer.BYTES > MAX_TABLE_BYTES) {
+                throw new IllegalArgumentException("Board area too large to precompute placements for.");
+            }
+            this.count = (int) (horizontal + vertical);
+            this.horizontalCount = (int) horizontal;
+            this.entryCounts = new int[count];
+            this.wordIndexes = new int[(int) entryTotal];
+            this.wordBits = new long[(int) entryTotal];
+
+            int p = 0;
+            for (int orientation = 1; orientation >= 0; orientation--) {
+                boolean isHorizontal = orientation == 1;
+                if (!isHorizontal && length == 1) {
+                    continue;
+                }
+
+                int step = isHorizontal ? 1 : width;
+                for (int y = 0; y + (isHorizontal ? 0 : length - 1) < height; y++) {
+                    for (int x = 0; x + (isHorizontal ? length - 1 : 0) < width; x++) {
+                        int base = base(p);
+                        int entries = 0;
+                        for (int i = 0, cell = y * width + x; i < length; i++, cell += step) {
+                            int word = cell >>> 6;
+                            if (entries == 0 || wordIndexes[base + entries - 1] != word) {
+                                wordIndexes[base + entries] = word;
+                                entries++;
+                            }
+                            wordBits[base + entries - 1] |= 1L << cell;
+                        }
+                        entryCounts[p] = entries;
+                        p++;
+                    }
+                }
+            }
+        }
+
+        /**
+         * @param placement number of the placement.
+         * @return index of the placement's first entry.
+         */
+        int base(int placement) {
+            if (placement < horizontalCount) {
+                return placement * horizontalStride;
+            }
+            return horizontalCount * horizontalStride + (placement - horizontalCount) * verticalStride;
+        }
+
+        boolean intersects(int placement, long[] mask) {
+            int base = base(placement);
+            for (int i = base, end = base + entryCounts[placement]; i < end; i++) {
+                if ((wordBits[i] & mask[wordIndexes[i]]) != 0) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        void set(int placement, long[] mask) {
+            int base = base(placement);
+            for (int i = base, end = base + entryCounts[placement]; i < end; i++) {
+                mask[wordIndexes[i]] |= wordBits[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package battleship;
+
+/**
+ * An immutable (x,y) position, without any of the guess or ship state a Coordinate carries.
+ * Positions near the origin are interned, so looking them up through of() allocates nothing and
+ * they are safe to share freely as map keys.
+ */
+public final class Position {
+    private static final int CACHE_DIM = 128;
+    private static final Position[] CACHE = new Position[CACHE_DIM * CACHE_DIM];
+
+    private final int x;
+    private final int y;
+
+    private Position(int x, int y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    /**
+     * Get the position at (x,y), reusing a shared instance where one is cached.
+     * @param x the horizontal position.
+     * @param y the vertical position.
+     * @return position at (x,y).
+     */
+    public static Position of(int x, int y) {
+        if (x < 0 || y < 0 || x >= CACHE_DIM || y >= CACHE_DIM) {
+            return new Position(x, y);
+        }
+
+        /* Racing threads may each create an instance, but fields are final so any of them is safe to share. */
+        int index = y * CACHE_DIM + x;
+        Position cached = CACHE[index];
+        if (cached == null) {
+            cached = new Position(x, y);
+            CACHE[index] = cached;
+        }
+
+        return cached;
+    }
+
+    /**
+     * Get the position that a packed value represents.
+     * @param packed value produced by pack() or toPacked().
+     * @return position the value represents.
+     */
+    public static Position fromPacked(long packed) {
+        return of(unpackX(packed), unpackY(packed));
+    }
+
+    /**
+     * Pack a position into a single primitive, for storage without any object per position.
+     * @param x the horizontal position.
+     * @param y the vertical position.
+     * @return x and y packed into one long.
+     */
+    public static long pack(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    /**
+     * @param packed value produced by pack().
+     * @return horizontal position held in the packed value.
+     */
+    public static int unpackX(long packed) {
+        return (int) (packed >> 32);
+    }
+
+    /**
+     * @param packed value produced by pack().
+     * @return vertical position held in the packed value.
+     */
+    public static int unpackY(long packed) {
+        return (int) packed;
+    }
+
+    /**
+     * Provides the position's horizontal x-value.
+     * @return the position's x-value.
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * Provides the position's vertical y-value.
+     * @return the position's y-value.
+     */
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * @return this position packed into one long.
+     */
+    public long toPacked() {
+        return pack(x, y);
+    }
+
+    /**
+     * @return a new Coordinate at this position, with no guess or ship set.
+     */
+    public Coordinate toCoordinate() {
+        return new Coordinate(x, y);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+
+        Position objPosition = (Position) obj;
+        return (this.x == objPosition.x && this.y == objPosition.y);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * x + y;
+    }
+
+    @Override
+    public String toString() {
+        return "(" + x + "," + y + ")";
+    }
+}
@@ -4,8 +4,10 @@ import java.util.*;
 
 public class Ship {
     private final ArrayList<Coordinate> occupiedCoordinates = new ArrayList<>();
+    private final List<Coordinate> coordinatesView = Collections.unmodifiableList(occupiedCoordinates);
     private final String name;
-    private boolean isSunk = false;
+    private List<Cell> cells = null;
+    private int hitsTaken = 0;
     static final int SIZE_LIMIT = 10;
 
     /**
@@ -88,13 +90,44 @@ public class Ship {
         setOccupiedCoordinates();
     }
 
+    /**
+     * Make a copy of a ship, never guessed, whose coordinates cannot be guessed either, so it can be shared
+     * between callers as a snapshot.
+     * @param ship the ship to copy; not null.
+     * @return the new snapshot.
+     */
+    static Ship snapshotOf(Ship ship) {
+        Ship snapshot = new Ship(ship.name, ship.occupiedCoordinates);
+        for (Coordinate c : snapshot.occupiedCoordinates) {
+            c.freeze();
+        }
+
+        return snapshot;
+    }
+
     /**
      * Return a list of all occupied Coordinates.
-     * @return list containing all Coordinates occupied by the ship.
+     * @return unmodifiable list containing all Coordinates occupied by the ship, shared between calls.
      * NOTE: coordinates mutated in list will mutate this ship's coordinates; this is deliberate.
      */
     public List<Coordinate> getCoordinates() {
-        return new ArrayList<>(occupiedCoordinates);
+        return coordinatesView;
+    }
+
+    /**
+     * Return read-only views of all occupied coordinates, which follow their guess state as it changes.
+     * @return unmodifiable list of cells occupied by the ship, shared between calls.
+     */
+    public List<Cell> getCells() {
+        if (cells == null) {
+            List<Cell> cellList = new ArrayList<>(occupiedCoordinates.size());
+            for (Coordinate c : occupiedCoordinates) {
+                cellList.add(c.asCell());
+            }
+            cells = Collections.unmodifiableList(cellList);
+        }
+
+        return cells;
     }
 
     /**
@@ -110,16 +143,25 @@ public class Ship {
      * @return true if ship is sunk, false otherwise.
      */
     public boolean isSunk() {
-        if (!isSunk) {
-            for (Coordinate c : occupiedCoordinates) {
-                if (!c.isGuessed()) {
-                    return false;
-                }
+        return hitsTaken >= occupiedCoordinates.size();
+    }
+
+    /**
+     * Record a hit on one of this ship's coordinates, called when that coordinate is first guessed.
+     * Ignored if the coordinate is not one of this ship's own coordinates.
+     * @param coordinate the coordinate that was hit; not null.
+     * @return true if this hit sunk the ship, false otherwise.
+     */
+    boolean registerHit(Coordinate coordinate) {
+        /* Identity check, as only this ship's own coordinate objects count towards sinking it. */
+        for (Coordinate c : occupiedCoordinates) {
+            if (c == coordinate) {
+                hitsTaken++;
+                return isSunk();
             }
-            isSunk = true;
         }
 
-        return true;
+        return false;
     }
 
     /**
@@ -0,0 +1,70 @@
+package battleship;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Reads and writes ships in the binary form shared by GameSnapshot files and MoveJournal records:
+ * <pre>
+ * ship:    nameLength:short name:bytes startX:int startY:int endX:int endY:int
+ * </pre>
+ * A ship with no name has a name length of 0xFFFF and no name bytes, so it is told apart from an empty name.
+ */
+final class ShipCodec {
+    /* Size of a ship apart from its name. */
+    static final int FIXED_SIZE = Short.BYTES + Integer.BYTES * 4;
+    private static final int NO_NAME = 0xFFFF;
+
+    private ShipCodec() {
+    }
+
+    /**
+     * Get a ship's name to write, checking it fits.
+     * @param ship the ship; not null.
+     * @return the name in UTF-8, empty if the ship has no name.
+     * @throws IllegalArgumentException if the name is too long to write.
+     */
+    static byte[] nameBytes(Ship ship) {
+        if (ship.getName() == null) {
+            return new byte[0];
+        }
+
+        byte[] name = ship.getName().getBytes(StandardCharsets.UTF_8);
+        if (name.length >= NO_NAME) {
+            throw new IllegalArgumentException("Ship name too long to write.");
+        }
+        return name;
+    }
+
+    /**
+     * Write a ship.
+     * @param buffer buffer to write to, with room for FIXED_SIZE bytes and the name.
+     * @param ship the ship; not null.
+     * @param name the ship's name, from nameBytes().
+     */
+    static void put(ByteBuffer buffer, Ship ship, byte[] name) {
+        List<Coordinate> coordinates = ship.getCoordinates();
+        Coordinate start = coordinates.get(0);
+        Coordinate end = coordinates.get(coordinates.size() - 1);
+        buffer.putShort((short) (ship.getName() == null ? NO_NAME : name.length)).put(name)
+                .putInt(start.getX()).putInt(start.getY()).putInt(end.getX()).putInt(end.getY());
+    }
+
+    /**
+     * Read a ship.
+     * @param buffer buffer positioned at the ship, which is left positioned after it.
+     * @return the ship.
+     */
+    static Ship get(ByteBuffer buffer) {
+        int nameLength = buffer.getShort() & 0xFFFF;
+        String name = null;
+        if (nameLength != NO_NAME) {
+            byte[] nameBytes = new byte[nameLength];
+            buffer.get(nameBytes);
+            name = new String(nameBytes, StandardCharsets.UTF_8);
+        }
+        Coordinate start = new Coordinate(buffer.getInt(), buffer.getInt());
+        return new Ship(name, start, new Coordinate(buffer.getInt(), buffer.getInt()));
+    }
+}
@@ -0,0 +1,203 @@
+package battleship;
+
+import java.util.List;
+
+/**
+ * Everything a computer player has learned about its opponent's board from its own shots, as packed
+ * bitsets in the same row-major layout as BitBoard.
+ * Guessed cells are every cell whose contents are known. Blocked cells are known misses and the cells
+ * of sunk ships, which no ship still afloat can cover. Hit cells are hits on ships not yet sunk.
+ * Blocked cells are also kept in column-major order, so columns can be scanned a word at a time too.
+ */
+final class ShotKnowledge {
+    private final int width;
+    private final int height;
+    private final long[] guessedMask;
+    private final long[] blockedMask;
+    private final long[] blockedColumns;
+    private final long[] hitMask;
+    private final int[] shipsRemainingByLength = new int[Ship.SIZE_LIMIT + 1];
+    private int unsunkHits = 0;
+
+    /**
+     * Initialises knowledge of a board about which nothing is known yet.
+     * @param width horizontal size of the board.
+     * @param height vertical size of the board.
+     * @param ships ships the board holds, of which only the lengths are used; not null.
+     */
+    ShotKnowledge(int width, int height, List<Ship> ships) {
+        if ((long) width * height > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Board area too large for a computer player to track.");
+        }
+
+        this.width = width;
+        this.height = height;
+
+        int words = BitBoard.wordsFor(width * height);
+        this.guessedMask = new long[words];
+        this.blockedMask = new long[words];
+        this.blockedColumns = new long[words];
+        this.hitMask = new long[words];
+
+        for (Ship ship : ships) {
+            shipsRemainingByLength[ship.getShipLength()]++;
+        }
+    }
+
+    /**
+     * Learn the outcome of a shot at a cell of the opponent's board.
+     * Shots the game rejected, and shots already recorded, are ignored.
+     * @param game the game the shot was made in; not null.
+     * @param isOpponentPlayerOne true if the board shot at is player one's, false for player two's.
+     * @param x horizontal position of the shot.
+     * @param y vertical position of the shot.
+     * @param result result of the shot, as returned by Game.guessLocation; not null.
+     */
+    void record(Game game, boolean isOpponentPlayerOne, int x, int y, GuessResult result) {
+        int index = y * width + x;
+        if (result.isFail() || isSet(guessedMask, index)) {
+            return;
+        }
+
+        set(guessedMask, index);
+        if (result.isMiss()) {
+            block(x, y);
+        } else if (result.isSunk()) {
+            /* The whole ship is revealed once sunk, so its cells can no longer hold anything else. */
+            int length = recordSunk(game, isOpponentPlayerOne, x, y, result.getSunkShipId());
+            if (length <= Ship.SIZE_LIMIT && shipsRemainingByLength[length] > 0) {
+                shipsRemainingByLength[length]--;
+            }
+        } else {
+            set(hitMask, index);
+            unsunkHits++;
+        }
+    }
+
+    /**
+     * Helper for learning every cell of a sunk ship, found by following the ship's id out from the sinking
+     * shot along each direction, as ships lie in a straight line.
+     * @param game the game the shot was made in; not null.
+     * @param isOpponentPlayerOne true if the board shot at is player one's, false for player two's.
+     * @param x horizontal position of the sinking shot.
+     * @param y vertical position of the sinking shot.
+     * @param shipId id of the sunk ship.
+     * @return length of the sunk ship.
+     */
+    private int recordSunk(Game game, boolean isOpponentPlayerOne, int x, int y, int shipId) {
+        recordSunkCell(x, y);
+        int length = 1;
+        for (int direction = 0; direction < 4; direction++) {
+            int dx = direction == 0 ? 1 : direction == 1 ? -1 : 0;
+            int dy = direction == 2 ? 1 : direction == 3 ? -1 : 0;
+            for (int cellX = x + dx, cellY = y + dy; game.getShipId(isOpponentPlayerOne, cellX, cellY) == shipId;
+                    cellX += dx, cellY += dy) {
+                recordSunkCell(cellX, cellY);
+                length++;
+            }
+        }
+
+        return length;
+    }
+
+    /**
+     * Helper for learning one cell of a sunk ship.
+     * @param x horizontal position of the cell.
+     * @param y vertical position of the cell.
+     */
+    private void recordSunkCell(int x, int y) {
+        int index = y * width + x;
+        if (isSet(hitMask, index)) {
+            clear(hitMask, index);
+            unsunkHits--;
+        }
+        set(guessedMask, index);
+        block(x, y);
+    }
+
+    int getXSize() {
+        return width;
+    }
+
+    int getYSize() {
+        return height;
+    }
+
+    /**
+     * @return the live guessed-cell mask; not to be modified.
+     */
+    long[] guessedMask() {
+        return guessedMask;
+    }
+
+    /**
+     * @return the live blocked-cell mask; not to be modified.
+     */
+    long[] blockedMask() {
+        return blockedMask;
+    }
+
+    /**
+     * @return the live blocked-cell mask in column-major order, where cell (x,y) is bit x * height + y;
+     *         not to be modified.
+     */
+    long[] blockedColumnMask() {
+        return blockedColumns;
+    }
+
+    /**
+     * @return the live mask of hits on ships not yet sunk; not to be modified.
+     */
+    long[] hitMask() {
+        return hitMask;
+    }
+
+    /**
+     * @return number of hits on ships not yet sunk.
+     */
+    int unsunkHits() {
+        return unsunkHits;
+    }
+
+    /**
+     * @param length length of ship; between 1 and Ship.SIZE_LIMIT.
+     * @return number of ships of that length not yet sunk.
+     */
+    int shipsRemaining(int length) {
+        return shipsRemainingByLength[length];
+    }
+
+    /**
+     * @return number of ships of any length not yet sunk.
+     */
+    int shipsRemaining() {
+        int ships = 0;
+        for (int count : shipsRemainingByLength) {
+            ships += count;
+        }
+
+        return ships;
+    }
+
+    /**
+     * Helper for marking a cell as blocked in both layouts.
+     * @param x horizontal position of the cell.
+     * @param y vertical position of the cell.
+     */
+    private void block(int x, int y) {
+        set(blockedMask, y * width + x);
+        set(blockedColumns, x * height + y);
+    }
+
+    static boolean isSet(long[] mask, int index) {
+        return (mask[index >>> 6] & (1L << index)) != 0;
+    }
+
+    static void set(long[] mask, int index) {
+        mask[index >>> 6] |= 1L << index;
+    }
+
+    static void clear(long[] mask, int index) {
+        mask[index >>> 6] &= ~(1L << index);
+    }
+}
@@ -0,0 +1,453 @@
+package battleship;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * A computer opponent that shoots at the cell most likely to hold a ship.
+ * For every ship still afloat, it counts how many of that ship's placements could cover each cell
+ * given everything it has learned so far, and fires at the cell with the highest count.
+ * Once it has hit a ship it has not yet sunk, only placements covering those hits are counted,
+ * weighted by how many of the hits they explain, so it finishes off ships it has found.
+ *
+ * Knowledge is kept as packed bitsets in the same row-major layout as BitBoard, and is only ever
+ * learned from the results of its own shots.
+ */
+public class TargetingAI implements ComputerPlayer {
+    /* Each extra hit a placement explains multiplies its weight by 2^HIT_WEIGHT_SHIFT. */
+    private static final int HIT_WEIGHT_SHIFT = 4;
+    private static final int MAX_WEIGHTED_HITS = 8;
+
+    private final Game game;
+    private final boolean isPlayerOne;
+    private final ShotKnowledge knowledge;
+    private final int width;
+    private final int height;
+    private final long[] guessedMask;
+    private final long[] blockedMask;
+    private final long[] blockedColumns;
+    private final long[] hitMask;
+    private final long lastWordMask;
+    private final SplittableRandom random;
+
+    /* Hunt density is kept up to date with the blocked cells and ship counts it was last counted from. */
+    private final long[] huntDensity;
+    private final long[] countedRows;
+    private final long[] countedColumns;
+    private final int[] countedShips = new int[Ship.SIZE_LIMIT + 1];
+
+    /* Target density is rebuilt every shot, but only the cells it touched are scanned and cleared. */
+    private final long[] targetDensity;
+    private int[] targetCells = new int[64];
+    private int targetCellCount = 0;
+
+    /**
+     * Initialises a new AI that plays one side of a game.
+     * @param game the game to play in; not null.
+     * @param isPlayerOne true if the AI plays as player one, false for player two.
+     * @param seed seed for breaking ties between equally likely cells.
+     */
+    public TargetingAI(Game game, boolean isPlayerOne, long seed) {
+        this(game, isPlayerOne, seed, new ShotKnowledge(game.getBoardWidth(!isPlayerOne),
+                game.getBoardHeight(!isPlayerOne), game.getAllShips(!isPlayerOne)));
+    }
+
+    /**
+     * Initialises a new AI that plays one side of a game, sharing knowledge another player keeps up to date.
+     * @param game the game to play in; not null.
+     * @param isPlayerOne true if the AI plays as player one, false for player two.
+     * @param seed seed for breaking ties between equally likely cells.
+     * @param knowledge what is known of the opponent's board; not null.
+     */
+    TargetingAI(Game game, boolean isPlayerOne, long seed, ShotKnowledge knowledge) {
+        this.game = game;
+        this.isPlayerOne = isPlayerOne;
+        this.knowledge = knowledge;
+        this.width = knowledge.getXSize();
+        this.height = knowledge.getYSize();
+        this.guessedMask = knowledge.guessedMask();
+        this.blockedMask = knowledge.blockedMask();
+        this.blockedColumns = knowledge.blockedColumnMask();
+        this.hitMask = knowledge.hitMask();
+        int area = width * height;
+        this.lastWordMask = area % 64 == 0 ? -1L : -1L >>> (64 - area % 64);
+        this.random = new SplittableRandom(seed);
+        this.huntDensity = new long[area];
+        this.countedRows = new long[blockedMask.length];
+        this.countedColumns = new long[blockedMask.length];
+        this.targetDensity = new long[area];
+    }
+
+    @Override
+    public Position chooseShot() {
+        int best = -1;
+        if (knowledge.unsunkHits() > 0) {
+            best = chooseTarget();
+        }
+
+        if (best < 0) {
+            updateHuntDensity();
+            best = chooseHunt();
+        }
+
+        if (best < 0) {
+            throw new IllegalStateException("Every cell has already been guessed.");
+        }
+
+        return Position.of(best % width, best / width);
+    }
+
+    @Override
+    public void recordShot(int x, int y, GuessResult result) {
+        knowledge.record(game, !isPlayerOne, x, y, result);
+    }
+
+    /**
+     * @return the number of opponent ships the AI knows are still afloat.
+     */
+    public int shipsRemaining() {
+        return knowledge.shipsRemaining();
+    }
+
+    @Override
+    public Game getGame() {
+        return game;
+    }
+
+    @Override
+    public boolean isPlayerOne() {
+        return isPlayerOne;
+    }
+
+    /**
+     * Pick the densest cell covered by a placement that follows up a hit, breaking ties uniformly at random.
+     * @return index of the chosen cell, or -1 if no such placement covers an unguessed cell.
+     */
+    private int chooseTarget() {
+        for (int i = 0; i < targetCellCount; i++) {
+            targetDensity[targetCells[i]] = 0;
+        }
+        targetCellCount = 0;
+        addTargetDensity();
+
+        long bestDensity = 0;
+        int ties = 0;
+        for (int i = 0; i < targetCellCount; i++) {
+            long cellDensity = targetDensity[targetCells[i]];
+            if (cellDensity > bestDensity) {
+                bestDensity = cellDensity;
+                ties = 1;
+            } else if (cellDensity == bestDensity) {
+                ties++;
+            }
+        }
+
+        for (int i = 0, pick = ties == 0 ? -1 : random.nextInt(ties); i < targetCellCount; i++) {
+            if (targetDensity[targetCells[i]] == bestDensity && pick-- == 0) {
+                return targetCells[i];
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Pick the densest unguessed cell by hunt density, breaking ties uniformly at random.
+     * Unguessed cells are found a word at a time, so words already fully guessed are skipped.
+     * @return index of the chosen cell, or -1 if every cell has been guessed.
+     */
+    private int chooseHunt() {
+        long bestDensity = -1;
+        int ties = 0;
+        for (int w = 0; w < guessedMask.length; w++) {
+            for (long bits = unguessedBits(w); bits != 0; bits &= bits - 1) {
+                long cellDensity = huntDensity[(w << 6) + Long.numberOfTrailingZeros(bits)];
+                if (cellDensity > bestDensity) {
+                    bestDensity = cellDensity;
+                    ties = 1;
+                } else if (cellDensity == bestDensity) {
+                    ties++;
+                }
+            }
+        }
+
+        if (ties == 0) {
+            return -1;
+        }
+
+        int pick = random.nextInt(ties);
+        for (int w = 0; w < guessedMask.length; w++) {
+            for (long bits = unguessedBits(w); bits != 0; bits &= bits - 1) {
+                int cell = (w << 6) + Long.numberOfTrailingZeros(bits);
+                if (huntDensity[cell] == bestDensity && pick-- == 0) {
+                    return cell;
+                }
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Helper for finding the unguessed cells of one word of the masks.
+     * @param w index of the word.
+     * @return bits of the word's cells that are on the board and not yet guessed.
+     */
+    private long unguessedBits(int w) {
+        long bits = ~guessedMask[w];
+        return w == guessedMask.length - 1 ? bits & lastWordMask : bits;
+    }
+
+    /**
+     * Bring hunt density up to date with what is now known.
+     * Cells blocked since it was last counted only change the runs of their own row and column, so only
+     * those runs are recounted; it is only counted again from scratch once a ship has been sunk.
+     */
+    private void updateHuntDensity() {
+        for (int length = 1; length <= Ship.SIZE_LIMIT; length++) {
+            if (countedShips[length] != knowledge.shipsRemaining(length)) {
+                countHuntDensity();
+                return;
+            }
+        }
+
+        for (int w = 0; w < blockedMask.length; w++) {
+            for (long bits = blockedMask[w] & ~countedRows[w]; bits != 0; bits &= bits - 1) {
+                blockHuntCell((w << 6) + Long.numberOfTrailingZeros(bits));
+            }
+        }
+    }
+
+    /**
+     * Count the density of every placement of every remaining ship, when there are no hits to follow up.
+     * Counts come straight from the lengths of unblocked runs in each row and column: a cell i cells into
+     * a free run of r cells is covered by min(i + 1, L, r - i, r - L + 1) placements of length L.
+     */
+    private void countHuntDensity() {
+        Arrays.fill(huntDensity, 0);
+        System.arraycopy(blockedMask, 0, countedRows, 0, blockedMask.length);
+        System.arraycopy(blockedColumns, 0, countedColumns, 0, blockedColumns.length);
+
+        for (int length = 1; length <= Ship.SIZE_LIMIT; length++) {
+            int ships = knowledge.shipsRemaining(length);
+            countedShips[length] = ships;
+            if (ships == 0) {
+                continue;
+            }
+
+            /* Rows are contiguous in the row-major mask, so free runs are found a word at a time. */
+            for (int y = 0; y < height; y++) {
+                int rowStart = y * width;
+                int rowEnd = rowStart + width;
+                int runStart = rowStart;
+                while (runStart < rowEnd) {
+                    int runEnd = nextSetBit(countedRows, runStart, rowEnd);
+                    addRunDensity(runStart, runEnd - runStart, 1, length, ships);
+                    runStart = runEnd + 1;
+                }
+            }
+
+            if (length == 1) {
+                continue;
+            }
+
+            /* Likewise columns in the column-major mask. */
+            for (int x = 0; x < width; x++) {
+                int columnStart = x * height;
+                int columnEnd = columnStart + height;
+                int runStart = columnStart;
+                while (runStart < columnEnd) {
+                    int runEnd = nextSetBit(countedColumns, runStart, columnEnd);
+                    addRunDensity((runStart - columnStart) * width + x, runEnd - runStart, width, length, ships);
+                    runStart = runEnd + 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Helper for updating hunt density for one newly blocked cell, by splitting the free runs it sat in.
+     * @param cell index of the cell.
+     */
+    private void blockHuntCell(int cell) {
+        int x = cell % width;
+        int y = cell / width;
+        int rowStart = cell - x;
+        int left = previousSetBit(countedRows, rowStart, cell) + 1;
+        int right = nextSetBit(countedRows, cell + 1, rowStart + width);
+
+        int columnStart = x * height;
+        int top = previousSetBit(countedColumns, columnStart, columnStart + y) + 1 - columnStart;
+        int bottom = nextSetBit(countedColumns, columnStart + y + 1, columnStart + height) - columnStart;
+
+        for (int length = 1; length <= Ship.SIZE_LIMIT; length++) {
+            int ships = countedShips[length];
+            if (ships == 0) {
+                continue;
+            }
+
+            splitRunDensity(left, right - left, x - (left - rowStart), 1, length, ships);
+            if (length > 1) {
+                splitRunDensity(top * width + x, bottom - top, y - top, width, length, ships);
+            }
+        }
+
+        ShotKnowledge.set(countedRows, cell);
+        ShotKnowledge.set(countedColumns, columnStart + y);
+    }
+
+    /**
+     * Helper for replacing the density of a free run with that of the two runs either side of one of its cells.
+     * @param start index of the run's first cell.
+     * @param runLength number of cells in the run.
+     * @param split position within the run of the cell now blocked.
+     * @param step distance between consecutive cells of the run.
+     * @param length length of the ship.
+     * @param ships number of remaining ships of that length.
+     */
+    private void splitRunDensity(int start, int runLength, int split, int step, int length, int ships) {
+        addRunDensity(start, runLength, step, length, -ships);
+        addRunDensity(start, split, step, length, ships);
+        addRunDensity(start + (split + 1) * step, runLength - split - 1, step, length, ships);
+    }
+
+    /**
+     * Helper for adding the density of every placement of one length within one free run of cells.
+     * @param start index of the run's first cell.
+     * @param runLength number of cells in the run.
+     * @param step distance between consecutive cells of the run.
+     * @param length length of the ship.
+     * @param ships number of remaining ships of that length, negated to take the run's density away.
+     */
+    private void addRunDensity(int start, int runLength, int step, int length, int ships) {
+        if (runLength < length) {
+            return;
+        }
+
+        int placements = runLength - length + 1;
+        for (int i = 0, cell = start; i < runLength; i++, cell += step) {
+            int covering = Math.min(Math.min(i + 1, length), Math.min(runLength - i, placements));
+            huntDensity[cell] += (long) covering * ships;
+        }
+    }
+
+    /**
+     * Add the density of every placement of every remaining ship that covers a hit on an unsunk ship.
+     */
+    private void addTargetDensity() {
+        for (int w = 0; w < hitMask.length; w++) {
+            for (long bits = hitMask[w]; bits != 0; bits &= bits - 1) {
+                int hit = (w << 6) + Long.numberOfTrailingZeros(bits);
+                int hitX = hit % width;
+                int hitY = hit / width;
+
+                for (int length = 1; length <= Ship.SIZE_LIMIT; length++) {
+                    int ships = knowledge.shipsRemaining(length);
+                    if (ships == 0) {
+                        continue;
+                    }
+
+                    for (int offset = 0; offset < length; offset++) {
+                        if (hitX - offset >= 0 && hitX - offset + length <= width) {
+                            addPlacementDensity(hit - offset, 1, hit, length, ships);
+                        }
+                        if (length > 1 && hitY - offset >= 0 && hitY - offset + length <= height) {
+                            addPlacementDensity(hit - offset * width, width, hit, length, ships);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Helper for adding the density of one placement that covers a hit, if nothing rules it out.
+     * Each placement is only counted from the first hit it covers, so placements covering several hits
+     * are not counted more than once.
+     * @param origin index of the placement's first cell.
+     * @param step distance between consecutive cells of the placement.
+     * @param hit index of the hit being followed up.
+     * @param length length of the ship.
+     * @param ships number of remaining ships of that length.
+     */
+    private void addPlacementDensity(int origin, int step, int hit, int length, int ships) {
+        int hitsCovered = 0;
+        for (int i = 0, cell = origin; i < length; i++, cell += step) {
+            if (ShotKnowledge.isSet(blockedMask, cell)) {
+                return;
+            }
+
+            if (ShotKnowledge.isSet(hitMask, cell)) {
+                if (cell < hit) {
+                    return;
+                }
+                hitsCovered++;
+            }
+        }
+
+        long weight = (long) ships << (HIT_WEIGHT_SHIFT * Math.min(hitsCovered, MAX_WEIGHTED_HITS));
+        for (int i = 0, cell = origin; i < length; i++, cell += step) {
+            if (!ShotKnowledge.isSet(guessedMask, cell)) {
+                if (targetDensity[cell] == 0) {
+                    if (targetCellCount == targetCells.length) {
+                        targetCells = Arrays.copyOf(targetCells, targetCellCount * 2);
+                    }
+                    targetCells[targetCellCount++] = cell;
+                }
+                targetDensity[cell] += weight;
+            }
+        }
+    }
+
+    /**
+     * Helper for finding the next set bit of a mask within a range.
+     * @param mask mask to search.
+     * @param from first index to check.
+     * @param to index to stop before.
+     * @return index of the first set bit in [from, to), or to if there is none.
+     */
+    private static int nextSetBit(long[] mask, int from, int to) {
+        if (from >= to) {
+            return to;
+        }
+
+        int w = from >>> 6;
+        long bits = mask[w] & (-1L << from);
+        while (true) {
+            if (bits != 0) {
+                return Math.min(to, (w << 6) + Long.numberOfTrailingZeros(bits));
+            }
+
+            if ((long) ++w << 6 >= to) {
+                return to;
+            }
+            bits = mask[w];
+        }
+    }
+
+    /**
+     * Helper for finding the previous set bit of a mask within a range.
+     * @param mask mask to search.
+     * @param from first index to check.
+     * @param to index to stop before.
+     * @return index of the last set bit in [from, to), or from - 1 if there is none.
+     */
+    private static int previousSetBit(long[] mask, int from, int to) {
+        if (from >= to) {
+            return from - 1;
+        }
+
+        int w = (to - 1) >>> 6;
+        long bits = mask[w] & (-1L >>> (63 - ((to - 1) & 63)));
+        while (true) {
+            if (bits != 0) {
+                return Math.max(from - 1, (w << 6) + 63 - Long.numberOfLeadingZeros(bits));
+            }
+
+            if ((long) w << 6 <= from) {
+                return from - 1;
+            }
+            bits = mask[--w];
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package battleship.server;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Frame layouts for BinaryServer. Every frame is an opcode byte followed by a payload whose size is fixed
+ * by the opcode, apart from FLEET, whose second byte counts its ships. Numbers are big-endian.
+ * A coordinate is packed into an int, x in the high 16 bits and y in the low 16, each signed.
+ * Outcomes are GuessOutcome ordinals, and ship ids are single bytes with 0xFF for no ship.
+ */
+final class BinaryProtocol {
+    /* Client to server. */
+    static final byte NEW = 0x01;
+    static final byte JOIN = 0x02;
+    static final byte FLEET = 0x03;
+    static final byte RANDOM = 0x04;
+    static final byte FIRE = 0x05;
+    static final byte QUIT = 0x06;
+
+    /* Server to client, in reply to a request. */
+    static final byte GAME = 0x41;
+    static final byte OK = 0x42;
+    static final byte ERROR = 0x43;
+    static final byte RESULT = 0x44;
+    static final byte BYE = 0x45;
+
+    /* Server to client, pushed whenever the game changes. */
+    static final byte EVENT = 0x51;
+    static final byte TURN = 0x52;
+    static final byte OVER = 0x53;
+
+    /* Reasons given in ERROR frames. */
+    static final byte BAD_FRAME = 1;
+    static final byte NO_GAME = 2;
+    static final byte CANNOT_JOIN = 3;
+    static final byte INVALID_FLEET = 4;
+    static final byte NOT_READY = 5;
+
+    /* Longest frame either side sends: a FLEET of 255 ships. */
+    static final int MAX_FRAME_LENGTH = 2 + 255 * 8;
+
+    private BinaryProtocol() {
+    }
+
+    /**
+     * Pack a coordinate into an int.
+     * @param x horizontal position; between Short.MIN_VALUE and Short.MAX_VALUE.
+     * @param y vertical position; between Short.MIN_VALUE and Short.MAX_VALUE.
+     * @return the packed coordinate.
+     */
+    static int pack(int x, int y) {
+        return (x << 16) | (y & 0xFFFF);
+    }
+
+    /**
+     * @param packed a coordinate produced by pack().
+     * @return the horizontal position.
+     */
+    static int unpackX(int packed) {
+        return packed >> 16;
+    }
+
+    /**
+     * @param packed a coordinate produced by pack().
+     * @return the vertical position.
+     */
+    static int unpackY(int packed) {
+        return (short) packed;
+    }
+
+    /**
+     * Get the length of the next frame a client sent, if enough of it has arrived to tell.
+     * @param in buffer positioned at the start of the frame; not changed.
+     * @return the frame's length in bytes including its opcode, 0 if more bytes are needed to tell, or -1
+     *         if the opcode is unknown.
+     */
+    static int requestLength(ByteBuffer in) {
+        if (!in.hasRemaining()) {
+            return 0;
+        }
+
+        switch (in.get(in.position())) {
+            case NEW:
+            case RANDOM:
+            case QUIT:
+                return 1;
+            case JOIN:
+                return 1 + Long.BYTES;
+            case FIRE:
+                return 1 + Integer.BYTES;
+            case FLEET:
+                return in.remaining() < 2 ? 0 : 2 + (in.get(in.position() + 1) & 0xFF) * 2 * Integer.BYTES;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Get the length of a frame the server sends.
+     * @param opcode the frame's opcode.
+     * @return the frame's length in bytes including its opcode, or -1 if the opcode is unknown.
+     */
+    static int replyLength(byte opcode) {
+        switch (opcode) {
+            case OK:
+            case BYE:
+            case TURN:
+                return 1;
+            case ERROR:
+            case OVER:
+                return 2;
+            case RESULT:
+                return 3;
+            case EVENT:
+                return 3 + Integer.BYTES;
+            case GAME:
+                return 2 + Long.BYTES;
+            default:
+                return -1;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package battleship.server;
+
+import battleship.Board;
+import battleship.MoveJournal;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * Hosts the same games as GameServer over a compact binary protocol, for bots firing thousands of shots a
+ * second. Connections are shared between a few event loops, one per core by default, rather than having a
+ * thread each; requests sent together are answered together, in one write.
+ *
+ * Frames are an opcode byte and a fixed payload; see BinaryProtocol for the layouts. Requests:
+ * <pre>
+ * NEW                                      GAME id:long player:byte
+ * JOIN id:long                             GAME id:long player:byte | ERROR reason:byte
+ * FLEET count:byte (start:int end:int)*    OK | ERROR reason:byte
+ * RANDOM                                   OK | ERROR reason:byte
+ * FIRE coordinate:int                      RESULT outcome:byte shipId:byte | ERROR reason:byte
+ * QUIT                                     BYE
+ * </pre>
+ * Between replies the server pushes, once seated in a game:
+ * <pre>
+ * EVENT outcome:byte shipId:byte coordinate:int    the opponent fired at you
+ * TURN                                             it has become your turn
+ * OVER winner:byte                                 the game is over; 1, 2, or 0 for neither
+ * </pre>
+ * Each player is pushed the opponent's shots in order, and TURN after the shot that passed the turn, so
+ * there is no need to poll.
+ *
+ * Given a MoveJournal, every game is journalled, and a session holds back its output until every move made
+ * in its game before it is on disk. The loops never wait for the disk themselves; they carry on serving other sessions.
+ */
+public class BinaryServer implements AutoCloseable {
+    private final ServerSocketChannel serverChannel;
+    private final GameRegistry registry;
+    private final EventLoop[] loops;
+    private final Thread acceptor;
+
+    /**
+     * Start a server listening on the loopback address, for games on the default board size, with an event
+     * loop per core.
+     * @param port port to listen on; 0 to pick any free port.
+     * @throws IOException if the port cannot be listened on.
+     */
+    public BinaryServer(int port) throws IOException {
+        this(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), Board.DEFAULT_SIZE, Board.DEFAULT_SIZE,
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Start a server.
+     * @param address address to listen on; not null.
+     * @param boardWidth horizontal size of each player's board in every game; at most Short.MAX_VALUE.
+     * @param boardHeight vertical size of each player's board in every game; at most Short.MAX_VALUE.
+     * @param loopCount number of event loops to share connections between; positive.
+     * @throws IOException if the address cannot be listened on.
+     */
+    public BinaryServer(InetSocketAddress address, int boardWidth, int boardHeight, int loopCount) throws IOException {
+        this(address, boardWidth, boardHeight, loopCount, null);
+    }
+
+    /**
+     * Start a server that journals its games.
+     * @param address address to listen on; not null.
+     * @param boardWidth horizontal size of each player's board in every game; at most Short.MAX_VALUE.
+     * @param boardHeight vertical size of each player's board in every game; at most Short.MAX_VALUE.
+     * @param loopCount number of event loops to share connections between; positive.
+     * @param journal journal to record every game in, or null for none; closed by the caller, after the server.
+     * @throws IOException if the address cannot be listened on.
+     */
+    public BinaryServer(InetSocketAddress address, int boardWidth, int boardHeight, int loopCount, MoveJournal journal)
+            throws IOException {
+        if (boardWidth > Short.MAX_VALUE || boardHeight > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Board too large for coordinates to be packed.");
+        } else if (loopCount <= 0) {
+            throw new IllegalArgumentException("Number of event loops must be positive.");
+        }
+
+        this.registry = new GameRegistry(boardWidth, boardHeight, journal);
+        this.loops = new EventLoop[loopCount];
+        for (int i = 0; i < loopCount; i++) {
+            loops[i] = new EventLoop("battleship-loop-" + i);
+        }
+        this.serverChannel = ServerSocketChannel.open();
+        this.serverChannel.bind(address, 4096);
+        this.acceptor = new Thread(this::acceptConnections, "battleship-binary-acceptor");
+        this.acceptor.setDaemon(true);
+        this.acceptor.start();
+    }
+
+    /**
+     * @return port the server is listening on.
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * @return number of games being hosted, including games still waiting for a second player.
+     */
+    public int getGameCount() {
+        return registry.size();
+    }
+
+    /**
+     * Accept connections until the server is closed, handing them to the loops in turn.
+     */
+    private void acceptConnections() {
+        SplittableRandom seeds = new SplittableRandom();
+        int next = 0;
+        while (serverChannel.isOpen()) {
+            try {
+                SocketChannel channel = serverChannel.accept();
+                channel.configureBlocking(false);
+                /* Replies are batched by the session already, so never hold them back to fill a packet. */
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+
+                EventLoop loop = loops[next];
+                next = (next + 1) % loops.length;
+                loop.register(channel, new BinarySession(loop, channel, registry, seeds.nextLong()));
+            } catch (AsynchronousCloseException e) {
+                // Server channel closed.
+            } catch (IOException e) {
+                System.err.println("Failed to accept connection: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Stop accepting connections and disconnect every client.
+     * @throws IOException if the server channel fails to close.
+     */
+    @Override
+    public void close() throws IOException {
+        serverChannel.close();
+        for (EventLoop loop : loops) {
+            loop.close();
+        }
+    }
+
+    /**
+     * Run a server until the process is stopped.
+     * @param args optional: port to listen on, defaulting to 7778, number of event loops, defaulting
+     *             to one per core, and a journal file to record games in.
+     * @throws IOException if the port cannot be listened on, or the journal cannot be opened.
+     * @throws InterruptedException if interrupted while serving.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 7778;
+        int loopCount = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        MoveJournal journal = args.length > 2 ? new MoveJournal(Path.of(args[2])) : null;
+        BinaryServer server = new BinaryServer(new InetSocketAddress(port), Board.DEFAULT_SIZE, Board.DEFAULT_SIZE,
+                loopCount, journal);
+        System.out.println("Battleship binary server listening on port " + server.getPort());
+
+        /* Every server thread is a daemon, so keep the process alive for as long as connections are accepted. */
+        server.acceptor.join();
+    }
+}
@@ -0,0 +1,405 @@
+package battleship.server;
+
+import battleship.Coordinate;
+import battleship.EventLog;
+import battleship.GameEventType;
+import battleship.GamePhase;
+import battleship.GuessResult;
+import battleship.MoveJournal;
+import battleship.Ship;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Speaks the binary protocol with one client, on its event loop's thread. Every request that has arrived is
+ * handled before any reply is written, and the opponent's shots and turn changes are pushed after them, so
+ * a client that sends several frames at once gets every answer back in one write. If the server journals its
+ * games, output is held back until every move made before it was buffered is on disk.
+ */
+final class BinarySession {
+    private static final int BUFFER_SIZE = 16 * 1024;
+    /* Room kept free in the output buffer before handling a request, enough for any reply. */
+    private static final int MAX_REPLY_LENGTH = 16;
+    private static final int EVENT_LENGTH = BinaryProtocol.replyLength(BinaryProtocol.EVENT);
+
+    private final EventLoop loop;
+    private final SocketChannel channel;
+    private final GameRegistry registry;
+    private final SplittableRandom random;
+    private final ByteBuffer in = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final ByteBuffer out = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    /* Run by the game on whichever thread changed it; changes are pushed once per trip round the loop. */
+    private final AtomicBoolean refreshQueued = new AtomicBoolean(false);
+    private final Runnable onGameChanged = this::queueRefresh;
+    private SelectionKey key = null;
+    private boolean waitingToWrite = false;
+    private boolean closing = false;
+    private boolean closed = false;
+    private HostedGame game = null;
+    private boolean isPlayerOne = false;
+    private EventLog.Cursor events = null;
+    private boolean turnAnnounced = false;
+    private boolean overAnnounced = false;
+    /* Journal records that must be durable before the output buffered so far, up to checkedPosition, is sent. */
+    private long recordsNeeded = 0;
+    private int checkedPosition = 0;
+    private boolean journalWaitQueued = false;
+
+    /**
+     * Initialises a new session for a connected client.
+     * @param loop the loop the client is served on; not null.
+     * @param channel the client's connection, in non-blocking mode; not null.
+     * @param registry games hosted by the server; not null.
+     * @param seed seed for any random fleets the client asks for.
+     */
+    BinarySession(EventLoop loop, SocketChannel channel, GameRegistry registry, long seed) {
+        this.loop = loop;
+        this.channel = channel;
+        this.registry = registry;
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Start serving, once registered with the loop.
+     * @param key the connection's registration with the loop's selector.
+     */
+    void start(SelectionKey key) {
+        this.key = key;
+    }
+
+    /**
+     * Read whatever the client has sent, and answer it.
+     */
+    void onReadable() {
+        try {
+            if (channel.read(in) < 0) {
+                close();
+                return;
+            }
+        } catch (IOException e) {
+            close();
+            return;
+        }
+
+        serve();
+    }
+
+    /**
+     * Carry on writing replies that did not fit in the socket's buffer before.
+     */
+    void onWritable() {
+        serve();
+    }
+
+    /**
+     * Handle every complete request buffered, push any changes to the game, then write it all at once.
+     * Stops reading while replies are backed up, until the client takes them.
+     */
+    private void serve() {
+        if (closed) {
+            return;
+        }
+
+        in.flip();
+        while (!closing && (out.remaining() >= MAX_REPLY_LENGTH || flush())) {
+            int length = BinaryProtocol.requestLength(in);
+            if (length < 0) {
+                /* Nothing after an unknown opcode can be framed, so give up on the connection. */
+                error(BinaryProtocol.BAD_FRAME);
+                closing = true;
+            } else if (length == 0 || length > in.remaining()) {
+                break;
+            } else {
+                int end = in.position() + length;
+                handle();
+                in.position(end);
+            }
+        }
+        in.compact();
+
+        boolean pushed = pushChanges();
+        boolean drained = flush();
+        while (!pushed && drained) {
+            pushed = pushChanges();
+            drained = flush();
+        }
+
+        /* Output held for the journal is sent once it catches up, not when the socket is writable. */
+        boolean backedUp = !drained && !journalWaitQueued;
+        if (closed) {
+            return;
+        } else if (drained && closing) {
+            close();
+        } else if (backedUp != waitingToWrite) {
+            waitingToWrite = backedUp;
+            key.interestOps(backedUp ? SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+        }
+    }
+
+    /**
+     * Carry out one request, writing its reply.
+     */
+    private void handle() {
+        byte opcode = in.get();
+        switch (opcode) {
+            case BinaryProtocol.NEW:
+                leaveGame();
+                seat(registry.create(), true);
+                out.put(BinaryProtocol.GAME).putLong(game.getId()).put((byte) 1);
+                return;
+            case BinaryProtocol.JOIN:
+                HostedGame joined = registry.join(in.getLong());
+                if (joined == null) {
+                    error(BinaryProtocol.CANNOT_JOIN);
+                    return;
+                }
+                leaveGame();
+                seat(joined, false);
+                out.put(BinaryProtocol.GAME).putLong(game.getId()).put((byte) 2);
+                return;
+            case BinaryProtocol.QUIT:
+                out.put(BinaryProtocol.BYE);
+                closing = true;
+                return;
+            default:
+                break;
+        }
+
+        if (game == null) {
+            error(BinaryProtocol.NO_GAME);
+            return;
+        }
+
+        switch (opcode) {
+            case BinaryProtocol.FLEET:
+                List<Ship> fleet = readFleet();
+                reply(fleet != null && game.placeFleet(isPlayerOne, fleet), BinaryProtocol.INVALID_FLEET);
+                break;
+            case BinaryProtocol.RANDOM:
+                reply(game.placeRandomFleet(isPlayerOne, random), BinaryProtocol.INVALID_FLEET);
+                break;
+            case BinaryProtocol.FIRE:
+                int target = in.getInt();
+                GuessResult result = game.fire(isPlayerOne, BinaryProtocol.unpackX(target), BinaryProtocol.unpackY(target));
+                if (result == null) {
+                    error(BinaryProtocol.NOT_READY);
+                } else {
+                    out.put(BinaryProtocol.RESULT).put((byte) result.getOutcome().ordinal())
+                            .put((byte) result.getSunkShipId());
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Helper for reading the ships of a FLEET request.
+     * @return the ships, or null if any is diagonal or too long.
+     */
+    private List<Ship> readFleet() {
+        int count = in.get() & 0xFF;
+        List<Ship> ships = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int start = in.getInt();
+            int end = in.getInt();
+            try {
+                ships.add(new Ship("Ship " + i, new Coordinate(BinaryProtocol.unpackX(start), BinaryProtocol.unpackY(start)),
+                        new Coordinate(BinaryProtocol.unpackX(end), BinaryProtocol.unpackY(end))));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        return ships;
+    }
+
+    /**
+     * Push the opponent's shots since the last push, then the turn or the end of the game if either changed.
+     * @return true if everything was pushed, false if the output buffer filled first.
+     */
+    private boolean pushChanges() {
+        if (game == null) {
+            return true;
+        }
+
+        /* Read before the log: a guess is logged before the turn passes, so the turn read is never ahead of it. */
+        boolean isOver = game.getGame().getPhase() == GamePhase.OVER;
+        boolean isTurn = game.isTurn(isPlayerOne);
+
+        while (out.remaining() >= EVENT_LENGTH && events.next()) {
+            if (events.isPlayerOneAttacker() != isPlayerOne && events.getEventType() != GameEventType.FAIL) {
+                out.put(BinaryProtocol.EVENT).put((byte) events.getOutcome().ordinal())
+                        .put((byte) events.getSunkShipId()).putInt(BinaryProtocol.pack(events.getX(), events.getY()));
+            }
+        }
+        if (out.remaining() < MAX_REPLY_LENGTH) {
+            return false;
+        }
+
+        if (isOver) {
+            if (!overAnnounced) {
+                out.put(BinaryProtocol.OVER).put((byte) game.getWinner());
+                overAnnounced = true;
+            }
+        } else if (!isTurn) {
+            turnAnnounced = false;
+        } else if (!turnAnnounced) {
+            out.put(BinaryProtocol.TURN);
+            turnAnnounced = true;
+        }
+
+        return true;
+    }
+
+    /**
+     * Helper for writing as much buffered output as the socket takes.
+     * @return true if everything was written.
+     */
+    private boolean flush() {
+        if (out.position() == 0 || closed) {
+            return !closed;
+        } else if (!isJournalled()) {
+            return false;
+        }
+
+        out.flip();
+        try {
+            channel.write(out);
+        } catch (IOException e) {
+            close();
+            return false;
+        } finally {
+            out.compact();
+            checkedPosition = out.position();
+        }
+
+        return out.position() == 0;
+    }
+
+    /**
+     * Helper for checking every move the buffered output could tell of is journalled. Only the game's records
+     * appended before output was added are waited for, so a busy journal never holds output back for long.
+     * @return true if the output may be sent, false if a serve has been queued for once it may.
+     */
+    private boolean isJournalled() {
+        MoveJournal journal = registry.getJournal();
+        if (journal == null) {
+            return true;
+        } else if (journal.getFailure() != null) {
+            close();
+            return false;
+        }
+
+        if (out.position() > checkedPosition) {
+            recordsNeeded = Math.max(recordsNeeded, game == null ? 0 : game.getGame().getLastJournalRecord());
+            checkedPosition = out.position();
+        }
+        if (journal.getDurableCount() >= recordsNeeded) {
+            return true;
+        }
+
+        if (!journalWaitQueued) {
+            journalWaitQueued = true;
+            journal.whenDurable(recordsNeeded, () -> loop.execute(this, () -> {
+                journalWaitQueued = false;
+                serve();
+            }));
+        }
+        return false;
+    }
+
+    /**
+     * Helper for replying OK or with an error.
+     * @param isOk true to reply OK.
+     * @param reason reason to give otherwise.
+     */
+    private void reply(boolean isOk, byte reason) {
+        if (isOk) {
+            out.put(BinaryProtocol.OK);
+        } else {
+            error(reason);
+        }
+    }
+
+    /**
+     * Helper for replying with an error.
+     * @param reason the reason to give.
+     */
+    private void error(byte reason) {
+        out.put(BinaryProtocol.ERROR).put(reason);
+    }
+
+    /**
+     * Helper for taking a seat in a game, and following its changes from now on.
+     * @param seated the game; not null.
+     * @param asPlayerOne true if seated as player one, false for player two.
+     */
+    private void seat(HostedGame seated, boolean asPlayerOne) {
+        game = seated;
+        isPlayerOne = asPlayerOne;
+        EventLog log = seated.getGame().getEventLog();
+        events = log.cursor(log.size());
+        turnAnnounced = false;
+        overAnnounced = false;
+        seated.addListener(onGameChanged);
+    }
+
+    /**
+     * Helper for leaving the current game, if any.
+     */
+    private void leaveGame() {
+        if (game != null) {
+            /* Output not yet checked may still tell of this game's moves. */
+            if (out.position() > checkedPosition) {
+                recordsNeeded = Math.max(recordsNeeded, game.getGame().getLastJournalRecord());
+            }
+            game.removeListener(onGameChanged);
+            registry.leave(game);
+            game = null;
+            events = null;
+        }
+    }
+
+    /**
+     * Helper for having the loop push the game's latest changes, once however many arrive before it does.
+     */
+    private void queueRefresh() {
+        if (refreshQueued.compareAndSet(false, true)) {
+            loop.execute(this, () -> {
+                refreshQueued.set(false);
+                serve();
+            });
+        }
+    }
+
+    /**
+     * Leave any game and disconnect. The connection is closed even if leaving the game throws.
+     */
+    void close() {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+        try {
+            leaveGame();
+        } finally {
+            if (key != null) {
+                key.cancel();
+            }
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Already closed.
+            }
+        }
+    }
+}
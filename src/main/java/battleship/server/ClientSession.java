@@ -0,0 +1,242 @@
+package battleship.server;
+
+import battleship.Coordinate;
+import battleship.Game;
+import battleship.GamePhase;
+import battleship.GuessResult;
+import battleship.MoveJournal;
+import battleship.Ship;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Speaks the line protocol with one connected client, on a thread of its own, until the client quits or
+ * disconnects. Each command line gets exactly one reply line; see GameServer for the commands.
+ */
+final class ClientSession implements Runnable {
+    /* Longest a WAIT blocks before replying, so idle clients are noticed. */
+    private static final long WAIT_TIMEOUT_MILLIS = 60_000;
+    /* Longest command line read, so a client that never ends its line cannot use up the server's memory. */
+    static final int MAX_LINE_LENGTH = 4096;
+
+    private final Socket socket;
+    private final GameRegistry registry;
+    private final SplittableRandom random;
+    private final byte[] lineBuffer = new byte[MAX_LINE_LENGTH];
+    private boolean lineTooLong = false;
+    private HostedGame game = null;
+    private boolean isPlayerOne = false;
+    /* Journal record that must be durable before the reply being made is sent; 0 if the reply tells of no move. */
+    private long recordNeeded = 0;
+
+    /**
+     * Initialises a new session for a connected client.
+     * @param socket the client's connection; not null.
+     * @param registry games hosted by the server; not null.
+     * @param seed seed for any random fleets the client asks for.
+     */
+    ClientSession(Socket socket, GameRegistry registry, long seed) {
+        this.socket = socket;
+        this.registry = registry;
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public void run() {
+        try (Socket client = socket;
+             InputStream in = new BufferedInputStream(client.getInputStream());
+             Writer out = new BufferedWriter(new OutputStreamWriter(client.getOutputStream(), StandardCharsets.US_ASCII))) {
+            String line;
+            while ((line = readLine(in)) != null) {
+                String reply = handle(line.trim().split(" +"));
+                awaitJournal();
+                out.write(reply);
+                out.write('\n');
+                out.flush();
+
+                if (reply.equals("BYE")) {
+                    break;
+                }
+            }
+
+            if (lineTooLong) {
+                out.write("ERR line too long\n");
+                out.flush();
+            }
+        } catch (IOException e) {
+            // Client went away; nothing more to say to it.
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            leaveGame();
+        }
+    }
+
+    /**
+     * Helper for reading one command line, of at most MAX_LINE_LENGTH characters.
+     * @param in the client's input; not null.
+     * @return the line, without its line ending; null at the end of the input, or if the line is too long,
+     *         when lineTooLong is set.
+     * @throws IOException if the input cannot be read.
+     */
+    private String readLine(InputStream in) throws IOException {
+        int length = 0;
+        int next;
+        while ((next = in.read()) != '\n') {
+            if (next == -1) {
+                return length == 0 ? null : new String(lineBuffer, 0, length, StandardCharsets.US_ASCII);
+            } else if (length == MAX_LINE_LENGTH) {
+                lineTooLong = true;
+                return null;
+            }
+            lineBuffer[length++] = (byte) next;
+        }
+
+        return new String(lineBuffer, 0, length, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Carry out one command.
+     * @param words the command and its arguments; not null.
+     * @return the reply line, without its line ending.
+     * @throws InterruptedException if interrupted while waiting for a turn.
+     */
+    private String handle(String[] words) throws InterruptedException {
+        recordNeeded = 0;
+        try {
+            switch (words[0].toUpperCase()) {
+                case "NEW":
+                    leaveGame();
+                    game = registry.create();
+                    isPlayerOne = true;
+                    return tellsOfMoves("GAME " + game.getId() + " 1");
+                case "JOIN":
+                    HostedGame joined = registry.join(Long.parseLong(words[1]));
+                    if (joined == null) {
+                        return "ERR cannot join";
+                    }
+                    leaveGame();
+                    game = joined;
+                    isPlayerOne = false;
+                    return "GAME " + game.getId() + " 2";
+                case "QUIT":
+                    return "BYE";
+                default:
+                    break;
+            }
+
+            if (game == null) {
+                return "ERR no game";
+            }
+
+            switch (words[0].toUpperCase()) {
+                case "FLEET":
+                    List<Ship> fleet = parseFleet(words);
+                    if (fleet == null) {
+                        return "ERR bad arguments";
+                    }
+                    return game.placeFleet(isPlayerOne, fleet) ? tellsOfMoves("OK") : "ERR invalid fleet";
+                case "RANDOM":
+                    return game.placeRandomFleet(isPlayerOne, random) ? tellsOfMoves("OK") : "ERR invalid fleet";
+                case "FIRE":
+                    GuessResult result = game.fire(isPlayerOne, Integer.parseInt(words[1]), Integer.parseInt(words[2]));
+                    if (result == null) {
+                        return "ERR not ready";
+                    }
+                    return result.isFail() ? describe(result) : tellsOfMoves(describe(result));
+                case "WAIT":
+                    if (game.awaitTurn(isPlayerOne, WAIT_TIMEOUT_MILLIS)) {
+                        return tellsOfMoves("TURN");
+                    }
+                    return game.getGame().getPhase() == GamePhase.OVER ? tellsOfMoves("OVER " + game.getWinner()) : "WAITING";
+                case "STATE":
+                    Game g = game.getGame();
+                    return tellsOfMoves(g.getPhase() + " " + (g.isPlayerOneTurn() ? 1 : 2) + " "
+                            + g.getShipsRemaining(isPlayerOne) + " " + g.getShipsRemaining(!isPlayerOne));
+                default:
+                    return "ERR unknown command";
+            }
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            return "ERR bad arguments";
+        }
+    }
+
+    /**
+     * Helper for marking a reply as telling of the moves made so far in the current game, by this client or
+     * its opponent, so it is held back until they are journalled.
+     * @param reply the reply line; not null.
+     * @return the reply line.
+     */
+    private String tellsOfMoves(String reply) {
+        recordNeeded = game.getGame().getLastJournalRecord();
+        return reply;
+    }
+
+    /**
+     * Helper for waiting until every move the reply tells of is journalled, so no reply tells of a move that
+     * could be lost. Moves in other games are not waited for. Does nothing if the server has no journal.
+     * @throws IOException if the journal has failed.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    private void awaitJournal() throws IOException, InterruptedException {
+        MoveJournal journal = registry.getJournal();
+        if (journal != null && recordNeeded > 0) {
+            journal.awaitDurable(recordNeeded);
+        }
+    }
+
+    /**
+     * Helper for reading a fleet from a FLEET command.
+     * @param words the command and its arguments: four numbers per ship, being the ends of the ship.
+     * @return the ships described; empty if any ship is diagonal or too long, null if the numbers do not
+     *         come in fours.
+     */
+    private static List<Ship> parseFleet(String[] words) {
+        if (words.length < 5 || (words.length - 1) % 4 != 0) {
+            return null;
+        }
+
+        List<Ship> ships = new ArrayList<>((words.length - 1) / 4);
+        for (int i = 1; i < words.length; i += 4) {
+            Coordinate start = new Coordinate(Integer.parseInt(words[i]), Integer.parseInt(words[i + 1]));
+            Coordinate end = new Coordinate(Integer.parseInt(words[i + 2]), Integer.parseInt(words[i + 3]));
+            try {
+                ships.add(new Ship("Ship " + ships.size(), start, end));
+            } catch (IllegalArgumentException e) {
+                /* Diagonal or too long, so no fleet containing it is valid. */
+                return List.of();
+            }
+        }
+
+        return ships;
+    }
+
+    /**
+     * Helper for writing the result of a shot as a reply.
+     * @param result the result of the shot; not null.
+     * @return the outcome's name, followed by the sunk ship's id for sinks and wins.
+     */
+    private static String describe(GuessResult result) {
+        return result.isSunk() ? result.getOutcome() + " " + result.getSunkShipId() : result.getOutcome().toString();
+    }
+
+    /**
+     * Helper for leaving the current game, if any.
+     */
+    private void leaveGame() {
+        if (game != null) {
+            registry.leave(game);
+            game = null;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package battleship.server;
+
+import java.io.IOException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One thread serving many binary connections through a selector. Everything a connection does runs on its
+ * loop's thread, so sessions need no locks of their own; work is handed to the loop with execute().
+ * A session that throws while being served, or while running a task of its own, is closed, and the loop
+ * carries on serving every other session.
+ */
+final class EventLoop implements Runnable {
+    private final Selector selector;
+    private final Queue<Task> tasks = new ConcurrentLinkedQueue<>();
+    /* Set while a wakeup is on its way, so a burst of tasks from other threads wakes the selector once. */
+    private final AtomicBoolean wakeupPending = new AtomicBoolean(false);
+    private final Thread thread;
+
+    /**
+     * Initialises and starts a new loop.
+     * @param name name of the loop's thread.
+     * @throws IOException if a selector cannot be opened.
+     */
+    EventLoop(String name) throws IOException {
+        this.selector = Selector.open();
+        this.thread = new Thread(this, name);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Run a task on the loop's thread, after whatever the loop is doing now.
+     * @param task the task; must not block.
+     */
+    void execute(Runnable task) {
+        execute(null, task);
+    }
+
+    /**
+     * Run a task for a session on the loop's thread, after whatever the loop is doing now. If the task
+     * throws, only that session is closed.
+     * @param session the session the task is for, or null if for none.
+     * @param task the task; must not block.
+     */
+    void execute(BinarySession session, Runnable task) {
+        tasks.add(new Task(session, task));
+        if (Thread.currentThread() != thread && wakeupPending.compareAndSet(false, true)) {
+            selector.wakeup();
+        }
+    }
+
+    /**
+     * Register a new connection with the loop and start serving it.
+     * @param channel the connection, in non-blocking mode; not null.
+     * @param session the session to serve it with; not null.
+     */
+    void register(SocketChannel channel, BinarySession session) {
+        execute(session, () -> {
+            try {
+                session.start(channel.register(selector, SelectionKey.OP_READ, session));
+            } catch (IOException | ClosedSelectorException e) {
+                session.close();
+            }
+        });
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (selector.isOpen()) {
+                /* Tasks queued by the loop itself never wake it, so do not sleep while any are waiting. */
+                if (tasks.isEmpty()) {
+                    selector.select();
+                } else {
+                    selector.selectNow();
+                }
+                wakeupPending.set(false);
+
+                for (SelectionKey key : selector.selectedKeys()) {
+                    BinarySession session = (BinarySession) key.attachment();
+                    try {
+                        if (key.isValid() && key.isWritable()) {
+                            session.onWritable();
+                        }
+                        if (key.isValid() && key.isReadable()) {
+                            session.onReadable();
+                        }
+                    } catch (RuntimeException e) {
+                        fail(session, e);
+                    }
+                }
+                selector.selectedKeys().clear();
+
+                for (Task task = tasks.poll(); task != null; task = tasks.poll()) {
+                    try {
+                        task.action.run();
+                    } catch (RuntimeException e) {
+                        fail(task.session, e);
+                    }
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            // Loop closed.
+        }
+    }
+
+    /**
+     * Stop the loop and disconnect every connection it serves.
+     */
+    void close() {
+        execute(() -> {
+            try {
+                for (SelectionKey key : selector.keys()) {
+                    BinarySession session = (BinarySession) key.attachment();
+                    try {
+                        session.close();
+                    } catch (RuntimeException e) {
+                        report(e);
+                    }
+                }
+                selector.close();
+            } catch (IOException | ClosedSelectorException e) {
+                // Already closed.
+            }
+        });
+    }
+
+    /**
+     * Helper for disconnecting a session that threw, leaving the rest of the loop's sessions be.
+     * @param session the session, or null if the error was not in a session's work.
+     * @param error the error thrown; not null.
+     */
+    private static void fail(BinarySession session, RuntimeException error) {
+        report(error);
+        if (session != null) {
+            try {
+                session.close();
+            } catch (RuntimeException e) {
+                /* Its connection is closed even so; only leaving its game failed. */
+                report(e);
+            }
+        }
+    }
+
+    /**
+     * Helper for reporting an error the loop carried on past.
+     * @param error the error; not null.
+     */
+    private static void report(RuntimeException error) {
+        System.err.println("Connection failed: " + error);
+    }
+
+    /**
+     * A task queued for the loop, with the session it is for.
+     */
+    private static final class Task {
+        final BinarySession session;
+        final Runnable action;
+
+        Task(BinarySession session, Runnable action) {
+            this.session = session;
+            this.action = action;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package battleship.server;
+
+import battleship.MoveJournal;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Every game a server is hosting, by id. Games are added when created and removed once both players
+ * have left, so the registry only ever holds games that someone is still connected to. Given a journal, every
+ * game is journalled under its id, and ids carry on from the highest already in the journal.
+ */
+final class GameRegistry {
+    private final int boardWidth;
+    private final int boardHeight;
+    private final ConcurrentMap<Long, HostedGame> games = new ConcurrentHashMap<>();
+    private final MoveJournal journal;
+    private final AtomicLong nextId;
+
+    /**
+     * Initialises a new, empty registry.
+     * @param boardWidth horizontal size of each player's board in new games.
+     * @param boardHeight vertical size of each player's board in new games.
+     * @param journal journal to record every game in, or null for none.
+     */
+    GameRegistry(int boardWidth, int boardHeight, MoveJournal journal) {
+        this.boardWidth = boardWidth;
+        this.boardHeight = boardHeight;
+        this.journal = journal;
+        this.nextId = new AtomicLong(journal == null ? 1 : journal.getLastGameId() + 1);
+    }
+
+    /**
+     * Create a new game, with its creator seated as player one.
+     * @return the new game.
+     */
+    HostedGame create() {
+        HostedGame game = new HostedGame(nextId.getAndIncrement(), boardWidth, boardHeight, journal);
+        games.put(game.getId(), game);
+
+        return game;
+    }
+
+    /**
+     * Seat player two in a game.
+     * @param id id of the game to join.
+     * @return the game joined, or null if there is no such game or its second seat is taken.
+     */
+    HostedGame join(long id) {
+        HostedGame game = games.get(id);
+        return game != null && game.join() ? game : null;
+    }
+
+    /**
+     * Vacate a player's seat in a game, removing the game once both players have left.
+     * @param game the game to leave; not null.
+     */
+    void leave(HostedGame game) {
+        if (game.leave()) {
+            games.remove(game.getId());
+        }
+    }
+
+    /**
+     * @return the journal games are recorded in, or null if none.
+     */
+    MoveJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * @return number of games being hosted.
+     */
+    int size() {
+        return games.size();
+    }
+}
@@ -0,0 +1,206 @@
+package battleship.server;
+
+import battleship.Board;
+import battleship.MoveJournal;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hosts games for remote players over a plain text protocol, without any UI.
+ * Each connection is served by a thread of its own, which blocks on the socket and while waiting for its
+ * turn. On a Java runtime with virtual threads these are virtual, so thousands of connections cost little;
+ * otherwise each connection has a platform thread.
+ *
+ * The protocol is one command per line, each answered by one line:
+ * <pre>
+ * NEW                      create a game as player one         GAME id 1
+ * JOIN id                  join a game as player two           GAME id 2 | ERR cannot join
+ * FLEET x1 y1 x2 y2 ...    place a fleet, by each ship's ends  OK | ERR invalid fleet
+ * RANDOM                   place a random fleet                OK | ERR invalid fleet
+ * FIRE x y                 fire at the opponent's board        MISS | HIT | SUNK id | WIN id | ALREADY_GUESSED
+ *                                                              | OUTSIDE_BOARD | OUT_OF_TURN | GAME_OVER
+ *                                                              | ERR not ready
+ * WAIT                     block until it is your turn         TURN | OVER winner | WAITING
+ * STATE                    phase, whose turn, ships remaining  PLAYING 1 5 4
+ * QUIT                     leave and disconnect                BYE
+ * </pre>
+ * Firing needs both fleets placed, and player one fires first. A player keeps firing until they miss.
+ * Leaving a game, or disconnecting, ends it. A line longer than 4096 characters gets ERR line too long, and
+ * the connection is closed.
+ *
+ * Given a MoveJournal, every game is journalled, and no reply telling of a move is sent until every move made
+ * in its game before it is on disk. Connections do not flush the journal themselves, so replies waiting at the
+ * same time share one flush.
+ */
+public class GameServer implements AutoCloseable {
+    private final ServerSocket serverSocket;
+    private final GameRegistry registry;
+    private final ExecutorService connections;
+    /* Interrupting a platform thread does not wake it from a socket read, so close() closes the sockets too. */
+    private final Set<Socket> clients = ConcurrentHashMap.newKeySet();
+    private final Thread acceptor;
+
+    /**
+     * Start a server listening on the loopback address, for games on the default board size.
+     * @param port port to listen on; 0 to pick any free port.
+     * @throws IOException if the port cannot be listened on.
+     */
+    public GameServer(int port) throws IOException {
+        this(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), Board.DEFAULT_SIZE, Board.DEFAULT_SIZE);
+    }
+
+    /**
+     * Start a server.
+     * @param address address to listen on; not null.
+     * @param boardWidth horizontal size of each player's board in every game.
+     * @param boardHeight vertical size of each player's board in every game.
+     * @throws IOException if the address cannot be listened on.
+     */
+    public GameServer(InetSocketAddress address, int boardWidth, int boardHeight) throws IOException {
+        this(address, boardWidth, boardHeight, null);
+    }
+
+    /**
+     * Start a server that journals its games.
+     * @param address address to listen on; not null.
+     * @param boardWidth horizontal size of each player's board in every game.
+     * @param boardHeight vertical size of each player's board in every game.
+     * @param journal journal to record every game in, or null for none; closed by the caller, after the server.
+     * @throws IOException if the address cannot be listened on.
+     */
+    public GameServer(InetSocketAddress address, int boardWidth, int boardHeight, MoveJournal journal)
+            throws IOException {
+        this.serverSocket = new ServerSocket();
+        this.serverSocket.bind(address, 4096);
+        this.registry = new GameRegistry(boardWidth, boardHeight, journal);
+        this.connections = newThreadPerTaskExecutor("battleship-connection");
+        this.acceptor = new Thread(this::acceptConnections, "battleship-acceptor");
+        this.acceptor.setDaemon(true);
+        this.acceptor.start();
+    }
+
+    /**
+     * @return port the server is listening on.
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * @return number of games being hosted, including games still waiting for a second player.
+     */
+    public int getGameCount() {
+        return registry.size();
+    }
+
+    /**
+     * Accept connections until the server is closed, serving each on its own thread.
+     */
+    private void acceptConnections() {
+        SplittableRandom seeds = new SplittableRandom();
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                clients.add(socket);
+                if (serverSocket.isClosed()) {
+                    /* Accepted as the server closed, after close() had disconnected every other client. */
+                    socket.close();
+                    continue;
+                }
+
+                /* Replies are small and awaited one at a time, so never hold them back to fill a packet. */
+                socket.setTcpNoDelay(true);
+                ClientSession session = new ClientSession(socket, registry, seeds.nextLong());
+                connections.execute(() -> {
+                    try {
+                        session.run();
+                    } finally {
+                        clients.remove(socket);
+                    }
+                });
+            } catch (SocketException e) {
+                // Server socket closed.
+            } catch (IOException e) {
+                System.err.println("Failed to accept connection: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Stop accepting connections and disconnect every client.
+     * @throws IOException if the server socket fails to close.
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (Socket socket : clients) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Already gone; nothing more to disconnect.
+            }
+        }
+        connections.shutdownNow();
+        try {
+            connections.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Create an executor that runs every task on a new thread: a virtual thread when the runtime has them,
+     * or a daemon platform thread otherwise.
+     * @param name prefix for the names of platform threads.
+     * @return the new executor.
+     */
+    static ExecutorService newThreadPerTaskExecutor(String name) {
+        try {
+            /* Looked up by name, so this still builds for and runs on runtimes without virtual threads. */
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            ThreadFactory platformThreads = new ThreadFactory() {
+                private int created = 0;
+
+                @Override
+                public synchronized Thread newThread(Runnable task) {
+                    /* Blocking on sockets needs little stack. */
+                    Thread thread = new Thread(null, task, name + "-" + ++created, 256 * 1024);
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            };
+            return Executors.newCachedThreadPool(platformThreads);
+        }
+    }
+
+    /**
+     * Run a server until the process is stopped.
+     * @param args optional: port to listen on, defaulting to 7777, and a journal file to record games in.
+     * @throws IOException if the port cannot be listened on, or the journal cannot be opened.
+     * @throws InterruptedException if interrupted while serving.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 7777;
+        MoveJournal journal = args.length > 1 ? new MoveJournal(Path.of(args[1])) : null;
+        GameServer server = new GameServer(new InetSocketAddress(port), Board.DEFAULT_SIZE, Board.DEFAULT_SIZE,
+                journal);
+        System.out.println("Battleship server listening on port " + server.getPort());
+
+        /* Every server thread is a daemon, so keep the process alive for as long as connections are accepted. */
+        server.acceptor.join();
+    }
+}
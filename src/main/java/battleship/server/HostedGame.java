@@ -0,0 +1,276 @@
+package battleship.server;
+
+import battleship.Coordinate;
+import battleship.FleetGenerator;
+import battleship.Game;
+import battleship.GamePhase;
+import battleship.GuessResult;
+import battleship.MoveJournal;
+import battleship.Ship;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A game hosted by the server, with a seat for each of its two players.
+ * The game enforces turns itself; this adds what a remote game needs around it: both fleets must be placed
+ * before anyone fires, player one fires first, and players can wait for their turn. A player leaving ends
+ * the game. Waiting uses a Condition rather than a monitor, so waiting virtual threads release their carrier.
+ * Players that cannot block, such as those served from a selector, register a listener instead, which is
+ * run after every change.
+ */
+final class HostedGame {
+    private final long id;
+    private final Game game;
+    private final List<Integer> fleetLengths;
+    private final AtomicBoolean playerTwoJoined = new AtomicBoolean(false);
+    private final AtomicInteger playersSeated = new AtomicInteger(1);
+    private volatile boolean playerOneReady = false;
+    private volatile boolean playerTwoReady = false;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Initialises a new hosted game, with player one seated.
+     * @param id id of the game on its server.
+     * @param boardWidth horizontal size of each player's board.
+     * @param boardHeight vertical size of each player's board.
+     * @param journal journal to record the game in under its id, or null for none.
+     */
+    HostedGame(long id, int boardWidth, int boardHeight, MoveJournal journal) {
+        this.id = id;
+        this.game = new Game(boardWidth, boardHeight, true);
+        if (journal != null) {
+            game.setJournal(journal, id);
+        }
+        this.fleetLengths = sortedLengths(game.getAllShips(true));
+    }
+
+    /**
+     * @return id of the game on its server.
+     */
+    long getId() {
+        return id;
+    }
+
+    /**
+     * @return the game being hosted.
+     */
+    Game getGame() {
+        return game;
+    }
+
+    /**
+     * Seat player two, if nobody has taken the seat yet.
+     * @return true if seated, false if the seat was already taken.
+     */
+    boolean join() {
+        if (!playerTwoJoined.compareAndSet(false, true)) {
+            return false;
+        }
+
+        playersSeated.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Place a player's whole fleet, which must have the same ship lengths as the game's fleet.
+     * @param isPlayerOne true if player one is placing, false for player two.
+     * @param ships the ships to place; not null.
+     * @return true if placed, false if the fleet is wrong, overlaps, leaves the board, or is already placed.
+     */
+    boolean placeFleet(boolean isPlayerOne, List<Ship> ships) {
+        if (isReady(isPlayerOne) || !sortedLengths(ships).equals(fleetLengths) || !game.setFleet(isPlayerOne, ships)) {
+            return false;
+        }
+
+        if (isPlayerOne) {
+            playerOneReady = true;
+        } else {
+            playerTwoReady = true;
+        }
+        signal();
+        notifyListeners();
+
+        return true;
+    }
+
+    /**
+     * Place a random fleet for a player, with the game's ship lengths.
+     * @param isPlayerOne true if player one is placing, false for player two.
+     * @param random source of the fleet's layout.
+     * @return true if placed, false if the player's fleet is already placed or does not fit on the board.
+     */
+    boolean placeRandomFleet(boolean isPlayerOne, SplittableRandom random) {
+        List<Ship> ships;
+        try {
+            FleetGenerator fleets = new FleetGenerator(game.getBoardWidth(isPlayerOne), game.getBoardHeight(isPlayerOne),
+                    game.getAllShips(isPlayerOne), random.nextLong());
+            ships = fleets.nextShips();
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return false;
+        }
+
+        return placeFleet(isPlayerOne, ships);
+    }
+
+    /**
+     * Fire at the opponent's board.
+     * @param isPlayerOne true if player one is firing, false for player two.
+     * @param x horizontal position to fire at.
+     * @param y vertical position to fire at.
+     * @return result of the shot, or null if both fleets have not been placed yet.
+     */
+    GuessResult fire(boolean isPlayerOne, int x, int y) {
+        if (!playerOneReady || !playerTwoReady) {
+            return null;
+        } else if (!isPlayerOne && game.getPhase() == GamePhase.PREPARATION) {
+            return GuessResult.OUT_OF_TURN;
+        }
+
+        GuessResult result = game.guessLocation(isPlayerOne, new Coordinate(x, y));
+        if (result.isMiss() || result.isWin()) {
+            signal();
+        }
+        if (!result.isFail()) {
+            notifyListeners();
+        }
+
+        return result;
+    }
+
+    /**
+     * Wait until it is a player's turn to fire, or the game is over.
+     * @param isPlayerOne true if player one is waiting, false for player two.
+     * @param timeoutMillis longest time to wait.
+     * @return true if it is the player's turn, false if the game is over or the wait timed out.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    boolean awaitTurn(boolean isPlayerOne, long timeoutMillis) throws InterruptedException {
+        long remaining = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        lock.lock();
+        try {
+            while (!isTurn(isPlayerOne)) {
+                if (game.getPhase() == GamePhase.OVER || remaining <= 0) {
+                    return false;
+                }
+                remaining = changed.awaitNanos(remaining);
+            }
+
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Vacate a player's seat, ending the game if it is not already over.
+     * @return true if that left no players seated.
+     */
+    boolean leave() {
+        game.endGame();
+        signal();
+        notifyListeners();
+
+        return playersSeated.decrementAndGet() == 0;
+    }
+
+    /**
+     * @param isPlayerOne true if referring to player one, false for player two.
+     * @return true if the player has placed their fleet.
+     */
+    boolean isReady(boolean isPlayerOne) {
+        return isPlayerOne ? playerOneReady : playerTwoReady;
+    }
+
+    /**
+     * Check a player may fire now.
+     * @param isPlayerOne true if referring to player one, false for player two.
+     * @return true if both fleets are placed, the game is not over, and it is the player's turn.
+     */
+    boolean isTurn(boolean isPlayerOne) {
+        GamePhase phase = game.getPhase();
+        if (!playerOneReady || !playerTwoReady || phase == GamePhase.OVER) {
+            return false;
+        }
+
+        /* Player one always opens. */
+        return phase == GamePhase.PREPARATION ? isPlayerOne : game.isPlayerOneTurn() == isPlayerOne;
+    }
+
+    /**
+     * @return 1 or 2 for the player who sank every ship of the other's, or 0 if neither or both did.
+     */
+    int getWinner() {
+        switch (game.checkWinner()) {
+            case "Player 1":
+                return 1;
+            case "Player 2":
+                return 2;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Register a listener to be run, on whichever thread made the change, after every fleet placed, every
+     * shot that is not a fail, and every player leaving.
+     * @param listener the listener; must not block.
+     */
+    void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Stop running a listener.
+     * @param listener a listener added before.
+     */
+    void removeListener(Runnable listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Helper for running every listener.
+     */
+    private void notifyListeners() {
+        for (Runnable listener : listeners) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Helper for waking every waiting player to check again.
+     */
+    private void signal() {
+        lock.lock();
+        try {
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Helper for listing the lengths of a fleet's ships in order.
+     * @param ships the fleet; not null.
+     * @return the ships' lengths, shortest first.
+     */
+    private static List<Integer> sortedLengths(List<Ship> ships) {
+        List<Integer> lengths = new ArrayList<>(ships.size());
+        for (Ship ship : ships) {
+            lengths.add(ship.getShipLength());
+        }
+        Collections.sort(lengths);
+
+        return lengths;
+    }
+}
@@ -0,0 +1,103 @@
+package battleship.server;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts latencies in buckets fine enough to read percentiles to within 1%, from 1 microsecond up to
+ * 1000 seconds, in a fixed 50KB however many are recorded. Safe to record into from many threads.
+ */
+final class LatencyHistogram {
+    /* Below this many microseconds, every microsecond has its own bucket. */
+    private static final int EXACT_MICROS = 1000;
+    /* Each power of ten above that is split into this many buckets. */
+    private static final int BUCKETS_PER_DECADE = 900;
+    private static final int DECADES = 6;
+
+    private final AtomicLongArray counts = new AtomicLongArray(EXACT_MICROS + DECADES * BUCKETS_PER_DECADE);
+
+    /**
+     * Count one latency.
+     * @param nanos the latency in nanoseconds; negative values count as zero.
+     */
+    void record(long nanos) {
+        counts.incrementAndGet(bucketOf(Math.max(0, nanos / 1000)));
+    }
+
+    /**
+     * @return number of latencies counted.
+     */
+    long getCount() {
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            total += counts.get(i);
+        }
+
+        return total;
+    }
+
+    /**
+     * Get the latency within which a fraction of those counted fell.
+     * @param fraction fraction of latencies; between 0 and 1.
+     * @return upper bound of the bucket holding that percentile, in microseconds; 0 if none were counted.
+     */
+    long getPercentileMicros(double fraction) {
+        if (fraction < 0 || fraction > 1) {
+            throw new IllegalArgumentException("Fraction must be between 0 and 1.");
+        }
+
+        long target = Math.max(1, (long) Math.ceil(fraction * getCount()));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return upperBoundOf(i);
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * Helper for finding the bucket a latency falls in.
+     * @param micros the latency in microseconds; not negative.
+     * @return index of its bucket.
+     */
+    private static int bucketOf(long micros) {
+        if (micros < EXACT_MICROS) {
+            return (int) micros;
+        }
+
+        /* Keep three significant digits: scale down to between 100 and 999. */
+        int decade = 0;
+        long scaled = micros;
+        while (scaled >= EXACT_MICROS && decade < DECADES) {
+            scaled /= 10;
+            decade++;
+        }
+        if (scaled >= EXACT_MICROS) {
+            return EXACT_MICROS + DECADES * BUCKETS_PER_DECADE - 1;
+        }
+
+        return EXACT_MICROS + (decade - 1) * BUCKETS_PER_DECADE + (int) (scaled - EXACT_MICROS / 10);
+    }
+
+    /**
+     * Helper for finding the largest latency a bucket holds.
+     * @param bucket index of the bucket.
+     * @return the bucket's upper bound in microseconds.
+     */
+    private static long upperBoundOf(int bucket) {
+        if (bucket < EXACT_MICROS) {
+            return bucket;
+        }
+
+        int decade = (bucket - EXACT_MICROS) / BUCKETS_PER_DECADE + 1;
+        long scaled = (bucket - EXACT_MICROS) % BUCKETS_PER_DECADE + EXACT_MICROS / 10;
+        long unit = 1;
+        for (int i = 0; i < decade; i++) {
+            unit *= 10;
+        }
+
+        return (scaled + 1) * unit - 1;
+    }
+}
@@ -0,0 +1,416 @@
+package battleship.server;
+
+import battleship.Board;
+import battleship.GuessOutcome;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Plays many games at once against a GameServer or BinaryServer over real sockets, and reports how many
+ * shots the server answered per second and how long the answers took.
+ * Each game has its own thread driving both players' connections: it creates and joins the game, places
+ * random fleets, then fires at cells in a random order, switching player on every miss, until one side wins.
+ */
+public class LoadClient {
+    private final InetSocketAddress server;
+    private final boolean isBinary;
+    private final int boardWidth;
+    private final int boardHeight;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final AtomicLong shots = new AtomicLong();
+
+    /**
+     * Initialises a new client for a server hosting games on the default board size.
+     * @param server address of the server; not null.
+     * @param isBinary true if the server is a BinaryServer, false for a GameServer.
+     */
+    public LoadClient(InetSocketAddress server, boolean isBinary) {
+        this(server, isBinary, Board.DEFAULT_SIZE, Board.DEFAULT_SIZE);
+    }
+
+    /**
+     * Initialises a new client.
+     * @param server address of the server; not null.
+     * @param isBinary true if the server is a BinaryServer, false for a GameServer.
+     * @param boardWidth horizontal size of each player's board in the server's games.
+     * @param boardHeight vertical size of each player's board in the server's games.
+     */
+    public LoadClient(InetSocketAddress server, boolean isBinary, int boardWidth, int boardHeight) {
+        this.server = server;
+        this.isBinary = isBinary;
+        this.boardWidth = boardWidth;
+        this.boardHeight = boardHeight;
+    }
+
+    /**
+     * Play games until done, keeping a number of them going at once.
+     * @param concurrentGames number of games in play at any time; positive.
+     * @param gamesEach number of games each of those plays one after another; positive.
+     * @param seed seed for the order cells are fired at.
+     * @return a report of shots per second and shot latency percentiles.
+     */
+    public String run(int concurrentGames, int gamesEach, long seed) {
+        if (concurrentGames <= 0 || gamesEach <= 0) {
+            throw new IllegalArgumentException("Number of games must be positive.");
+        }
+
+        SplittableRandom seeds = new SplittableRandom(seed);
+        ExecutorService executor = GameServer.newThreadPerTaskExecutor("battleship-load");
+        List<Future<?>> futures = new ArrayList<>(concurrentGames);
+        long start = System.nanoTime();
+
+        try {
+            for (int g = 0; g < concurrentGames; g++) {
+                SplittableRandom random = seeds.split();
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < gamesEach; i++) {
+                        playGame(random);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Load test interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Load test game failed.", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return String.format("Games:        %d (%d at once)%n", (long) concurrentGames * gamesEach, concurrentGames)
+                + String.format("Shots:        %d%n", shots.get())
+                + String.format("Shots/second: %.0f%n", shots.get() / seconds)
+                + String.format("Latency (us): p50 %d, p99 %d, p99.9 %d, max %d%n",
+                        latencies.getPercentileMicros(0.5), latencies.getPercentileMicros(0.99),
+                        latencies.getPercentileMicros(0.999), latencies.getPercentileMicros(1));
+    }
+
+    /**
+     * Play one game to the end, as both players.
+     * @param random source of the order cells are fired at.
+     * @throws IOException if either connection fails or the server replies unexpectedly.
+     */
+    private void playGame(SplittableRandom random) throws IOException {
+        try (Player one = connect(); Player two = connect()) {
+            two.join(one.create());
+            one.placeRandomFleet();
+            two.placeRandomFleet();
+
+            int[][] targets = {shuffledCells(random), shuffledCells(random)};
+            int[] fired = new int[2];
+            int shooter = 0;
+            while (true) {
+                int cell = targets[shooter][fired[shooter]++];
+
+                long sent = System.nanoTime();
+                GuessOutcome outcome = (shooter == 0 ? one : two).fire(cell % boardWidth, cell / boardWidth);
+                latencies.record(System.nanoTime() - sent);
+                shots.incrementAndGet();
+
+                if (outcome == GuessOutcome.WIN) {
+                    break;
+                } else if (outcome == GuessOutcome.MISS) {
+                    shooter = 1 - shooter;
+                } else if (outcome != GuessOutcome.HIT && outcome != GuessOutcome.SUNK) {
+                    throw new IOException("Unexpected result of a shot: " + outcome);
+                }
+            }
+
+            one.quit();
+            two.quit();
+        }
+    }
+
+    /**
+     * Helper for connecting a player to the server.
+     * @return the connected player.
+     * @throws IOException if the connection fails.
+     */
+    private Player connect() throws IOException {
+        return isBinary ? new BinaryPlayer(server) : new TextPlayer(server);
+    }
+
+    /**
+     * Helper for ordering every cell of a board randomly.
+     * @param random source of the order.
+     * @return every cell, numbered across then down, in a random order.
+     */
+    private int[] shuffledCells(SplittableRandom random) {
+        int[] cells = new int[boardWidth * boardHeight];
+        for (int i = 0; i < cells.length; i++) {
+            int j = random.nextInt(i + 1);
+            cells[i] = cells[j];
+            cells[j] = i;
+        }
+
+        return cells;
+    }
+
+    /**
+     * One player's connection to the server, in whichever protocol it speaks.
+     */
+    private interface Player extends AutoCloseable {
+        /**
+         * @return id of a new game, created with this player seated as player one.
+         */
+        long create() throws IOException;
+
+        /**
+         * @param id id of the game to join as player two.
+         */
+        void join(long id) throws IOException;
+
+        void placeRandomFleet() throws IOException;
+
+        /**
+         * @param x horizontal position to fire at.
+         * @param y vertical position to fire at.
+         * @return outcome of the shot.
+         */
+        GuessOutcome fire(int x, int y) throws IOException;
+
+        void quit() throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    /**
+     * A player speaking GameServer's line protocol.
+     */
+    private static final class TextPlayer implements Player {
+        private final Socket socket;
+        private final BufferedReader in;
+        private final Writer out;
+
+        TextPlayer(InetSocketAddress server) throws IOException {
+            this.socket = new Socket();
+            this.socket.setTcpNoDelay(true);
+            this.socket.connect(server);
+            this.in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            this.out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII));
+        }
+
+        @Override
+        public long create() throws IOException {
+            return Long.parseLong(expect("NEW", "GAME ").split(" ")[1]);
+        }
+
+        @Override
+        public void join(long id) throws IOException {
+            expect("JOIN " + id, "GAME ");
+        }
+
+        @Override
+        public void placeRandomFleet() throws IOException {
+            expect("RANDOM", "OK");
+        }
+
+        @Override
+        public GuessOutcome fire(int x, int y) throws IOException {
+            String reply = send("FIRE " + x + " " + y);
+            try {
+                return GuessOutcome.valueOf(reply.split(" ")[0]);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Unexpected reply to a shot: " + reply);
+            }
+        }
+
+        @Override
+        public void quit() throws IOException {
+            send("QUIT");
+        }
+
+        /**
+         * Send a command and wait for its reply.
+         * @param command the command, without its line ending.
+         * @return the reply, without its line ending.
+         * @throws IOException if the connection fails or closes.
+         */
+        private String send(String command) throws IOException {
+            out.write(command);
+            out.write('\n');
+            out.flush();
+
+            String reply = in.readLine();
+            if (reply == null) {
+                throw new IOException("Server closed the connection.");
+            }
+            return reply;
+        }
+
+        /**
+         * Send a command and check its reply.
+         * @param command the command, without its line ending.
+         * @param expected what the reply must start with.
+         * @return the reply, without its line ending.
+         * @throws IOException if the connection fails or the reply is not as expected.
+         */
+        private String expect(String command, String expected) throws IOException {
+            String reply = send(command);
+            if (!reply.startsWith(expected)) {
+                throw new IOException("Unexpected reply to " + command + ": " + reply);
+            }
+            return reply;
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    /**
+     * A player speaking BinaryServer's frames over a blocking channel, skipping frames the server pushes.
+     */
+    private static final class BinaryPlayer implements Player {
+        private final SocketChannel channel;
+        private final ByteBuffer out = ByteBuffer.allocateDirect(64);
+        private final ByteBuffer in = ByteBuffer.allocateDirect(4096);
+        /* Where the last reply ends, so what its caller left unread is skipped. */
+        private int replyEnd = 0;
+
+        BinaryPlayer(InetSocketAddress server) throws IOException {
+            this.channel = SocketChannel.open();
+            this.channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            this.channel.connect(server);
+            this.in.flip();
+        }
+
+        @Override
+        public long create() throws IOException {
+            out.put(BinaryProtocol.NEW);
+            return expect(BinaryProtocol.GAME).getLong();
+        }
+
+        @Override
+        public void join(long id) throws IOException {
+            out.put(BinaryProtocol.JOIN).putLong(id);
+            expect(BinaryProtocol.GAME);
+        }
+
+        @Override
+        public void placeRandomFleet() throws IOException {
+            out.put(BinaryProtocol.RANDOM);
+            expect(BinaryProtocol.OK);
+        }
+
+        @Override
+        public GuessOutcome fire(int x, int y) throws IOException {
+            out.put(BinaryProtocol.FIRE).putInt(BinaryProtocol.pack(x, y));
+            return GuessOutcome.values()[expect(BinaryProtocol.RESULT).get()];
+        }
+
+        @Override
+        public void quit() throws IOException {
+            out.put(BinaryProtocol.QUIT);
+            expect(BinaryProtocol.BYE);
+        }
+
+        /**
+         * Send the request written to the output buffer, and wait for its reply.
+         * @param expected opcode the reply must have.
+         * @return the input buffer, positioned at the reply's payload.
+         * @throws IOException if the connection fails or the reply is not as expected.
+         */
+        private ByteBuffer expect(byte expected) throws IOException {
+            out.flip();
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+            out.clear();
+
+            in.position(replyEnd);
+            while (true) {
+                byte opcode = nextFrame();
+                if (opcode == expected) {
+                    replyEnd = in.position() + BinaryProtocol.replyLength(opcode) - 1;
+                    return in;
+                } else if (opcode != BinaryProtocol.EVENT && opcode != BinaryProtocol.TURN
+                        && opcode != BinaryProtocol.OVER) {
+                    throw new IOException("Unexpected reply frame " + opcode + ", expected " + expected);
+                }
+                in.position(in.position() + BinaryProtocol.replyLength(opcode) - 1);
+            }
+        }
+
+        /**
+         * Helper for reading until a whole frame has arrived.
+         * @return the frame's opcode, with the input buffer positioned at its payload.
+         * @throws IOException if the connection fails or closes, or the opcode is unknown.
+         */
+        private byte nextFrame() throws IOException {
+            while (!in.hasRemaining() || in.remaining() < BinaryProtocol.replyLength(in.get(in.position()))) {
+                if (in.hasRemaining() && BinaryProtocol.replyLength(in.get(in.position())) < 0) {
+                    throw new IOException("Unknown frame " + in.get(in.position()));
+                }
+                in.compact();
+                int read = channel.read(in);
+                in.flip();
+                if (read < 0) {
+                    throw new IOException("Server closed the connection.");
+                }
+            }
+
+            return in.get();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Run a load test from the command line and print its report. Without a port, a server is started
+     * in this process for the test.
+     * @param args optional: games at once, games each plays in turn, protocol ("text" or "binary"), server
+     *             port, server host.
+     * @throws IOException if the in-process server cannot be started.
+     */
+    public static void main(String[] args) throws IOException {
+        int concurrentGames = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int gamesEach = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        boolean isBinary = args.length > 2 && args[2].equals("binary");
+
+        if (args.length > 3) {
+            String host = args.length > 4 ? args[4] : "localhost";
+            InetSocketAddress server = new InetSocketAddress(host, Integer.parseInt(args[3]));
+            System.out.print(new LoadClient(server, isBinary).run(concurrentGames, gamesEach, System.nanoTime()));
+        } else if (isBinary) {
+            try (BinaryServer server = new BinaryServer(0)) {
+                InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort());
+                System.out.print(new LoadClient(address, true).run(concurrentGames, gamesEach, System.nanoTime()));
+            }
+        } else {
+            try (GameServer server = new GameServer(0)) {
+                InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort());
+                System.out.print(new LoadClient(address, false).run(concurrentGames, gamesEach, System.nanoTime()));
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package battleship.sim;
+
+/**
+ * Totals from a batch of simulated games: who won, how many shots each win took, and how fast they ran.
+ */
+public class SimulationResult {
+    private final long games;
+    private final long playerOneWins;
+    private final long playerTwoWins;
+    private final long[] shotsToWin;
+    private final long elapsedNanos;
+
+    /**
+     * Initialises a new result.
+     * @param games number of games played.
+     * @param playerOneWins number of games won by player one.
+     * @param playerTwoWins number of games won by player two.
+     * @param shotsToWin histogram of wins, indexed by the number of shots the winner took; not null.
+     * @param elapsedNanos wall-clock time taken to play every game.
+     */
+    SimulationResult(long games, long playerOneWins, long playerTwoWins, long[] shotsToWin, long elapsedNanos) {
+        this.games = games;
+        this.playerOneWins = playerOneWins;
+        this.playerTwoWins = playerTwoWins;
+        this.shotsToWin = shotsToWin;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return number of games played.
+     */
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * @param isPlayerOne true if referring to first player, false for second player.
+     * @return number of games won by the specified player.
+     */
+    public long getWins(boolean isPlayerOne) {
+        return isPlayerOne ? playerOneWins : playerTwoWins;
+    }
+
+    /**
+     * @param isPlayerOne true if referring to first player, false for second player.
+     * @return fraction of games won by the specified player, between 0 and 1.
+     */
+    public double getWinRate(boolean isPlayerOne) {
+        return games == 0 ? 0 : (double) getWins(isPlayerOne) / games;
+    }
+
+    /**
+     * Get the number of wins that took a given number of shots.
+     * @param shots number of shots the winner took.
+     * @return number of wins that took exactly that many shots.
+     */
+    public long getWinsInShots(int shots) {
+        return shots >= 0 && shots < shotsToWin.length ? shotsToWin[shots] : 0;
+    }
+
+    /**
+     * @return the most shots any win could take, which is the number of cells on a board.
+     */
+    public int getMaxShots() {
+        return shotsToWin.length - 1;
+    }
+
+    /**
+     * @return mean number of shots the winner took, over every game.
+     */
+    public double getMeanShotsToWin() {
+        long total = 0;
+        for (int shots = 0; shots < shotsToWin.length; shots++) {
+            total += shots * shotsToWin[shots];
+        }
+
+        return games == 0 ? 0 : (double) total / games;
+    }
+
+    /**
+     * Get the number of shots within which a fraction of wins were made.
+     * @param fraction fraction of wins; between 0 and 1.
+     * @return least number of shots that at least that fraction of wins took no more than.
+     */
+    public int getShotsToWinPercentile(double fraction) {
+        if (fraction < 0 || fraction > 1) {
+            throw new IllegalArgumentException("Fraction must be between 0 and 1.");
+        }
+
+        long target = (long) Math.ceil(fraction * games);
+        long seen = 0;
+        for (int shots = 0; shots < shotsToWin.length; shots++) {
+            seen += shotsToWin[shots];
+            if (seen >= target && seen > 0) {
+                return shots;
+            }
+        }
+
+        return getMaxShots();
+    }
+
+    /**
+     * @return wall-clock seconds taken to play every game.
+     */
+    public double getElapsedSeconds() {
+        return elapsedNanos / 1e9;
+    }
+
+    /**
+     * @return games played per second of wall-clock time.
+     */
+    public double getGamesPerSecond() {
+        return games / Math.max(getElapsedSeconds(), 1e-9);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%d games in %.2fs (%.0f games/sec)%n", games, getElapsedSeconds(), getGamesPerSecond()));
+        report.append(String.format("Player 1 wins: %d (%.1f%%)%n", playerOneWins, 100 * getWinRate(true)));
+        report.append(String.format("Player 2 wins: %d (%.1f%%)%n", playerTwoWins, 100 * getWinRate(false)));
+        report.append(String.format("Shots to win: mean %.2f, median %d, p90 %d, p99 %d%n", getMeanShotsToWin(),
+                getShotsToWinPercentile(0.5), getShotsToWinPercentile(0.9), getShotsToWinPercentile(0.99)));
+
+        long mostWins = 0;
+        for (long wins : shotsToWin) {
+            mostWins = Math.max(mostWins, wins);
+        }
+
+        for (int shots = 0; shots < shotsToWin.length; shots++) {
+            if (shotsToWin[shots] > 0) {
+                int bar = (int) Math.max(1, 50 * shotsToWin[shots] / mostWins);
+                report.append(String.format("%4d | %-50s %d%n", shots, "#".repeat(bar), shotsToWin[shots]));
+            }
+        }
+
+        return report.toString();
+    }
+}
@@ -0,0 +1,208 @@
+package battleship.sim;
+
+import battleship.Board;
+import battleship.ComputerPlayer;
+import battleship.FleetGenerator;
+import battleship.Game;
+import battleship.GuessResult;
+import battleship.MonteCarloTargeter;
+import battleship.TargetingAI;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Plays computer players against each other in Games without any UI, across many threads, and reports
+ * how often each side wins and how many shots wins take.
+ * Games follow the same rules as the app, with turns enforced by the game: a player keeps shooting
+ * until they miss, and the first to sink every ship wins. The starting player alternates from game to game, so neither side gets
+ * the first shot more often.
+ */
+public class SimulationRunner {
+    private final int boardWidth;
+    private final int boardHeight;
+    private final Strategy playerOne;
+    private final Strategy playerTwo;
+
+    /**
+     * Creates a computer player for one side of a game.
+     */
+    @FunctionalInterface
+    public interface Strategy {
+        /**
+         * @param game the game to play in.
+         * @param isPlayerOne true if the player plays as player one, false for player two.
+         * @param seed seed for any randomness the player uses.
+         * @return a new player for that side of the game.
+         */
+        ComputerPlayer create(Game game, boolean isPlayerOne, long seed);
+    }
+
+    /**
+     * Initialises a new runner for the default board size.
+     * @param playerOne strategy for player one; not null.
+     * @param playerTwo strategy for player two; not null.
+     */
+    public SimulationRunner(Strategy playerOne, Strategy playerTwo) {
+        this(Board.DEFAULT_SIZE, Board.DEFAULT_SIZE, playerOne, playerTwo);
+    }
+
+    /**
+     * Initialises a new runner.
+     * @param boardWidth horizontal size of each player's board.
+     * @param boardHeight vertical size of each player's board.
+     * @param playerOne strategy for player one; not null.
+     * @param playerTwo strategy for player two; not null.
+     */
+    public SimulationRunner(int boardWidth, int boardHeight, Strategy playerOne, Strategy playerTwo) {
+        if ((long) boardWidth * boardHeight >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Board area too large to simulate.");
+        }
+
+        this.boardWidth = boardWidth;
+        this.boardHeight = boardHeight;
+        this.playerOne = playerOne;
+        this.playerTwo = playerTwo;
+    }
+
+    /**
+     * Play a batch of games, spread over a number of threads.
+     * @param games number of games to play; not negative.
+     * @param threads number of threads to play on; positive.
+     * @param seed seed for fleets and players; the same seed gives the same games on one thread.
+     * @return totals from every game played.
+     */
+    public SimulationResult run(long games, int threads, long seed) {
+        if (games < 0) {
+            throw new IllegalArgumentException("Number of games cannot be negative.");
+        } else if (threads <= 0) {
+            throw new IllegalArgumentException("Number of threads must be positive.");
+        }
+
+        AtomicLong nextGame = new AtomicLong();
+        SplittableRandom seeds = new SplittableRandom(seed);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Worker>> futures = new ArrayList<>(threads);
+        long start = System.nanoTime();
+
+        try {
+            for (int t = 0; t < threads; t++) {
+                Worker worker = new Worker(seeds.split());
+                futures.add(executor.submit(() -> worker.playUntilDone(nextGame, games)));
+            }
+
+            long playerOneWins = 0;
+            long playerTwoWins = 0;
+            long[] shotsToWin = new long[boardWidth * boardHeight + 1];
+            for (Future<Worker> future : futures) {
+                Worker worker = future.get();
+                playerOneWins += worker.playerOneWins;
+                playerTwoWins += worker.playerTwoWins;
+                for (int shots = 0; shots < shotsToWin.length; shots++) {
+                    shotsToWin[shots] += worker.shotsToWin[shots];
+                }
+            }
+
+            return new SimulationResult(games, playerOneWins, playerTwoWins, shotsToWin, System.nanoTime() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulation interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Simulated game failed.", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Plays games on one thread, keeping its own totals until they are merged.
+     */
+    private final class Worker {
+        private final SplittableRandom random;
+        private final FleetGenerator fleets;
+        private final long[] shotsToWin = new long[boardWidth * boardHeight + 1];
+        private long playerOneWins = 0;
+        private long playerTwoWins = 0;
+
+        Worker(SplittableRandom random) {
+            this.random = random;
+            this.fleets = new FleetGenerator(boardWidth, boardHeight, Game.DEFAULT_SHIPS, random.nextLong());
+        }
+
+        Worker playUntilDone(AtomicLong nextGame, long games) {
+            for (long game = nextGame.getAndIncrement(); game < games; game = nextGame.getAndIncrement()) {
+                playGame(game % 2 == 0);
+            }
+
+            return this;
+        }
+
+        private void playGame(boolean playerOneStarts) {
+            Game game = new Game(boardWidth, boardHeight, true);
+            if (!game.setFleet(true, fleets.nextShips()) || !game.setFleet(false, fleets.nextShips())) {
+                throw new IllegalStateException("Generated fleet could not be placed.");
+            }
+
+            ComputerPlayer one = playerOne.create(game, true, random.nextLong());
+            ComputerPlayer two = playerTwo.create(game, false, random.nextLong());
+            boolean isPlayerOneTurn = playerOneStarts;
+            int[] shots = new int[2];
+
+            while (true) {
+                GuessResult result = (isPlayerOneTurn ? one : two).takeShot();
+                shots[isPlayerOneTurn ? 0 : 1]++;
+
+                if (result.isWin()) {
+                    break;
+                } else if (result.isFail()) {
+                    throw new IllegalStateException("Player made an invalid shot: " + result);
+                } else if (!result.isHit()) {
+                    isPlayerOneTurn = !isPlayerOneTurn;
+                }
+            }
+
+            if (isPlayerOneTurn) {
+                playerOneWins++;
+            } else {
+                playerTwoWins++;
+            }
+            shotsToWin[shots[isPlayerOneTurn ? 0 : 1]]++;
+        }
+    }
+
+    /**
+     * Get a built-in strategy by name.
+     * @param name "density" for TargetingAI, or "montecarlo" for MonteCarloTargeter.
+     * @return the named strategy.
+     */
+    public static Strategy strategyNamed(String name) {
+        switch (name) {
+            case "density":
+                return TargetingAI::new;
+            case "montecarlo":
+                return MonteCarloTargeter::new;
+            default:
+                throw new IllegalArgumentException("Unknown strategy: " + name);
+        }
+    }
+
+    /**
+     * Run a simulation from the command line and print its report.
+     * @param args optional: number of games, number of threads, player one's strategy, player two's strategy.
+     */
+    public static void main(String[] args) {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 100_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        Strategy playerOne = strategyNamed(args.length > 2 ? args[2] : "density");
+        Strategy playerTwo = strategyNamed(args.length > 3 ? args[3] : "density");
+
+        SimulationRunner runner = new SimulationRunner(playerOne, playerTwo);
+        System.out.print(runner.run(games, threads, System.nanoTime()));
+    }
+}
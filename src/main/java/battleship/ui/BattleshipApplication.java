@@ -1,6 +1,11 @@
 package battleship.ui;
 
+import battleship.Board;
+import battleship.FleetGenerator;
 import battleship.Game;
+import battleship.GamePhase;
+import battleship.GuessResult;
+import battleship.TargetingAI;
 import javafx.application.Application;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
@@ -17,6 +22,7 @@ public class BattleshipApplication extends Application {
     private Scene activeScene;
     private PlayerView playerOne;
     private PlayerView playerTwo;
+    private TargetingAI computerOpponent;
     private final MainMenuView mainMenu = new MainMenuView(this);
     private boolean isPlayerOneTurn;
 
@@ -49,9 +55,29 @@ public class BattleshipApplication extends Application {
     }
 
     void beginNewGame() {
-        currentGame = new Game();
+        currentGame = new Game(Board.DEFAULT_SIZE, Board.DEFAULT_SIZE, true);
         playerOne = new PlayerView(this, currentGame, true);
         playerTwo = new PlayerView(this, currentGame, false);
+        computerOpponent = null;
+        isPlayerOneTurn = true;
+
+        switchScene(playerOne.getPlayerView());
+    }
+
+    /**
+     * Begin a game against the computer, which plays as player two.
+     */
+    void beginSinglePlayerGame() {
+        currentGame = new Game(Board.DEFAULT_SIZE, Board.DEFAULT_SIZE, true);
+        playerOne = new PlayerView(this, currentGame, true);
+        playerTwo = null;
+        isPlayerOneTurn = true;
+
+        long seed = System.nanoTime();
+        FleetGenerator fleetGenerator = new FleetGenerator(currentGame.getBoardWidth(false),
+                currentGame.getBoardHeight(false), currentGame.getAllShips(false), seed);
+        currentGame.setFleet(false, fleetGenerator.nextShips());
+        computerOpponent = new TargetingAI(currentGame, false, seed);
 
         switchScene(playerOne.getPlayerView());
     }
@@ -62,10 +88,33 @@ public class BattleshipApplication extends Application {
     }
 
     public void switchPlayer() {
+        if (computerOpponent != null) {
+            playComputerTurn();
+            return;
+        }
+
         isPlayerOneTurn = !isPlayerOneTurn;
         switchScene(isPlayerOneTurn ? playerOne.getPlayerView() : playerTwo.getPlayerView());
     }
 
+    /**
+     * Let the computer take its turn, if player one has begun shooting, then hand back to player one.
+     */
+    private void playComputerTurn() {
+        /* Player one switches away once after placing ships, before anyone has fired. */
+        if (currentGame.getPhase() == GamePhase.PLAYING) {
+            GuessResult result = computerOpponent.takeTurn();
+
+            if (result.isWin()) {
+                currentGame.endGame();
+                gameOver();
+                return;
+            }
+        }
+
+        switchScene(playerOne.getPlayerView());
+    }
+
     public void gameOver() {
         VBox endMenu = new VBox();
         endMenu.getStyleClass().add("end-menu");
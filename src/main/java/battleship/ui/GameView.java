@@ -14,13 +14,13 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.Flow;
 
 public class GameView {
     private final Game game;
     private final boolean isPlayerOne;
-    private int lastUpdatedEventNum = 0;
-    private final Map<Coordinate, Button> activePlayerButtons = new HashMap<>();
-    private final Map<Coordinate, Button> enemyPlayerButtons = new HashMap<>();
+    private final Map<Position, Button> activePlayerButtons = new HashMap<>();
+    private final Map<Position, Button> enemyPlayerButtons = new HashMap<>();
     private GridPane activePlayerGrid = null;
     private GridPane enemyPlayerGrid = null;
     private boolean takeInput; // for disabling buttons, potentially change this.
@@ -37,8 +37,8 @@ public class GameView {
         if (activePlayerGrid == null || enemyPlayerGrid == null) {
             activePlayerGrid = getPlayerGrid(true);
             enemyPlayerGrid = getPlayerGrid(false);
+            game.subscribeToLog(new GridUpdater(), 0);
         }
-        updatePlayerGrid();
         takeInput = true;
 
         HBox grids = new HBox();
@@ -73,14 +73,19 @@ public class GameView {
         boolean getPlayerOne = isCurrentPlayer == isPlayerOne;
         GridPane playerGrid = new GridPane();
 
+        int boardWidth = game.getBoardWidth(getPlayerOne);
+        int boardHeight = game.getBoardHeight(getPlayerOne);
+
         /* Create player board grid, borrowed from PreparationView. */
-        for (int i = 0; i < Board.DEFAULT_SIZE; i++) {
+        for (int i = 0; i < boardWidth; i++) {
             playerGrid.getColumnConstraints().add(new ColumnConstraints(GRID_CELL_SIZE));
-            playerGrid.getRowConstraints().add(new RowConstraints(50));
+        }
+        for (int i = 0; i < boardHeight; i++) {
+            playerGrid.getRowConstraints().add(new RowConstraints(GRID_CELL_SIZE));
         }
 
         /* Set letter and number labels on side of player grid. */
-        for (int i = 0; i < game.getBoardWidth(getPlayerOne) + 1; i++) {
+        for (int i = 0; i < Math.max(boardWidth, boardHeight) + 1; i++) {
             Label letterLabel = new Label(i > 0 && i < 27 ? String.valueOf((char) (i + 64)) : "*");
             Label numberLabel = new Label(i > 0 ? Integer.toString(i) : "*");
             letterLabel.getStyleClass().add("grid-label");
@@ -95,17 +100,21 @@ public class GameView {
             numberLabel.setPrefHeight(GRID_CELL_SIZE);
             numberLabel.setAlignment(Pos.CENTER);
 
-            if (i != 0) {
-                playerGrid.add(letterLabel, i, 0);
-                playerGrid.add(numberLabel, 0, i);
-            } else {
+            if (i == 0) {
                 playerGrid.add(letterLabel, i, i);
+            } else {
+                if (i <= boardWidth) {
+                    playerGrid.add(letterLabel, i, 0);
+                }
+                if (i <= boardHeight) {
+                    playerGrid.add(numberLabel, 0, i);
+                }
             }
         }
 
         /* Add buttons to player grid. */
-        for (int y = 0; y < game.getBoardHeight(getPlayerOne); y++) {
-            for (int x = 0; x < game.getBoardWidth(getPlayerOne); x++) {
+        for (int y = 0; y < boardHeight; y++) {
+            for (int x = 0; x < boardWidth; x++) {
 
                 Button button = new Button();
                 button.setPrefSize(GRID_CELL_SIZE, GRID_CELL_SIZE);
@@ -114,9 +123,9 @@ public class GameView {
                 playerGrid.add(button, x + 1, y + 1);
 
                 if (isCurrentPlayer) {
-                    activePlayerButtons.put(new Coordinate(x + 1, y + 1), button);
+                    activePlayerButtons.put(Position.of(x + 1, y + 1), button);
                 } else {
-                    enemyPlayerButtons.put(new Coordinate(x + 1, y + 1), button);
+                    enemyPlayerButtons.put(Position.of(x + 1, y + 1), button);
                     // On action, should count as a guess...
                     button.setOnAction((event) -> {
                         if (takeInput)
@@ -129,7 +138,7 @@ public class GameView {
         int shipNum = 1;
         for (Ship s : game.getPlacedShips(isPlayerOne)) {
             for (Coordinate c : s.getCoordinates()) {
-                Button shipButton = activePlayerButtons.get(new Coordinate(c.getX() + 1, c.getY() + 1));
+                Button shipButton = activePlayerButtons.get(Position.of(c.getX() + 1, c.getY() + 1));
                 shipButton.setText("S" + shipNum);
                 shipButton.getStyleClass().add("placed-ship");
             }
@@ -139,52 +148,78 @@ public class GameView {
         return playerGrid;
     }
 
-    private void updatePlayerGrid() {
-        List<GameEvent> newEvents = game.getNewEvents(lastUpdatedEventNum);
-        if (newEvents.size() > 0) {
-            lastUpdatedEventNum = newEvents.get(newEvents.size() - 1).getEventNum();
-
-            for (GameEvent event : newEvents) {
-                Coordinate coordBoard = event.getCoordinate();
-                Coordinate coordGrid = new Coordinate(coordBoard.getX() + 1, coordBoard.getY() + 1); // add one from labels on side.
-                GameEventType eventType = event.getEventType();
-                boolean isAttackingPlayerOne = event.getAttacker();
-
-                // Determine which board this goes on...
-                // If attacking player matches player one, then active player was the attacker...
-                Button impactedButton;
-                if (isAttackingPlayerOne == isPlayerOne) {
-                    impactedButton = enemyPlayerButtons.get(coordGrid);
-                } else { // else, active player is victim...
-                    impactedButton = activePlayerButtons.get(coordGrid);
-                }
+    /**
+     * Show an event on whichever grid it happened on.
+     * @param event cursor on the event to show.
+     */
+    private void showEvent(EventLog.Cursor event) {
+        GameEventType eventType = event.getEventType();
+        if (eventType == GameEventType.FAIL) {
+            return;
+        }
+
+        Position coordGrid = Position.of(event.getX() + 1, event.getY() + 1); // add one from labels on side.
+        boolean isAttackingPlayerOne = event.isPlayerOneAttacker();
+
+        // Determine which board this goes on...
+        // If attacking player matches player one, then active player was the attacker...
+        Button impactedButton;
+        if (isAttackingPlayerOne == isPlayerOne) {
+            impactedButton = enemyPlayerButtons.get(coordGrid);
+        } else { // else, active player is victim...
+            impactedButton = activePlayerButtons.get(coordGrid);
+        }
 
-                if (eventType == GameEventType.HIT) {
-                    if (event.getExtraInfo().contains("sunk")) {
-                        List<Coordinate> sunkCoords = game.getAssociatedShipCoords(event.getVictim(), coordBoard.getX(), coordBoard.getY());
-
-                        for (Coordinate coord : sunkCoords) {
-                            Button sunkButton;
-                            Coordinate coordOnGrid = new Coordinate(coord.getX() + 1, coord.getY() + 1);
-
-                            if (isAttackingPlayerOne == isPlayerOne) {
-                                sunkButton = enemyPlayerButtons.get(coordOnGrid);
-                            } else { // else, active player is victim...
-                                sunkButton = activePlayerButtons.get(coordOnGrid);
-                            }
-
-                            sunkButton.getStyleClass().add("sunk-ship-cell");
-                            sunkButton.setText("\uD83D\uDC80");
-                        }
-                    } else {
-                        impactedButton.getStyleClass().add("hit-cell");
-                        impactedButton.setText("✖");
+        if (eventType == GameEventType.HIT) {
+            if (event.getSunkShipId() != GuessResult.NO_SHIP) {
+                List<Cell> sunkCells = game.getAssociatedShipCells(!isAttackingPlayerOne, event.getX(), event.getY());
+
+                for (Cell coord : sunkCells) {
+                    Button sunkButton;
+                    Position coordOnGrid = Position.of(coord.getX() + 1, coord.getY() + 1);
+
+                    if (isAttackingPlayerOne == isPlayerOne) {
+                        sunkButton = enemyPlayerButtons.get(coordOnGrid);
+                    } else { // else, active player is victim...
+                        sunkButton = activePlayerButtons.get(coordOnGrid);
                     }
-                } else if (eventType == GameEventType.MISS) {
-                    impactedButton.getStyleClass().add("miss-cell");
-                    impactedButton.setText("\uD83C\uDF0A");
+
+                    sunkButton.getStyleClass().add("sunk-ship-cell");
+                    sunkButton.setText("\uD83D\uDC80");
                 }
+            } else {
+                impactedButton.getStyleClass().add("hit-cell");
+                impactedButton.setText("✖");
             }
+        } else if (eventType == GameEventType.MISS) {
+            impactedButton.getStyleClass().add("miss-cell");
+            impactedButton.setText("\uD83C\uDF0A");
+        }
+    }
+
+    /**
+     * Keeps both grids up to date, as the game pushes each event to it.
+     * Every guess is made on the JavaFX thread, so events arrive there too.
+     */
+    private class GridUpdater implements Flow.Subscriber<EventLog.Cursor> {
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(EventLog.Cursor event) {
+            showEvent(event);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            System.out.println("Grid stopped updating: " + throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            // Nothing more to show.
         }
     }
 
@@ -192,19 +227,17 @@ public class GameView {
         // Guess at that location...
         int xCoord = GridPane.getColumnIndex(guessedButton) - 1; // As left number column is at position 0.
         int yCoord = GridPane.getRowIndex(guessedButton) - 1; // As top letter row is at position 0.
-        String guessStatus = game.guessLocation(isPlayerOne, new Coordinate(xCoord, yCoord));
+        GuessResult guessStatus = game.guessLocation(isPlayerOne, new Coordinate(xCoord, yCoord));
 
-        if (guessStatus.contains("HIT")) {
+        if (guessStatus.isHit()) {
             // Hit, so keep going unless win...
-            updatePlayerGrid();
-            if (guessStatus.contains("won")) {
+            if (guessStatus.isWin()) {
                 handleEndGame();
             }
             return true;
-        } else if (guessStatus.contains("MISS")) {
+        } else if (guessStatus.isMiss()) {
             // Missed, so switch player turn...
             // TODO: Add in miss label
-            updatePlayerGrid();
             takeInput = false;
 
             PauseTransition pause = new PauseTransition(Duration.seconds(2));
@@ -215,15 +248,43 @@ public class GameView {
         } else {
             // Failed, so display error code.
             // TODO: Doesn't do anything right now.
-            System.out.println(guessStatus);
+            System.out.println(describeGuess(guessStatus));
             return false;
         }
     }
 
+    /**
+     * Get the message to show a player for the result of their guess.
+     * @param result the result of a guess by this view's player.
+     * @return text describing the result.
+     */
+    private String describeGuess(GuessResult result) {
+        String attacker = isPlayerOne ? "P1" : "P2";
+        String victim = isPlayerOne ? "P2" : "P1";
+
+        switch (result.getOutcome()) {
+            case MISS:
+                return "MISS: " + attacker + " did not hit " + victim + "'s ship.";
+            case HIT:
+                return "HIT: " + attacker + " hit " + victim + "'s ship!";
+            case SUNK:
+                return "HIT: " + attacker + " sunk " + victim + "'s ship!";
+            case WIN:
+                return "HIT: " + attacker + " sunk " + victim + "'s ship and won!";
+            case ALREADY_GUESSED:
+                return "FAIL: " + attacker + " already guessed this coordinate.";
+            case OUTSIDE_BOARD:
+                return "FAIL: Guess outside " + victim + " board.";
+            case OUT_OF_TURN:
+                return "FAIL: It is not " + attacker + "'s turn.";
+            default:
+                return "FAIL: Game over!";
+        }
+    }
+
     // TODO: Implement this.
     private void handleEndGame() {
         game.endGame();
-        updatePlayerGrid();
         PauseTransition pause = new PauseTransition(Duration.seconds(2));
         pause.setOnFinished(e -> app.gameOver());
         pause.play();
@@ -56,6 +56,11 @@ public class MainMenuView {
     private List<Button> createMenuButtons() {
         List<Button> buttons = new ArrayList<>();
 
+        Button singlePlayerButton = new Button("Single Player");
+        singlePlayerButton.getStyleClass().add("menu-button");
+        singlePlayerButton.setOnAction(event -> onSinglePlayerButtonClick());
+        buttons.add(singlePlayerButton);
+
         Button localMultiplayerButton = new Button("Local Multiplayer");
         localMultiplayerButton.getStyleClass().add("menu-button");
         localMultiplayerButton.setOnAction(event -> onLocalMultiplayerButtonClick());
@@ -74,6 +79,13 @@ public class MainMenuView {
         return buttons;
     }
 
+    /**
+     * Handles "Single Player" button being clicked.
+     */
+    private void onSinglePlayerButtonClick() {
+        app.beginSinglePlayerGame();
+    }
+
     /**
      * Handles "Local Multiplayer" button being clicked.
      */
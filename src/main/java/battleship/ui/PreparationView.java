@@ -1,8 +1,10 @@
 package battleship.ui;
 
-import battleship.Board;
 import battleship.Coordinate;
+import battleship.FleetGenerator;
 import battleship.Game;
+import battleship.PlacementMasks;
+import battleship.Position;
 import battleship.Ship;
 import javafx.animation.PauseTransition;
 import javafx.geometry.Insets;
@@ -21,8 +23,9 @@ public class PreparationView {
     public static final double GRID_CELL_SIZE = PlayerView.GRID_CELL_SIZE;
     private final List<Ship> placedShips = new ArrayList<>();
     private final List<Ship> allShips;
-    private final Set<Coordinate> occupiedCoords = new HashSet<>();
-    private final Map<Coordinate, StackPane> gridCells = new HashMap<>();
+    private final PlacementMasks placementMasks;
+    private final long[] occupiedMask;
+    private final Map<Position, StackPane> gridCells = new HashMap<>();
     private boolean isHorizontal = true;
     private BorderPane preparationLayout;
     private List<Button> shipButtons = new ArrayList<>();
@@ -35,6 +38,8 @@ public class PreparationView {
         this.game = game;
         this.isPlayerOne = isPlayerOne;
         this.allShips = game.getAllShips(isPlayerOne);
+        this.placementMasks = PlacementMasks.forBoard(game.getBoardWidth(isPlayerOne), game.getBoardHeight(isPlayerOne));
+        this.occupiedMask = new long[placementMasks.wordCount()];
     }
 
     /**
@@ -46,7 +51,7 @@ public class PreparationView {
         preparationLayout.getStyleClass().add("watery-background");
 
         /* Active player grid. */
-        GridPane activePlayerGrid = initializePlayerGrid(Board.DEFAULT_SIZE);
+        GridPane activePlayerGrid = initializePlayerGrid(game.getBoardWidth(isPlayerOne), game.getBoardHeight(isPlayerOne));
         activePlayerGrid.setPadding(new Insets(20));
 
         /* Ship placing box. */
@@ -137,17 +142,17 @@ public class PreparationView {
                 String[] shipData = db.getString().split("!");
                 int shipLength = (int) Math.round(Double.parseDouble(shipData[1]));
 
-                if (canPlaceHere(new Coordinate(xCoord, yCoord), shipLength)) {
-                    Set<Coordinate> gridCellCoords = getPotentialCoords(new Coordinate(xCoord + 1, yCoord + 1), shipLength);
+                if (canPlaceHere(xCoord, yCoord, shipLength)) {
+                    List<Position> gridCellCoords = getPotentialCoords(xCoord + 1, yCoord + 1, shipLength);
 
-                    for (Coordinate cellCoord : gridCellCoords) {
+                    for (Position cellCoord : gridCellCoords) {
                         // Add visual cue for valid placement.
                         gridCells.get(cellCoord).getChildren().get(targetCell.getChildren().size() - 1)
                                 .setStyle("-fx-background-color: rgba(0, 255, 0, 0.5); -fx-border-color: rgba(0, 255, 0, 0.5); -fx-effect: dropshadow(two-pass-box, rgba(0,0,0,0.4), 5, 0.0, 3, 3); -fx-border-width: 2px;");
                     }
                 } else {
-                    Set<Coordinate> gridCellCoords = getPotentialCoords(new Coordinate(xCoord + 1, yCoord + 1), shipLength);
-                    for (Coordinate cellCoord : gridCellCoords) {
+                    List<Position> gridCellCoords = getPotentialCoords(xCoord + 1, yCoord + 1, shipLength);
+                    for (Position cellCoord : gridCellCoords) {
                         StackPane gridCell = gridCells.get(cellCoord);
 
                         if (gridCell != null) {
@@ -177,8 +182,8 @@ public class PreparationView {
             String[] shipData = db.getString().split("!");
             int shipLength = (int) Math.round(Double.parseDouble(shipData[1]));
 
-            Set<Coordinate> gridCellCoords = getPotentialCoords(new Coordinate(xCoord + 1, yCoord + 1), shipLength);
-            for (Coordinate cellCoord : gridCellCoords) {
+            List<Position> gridCellCoords = getPotentialCoords(xCoord + 1, yCoord + 1, shipLength);
+            for (Position cellCoord : gridCellCoords) {
                 StackPane gridCell = gridCells.get(cellCoord);
 
                 if (gridCell != null) {
@@ -207,39 +212,13 @@ public class PreparationView {
                 String[] shipData = db.getString().split("!"); // Copied cell data is stored in String format, separated by exclamation mark.
                 int shipLength = (int) Double.parseDouble(shipData[1]);
 
-                if (canPlaceHere(new Coordinate(xCoord, yCoord), shipLength)) {
-                    int shipsPlaced = placedShips.size() + 1;
-
-                    /* Set all required cells to signify occupied by ship. */
+                if (canPlaceHere(xCoord, yCoord, shipLength)) {
+                    /* Add ship to placedShips, and set all required cells to signify occupied by ship. */
                     // TODO: Currently only does rightwards and downwards - issue with coords...?
-                    for (int i = 0; i < shipLength; i++) {
-                        StackPane cell;
-                        Button cellButton;
-
-                        if (isHorizontal) {
-                            cell =  gridCells.get(new Coordinate(xCoord + i + 1, yCoord + 1));
-                        } else {
-                            cell =  gridCells.get(new Coordinate(xCoord + 1, yCoord + i + 1));
-                        }
-
-                        if (cell != null) {
-                            cellButton = (Button) cell.getChildren().get(cell.getChildren().size() - 1);
-                            cellButton.getStyleClass().add("placed-ship");
-                            cellButton.setText("S" + shipsPlaced);
-                            occupiedCoords.add(isHorizontal ? new Coordinate(xCoord + i, yCoord) : new Coordinate(xCoord, yCoord + i));
-                        } else {
-                            throw new RuntimeException("Null cell.");
-                        }
-                    }
-
-                    /* Add ship to placedShips */
-                    //System.out.println(xCoord + " " + yCoord);
                     if (isHorizontal) {
-                        placedShips.add(new Ship(shipData[0], new Coordinate(xCoord, yCoord), new Coordinate(xCoord + shipLength - 1, yCoord)));
-                        // System.out.println((xCoord + shipLength -1) + " " + yCoord);
+                        markPlacedShip(new Ship(shipData[0], new Coordinate(xCoord, yCoord), new Coordinate(xCoord + shipLength - 1, yCoord)));
                     } else {
-                        placedShips.add(new Ship(shipData[0], new Coordinate(xCoord, yCoord), new Coordinate(xCoord, yCoord + shipLength - 1)));
-                        // System.out.println(xCoord + " " + (yCoord + shipLength -1));
+                        markPlacedShip(new Ship(shipData[0], new Coordinate(xCoord, yCoord), new Coordinate(xCoord, yCoord + shipLength - 1)));
                     }
 
                     statusLabel.setText("");
@@ -260,47 +239,89 @@ public class PreparationView {
     }
 
     /**
-     * Determine if ship placement is valid.
-     * @param startCoordinate starting position of placement; not null.
-     * @param shipLength length of the ship.
-     * @return true if ship placement is valid, false otherwise.
+     * Add a ship to the placed ships and show it on the grid.
+     * @param ship ship to mark as placed; must not overlap any placed ship.
      */
-    private boolean canPlaceHere(Coordinate startCoordinate, int shipLength) {
-        Set<Coordinate> coordSet = getPotentialCoords(startCoordinate, shipLength);
-
-        for (Coordinate coord : coordSet) {
-            if (!game.isValidCoordinate(coord, isPlayerOne)
-                    || occupiedCoords.contains(coord)) {
-                return false;
+    private void markPlacedShip(Ship ship) {
+        placedShips.add(ship);
+        int shipsPlaced = placedShips.size();
+
+        for (Coordinate c : ship.getCoordinates()) {
+            /* Add one as letter and number cells take up first row and column, respectively. */
+            StackPane cell = gridCells.get(Position.of(c.getX() + 1, c.getY() + 1));
+            if (cell == null) {
+                throw new RuntimeException("Null cell.");
             }
+
+            Button cellButton = (Button) cell.getChildren().get(cell.getChildren().size() - 1);
+            cellButton.getStyleClass().add("placed-ship");
+            cellButton.setText("S" + shipsPlaced);
         }
 
-        return true;
+        List<Coordinate> coords = ship.getCoordinates();
+        Coordinate start = coords.get(0);
+        Coordinate end = coords.get(coords.size() - 1);
+        int placement = placementMasks.placementOf(Math.min(start.getX(), end.getX()), Math.min(start.getY(), end.getY()),
+                coords.size(), start.getY() == end.getY());
+        placementMasks.set(coords.size(), placement, occupiedMask);
+    }
+
+    /**
+     * Place every ship at random, replacing any ships already placed. Leaves the placement as it was if
+     * the fleet cannot be fitted on the board.
+     */
+    private void randomPlacement() {
+        List<Ship> fleet;
+        try {
+            fleet = new FleetGenerator(game.getBoardWidth(isPlayerOne), game.getBoardHeight(isPlayerOne),
+                    allShips, System.nanoTime()).nextShips();
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return;
+        }
+
+        resetPlacement();
+        for (Ship ship : fleet) {
+            markPlacedShip(ship);
+        }
+
+        for (Button shipButton : shipButtons) {
+            shipButton.setVisible(false);
+        }
+    }
+
+    /**
+     * Determine if ship placement is valid.
+     * @param xCoord horizontal starting position of placement.
+     * @param yCoord vertical starting position of placement.
+     * @param shipLength length of the ship.
+     * @return true if ship placement is valid, false otherwise.
+     */
+    private boolean canPlaceHere(int xCoord, int yCoord, int shipLength) {
+        return placementMasks.canPlace(xCoord, yCoord, shipLength, isHorizontal, occupiedMask);
     }
 
     // TODO: Only supports rightwards and downwards placement
     /**
-     * Get all the coordinates this ship will occupy.
-     * @param startCoordinate starting position of placement; not null.
+     * Get all the positions this ship will occupy.
+     * @param xCoord horizontal starting position of placement.
+     * @param yCoord vertical starting position of placement.
      * @param shipLength length of the ship.
-     * @return list of the coordinates this ship will sit on.
+     * @return list of the positions this ship will sit on.
      */
-    private Set<Coordinate> getPotentialCoords(Coordinate startCoordinate, int shipLength) {
-        Set<Coordinate> coordSet = new HashSet<>();
-        int xCoord = startCoordinate.getX();
-        int yCoord = startCoordinate.getY();
+    private List<Position> getPotentialCoords(int xCoord, int yCoord, int shipLength) {
+        List<Position> coordList = new ArrayList<>(shipLength);
 
         if (isHorizontal) {
             for (int i = 0; i < shipLength; i++) {
-                coordSet.add(new Coordinate(xCoord + i, yCoord));
+                coordList.add(Position.of(xCoord + i, yCoord));
             }
         } else {
             for (int i = 0; i < shipLength; i++) {
-                coordSet.add(new Coordinate(xCoord, yCoord + i));
+                coordList.add(Position.of(xCoord, yCoord + i));
             }
         }
 
-        return coordSet;
+        return coordList;
     }
 
     // TODO: Fix button text.
@@ -341,7 +362,7 @@ public class PreparationView {
     private void resetPlacement() {
         /* Reset all saved ships, coordinates, and reset ship buttons. */
         placedShips.clear();
-        occupiedCoords.clear();
+        Arrays.fill(occupiedMask, 0);
         setShipButtons();
 
         /* Reset gridCells. */
@@ -371,13 +392,7 @@ public class PreparationView {
             return false;
         }
 
-        for (Ship ship : placedShips) {
-            if (!game.setShip(isPlayerOne, ship)) {
-                return false;
-            }
-        }
-
-        return true;
+        return game.setFleet(isPlayerOne, placedShips);
     }
 
     /**
@@ -415,20 +430,23 @@ public class PreparationView {
 
     /**
      * Helper for creating the active player grid.
-     * @param boardSize number of grid cells horizontally and vertically the board will be.
+     * @param boardWidth number of grid cells horizontally the board will be.
+     * @param boardHeight number of grid cells vertically the board will be.
      * @return a VBox representing the physical grid for the player.
      */
-    private GridPane initializePlayerGrid(int boardSize) {
+    private GridPane initializePlayerGrid(int boardWidth, int boardHeight) {
         GridPane activePlayerGrid = new GridPane();
 
         /* Create player board grid. */
-        for (int i = 0; i < boardSize; i++) {
+        for (int i = 0; i < boardWidth; i++) {
             activePlayerGrid.getColumnConstraints().add(new ColumnConstraints(GRID_CELL_SIZE));
+        }
+        for (int i = 0; i < boardHeight; i++) {
             activePlayerGrid.getRowConstraints().add(new RowConstraints(GRID_CELL_SIZE));
         }
 
         /* Set letter and number labels on side of player grid. */
-        for (int i = 0; i < game.getBoardWidth(isPlayerOne) + 1; i++) {
+        for (int i = 0; i < Math.max(boardWidth, boardHeight) + 1; i++) {
             Label letterLabel = new Label(i > 0 && i < 27 ? String.valueOf((char) (i + 64)) : "*");
             Label numberLabel = new Label(i > 0 ? Integer.toString(i) : "*");
             letterLabel.getStyleClass().add("grid-label");
@@ -442,17 +460,21 @@ public class PreparationView {
             numberLabel.setPrefHeight(GRID_CELL_SIZE);
             numberLabel.setAlignment(Pos.CENTER);
 
-            if (i != 0) {
-                activePlayerGrid.add(letterLabel, i, 0);
-                activePlayerGrid.add(numberLabel, 0, i);
-            } else {
+            if (i == 0) {
                 activePlayerGrid.add(letterLabel, i, i);
+            } else {
+                if (i <= boardWidth) {
+                    activePlayerGrid.add(letterLabel, i, 0);
+                }
+                if (i <= boardHeight) {
+                    activePlayerGrid.add(numberLabel, 0, i);
+                }
             }
         }
 
         /* Add buttons to player grid. */
-        for (int y = 0; y < game.getBoardHeight(isPlayerOne); y++) {
-            for (int x = 0; x < game.getBoardWidth(isPlayerOne); x++) {
+        for (int y = 0; y < boardHeight; y++) {
+            for (int x = 0; x < boardWidth; x++) {
                 /* For dragging functionality... */
                 StackPane gridCell = new StackPane();
                 gridCell.setPrefSize(GRID_CELL_SIZE, GRID_CELL_SIZE);
@@ -467,7 +489,7 @@ public class PreparationView {
                 gridCell.getChildren().add(button);
                 activePlayerGrid.add(gridCell, x + 1, y + 1);
                 /* Add one as letter and number cells take up first row and column, respectively. */
-                gridCells.put(new Coordinate(x + 1, y + 1), gridCell);
+                gridCells.put(Position.of(x + 1, y + 1), gridCell);
             }
         }
 
@@ -491,6 +513,8 @@ public class PreparationView {
         rotateButton.getStyleClass().add("side-menu-button");
         Button resetButton = new Button("Reset");
         resetButton.getStyleClass().add("side-menu-button");
+        Button randomButton = new Button("Random");
+        randomButton.getStyleClass().add("side-menu-button");
         Button confirmButton = new Button("Confirm");
         confirmButton.getStyleClass().add("side-menu-button");
 
@@ -499,11 +523,13 @@ public class PreparationView {
 
         rotateButton.setOnAction((event) -> swapShipOrientation());
         resetButton.setOnAction((event) -> resetPlacement());
+        randomButton.setOnAction((event) -> randomPlacement());
         confirmButton.setOnAction((event) -> {
             boolean success = confirmShipPlacement();
 
             if (success) {
                 resetButton.setOnAction(event1 -> {});
+                randomButton.setOnAction(event1 -> {});
                 statusLabel.setStyle("-fx-background-color: green;");
                 statusLabel.setText("Successfully confirmed placement.");
 
@@ -517,7 +543,7 @@ public class PreparationView {
             }
         });
 
-        sideMenuButtons.getChildren().addAll(rotateButton, resetButton, confirmButton);
+        sideMenuButtons.getChildren().addAll(rotateButton, resetButton, randomButton, confirmButton);
 
         sideMenu.getChildren().addAll(sideMenuButtons, statusLabel, shipBox);
 
@@ -0,0 +1,76 @@
+package battleship;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BitBoardTests {
+
+    @Test
+    public void testSinkingShip() throws Exception {
+        BitBoard myBoard = new BitBoard();
+        Ship shipA = new Ship("Soon to be gone Ship", new Coordinate(6, 9), new Coordinate(6, 6));
+
+        int shipId = myBoard.setShip(shipA);
+
+        assertEquals(0, myBoard.numShipsSunk());
+        assertTrue(myBoard.guessLocation(6, 6));
+        assertTrue(myBoard.guessLocation(6, 7));
+        assertTrue(myBoard.guessLocation(6, 8));
+        assertFalse(myBoard.isShipSunk(shipId));
+        assertEquals(0, myBoard.numShipsSunk());
+        assertTrue(myBoard.guessLocation(new Coordinate(6, 9)));
+        assertTrue(myBoard.isShipSunk(shipId));
+        assertEquals(1, myBoard.numShipsSunk());
+        assertTrue(myBoard.allShipsSunk());
+    }
+
+    @Test
+    public void testSettingImproperShips() {
+        BitBoard myBoard = new BitBoard();
+
+        assertDoesNotThrow(() -> myBoard.placeShip(5, 1, 9, false));
+        assertThrows(InvalidPlacementException.class, () -> myBoard.placeShip(3, 2, 3, true));
+        assertThrows(InvalidPlacementException.class, () -> myBoard.placeShip(8, 0, 3, true));
+        assertThrows(InvalidPlacementException.class, () -> myBoard.placeShip(-1, 0, 2, true));
+        assertThrows(IllegalArgumentException.class, () -> myBoard.placeShip(0, 0, Ship.SIZE_LIMIT + 1, true));
+
+        assertDoesNotThrow(() -> myBoard.guessLocation(9, 8));
+        assertThrows(InvalidPlacementException.class, () -> myBoard.placeShip(9, 7, 3, false));
+        assertEquals(1, myBoard.numShips());
+    }
+
+    @Test
+    public void testGuessingCoordsImproperly() {
+        BitBoard myBoard = new BitBoard();
+
+        assertThrows(IllegalArgumentException.class, () -> myBoard.guessLocation(10, 5));
+        assertThrows(IllegalArgumentException.class, () -> myBoard.guessLocation(-1, 1));
+        assertThrows(IllegalArgumentException.class, () -> myBoard.guessLocation(8, 99));
+
+        assertDoesNotThrow(() -> myBoard.guessLocation(6, 6));
+        assertThrows(CoordinateAlreadyGuessedException.class, () -> myBoard.guessLocation(6, 6));
+        assertTrue(myBoard.isGuessed(6, 6));
+        assertFalse(myBoard.isGuessed(6, 5));
+    }
+
+    @Test
+    public void testLargeBoardAndClear() throws Exception {
+        BitBoard myBoard = new BitBoard(300, 200);
+        int shipA = myBoard.placeShip(298, 150, 2, true);
+        int shipB = myBoard.placeShip(0, 190, Ship.SIZE_LIMIT, false);
+
+        assertEquals(shipA, myBoard.getShipAt(299, 150));
+        assertEquals(shipB, myBoard.getShipAt(0, 199));
+        assertEquals(-1, myBoard.getShipAt(1, 199));
+        assertTrue(myBoard.guessLocation(298, 150));
+        assertTrue(myBoard.guessLocation(299, 150));
+        assertTrue(myBoard.isShipSunk(shipA));
+        assertFalse(myBoard.allShipsSunk());
+
+        myBoard.clear();
+        assertEquals(0, myBoard.numShips());
+        assertFalse(myBoard.isGuessed(299, 150));
+        assertFalse(myBoard.isOccupied(0, 199));
+        assertDoesNotThrow(() -> myBoard.placeShip(295, 150, 5, true));
+    }
+}
@@ -46,6 +46,31 @@ public class BoardTests {
         assertTrue(myBoard.allShipsSunk());
     }
 
+    @Test
+    public void testFleetCounters() throws CoordinateAlreadyGuessedException {
+        Board myBoard = new Board();
+        Ship shipA = new Ship("Tugboat", new Coordinate(0, 0), new Coordinate(1, 0));
+        Ship shipB = new Ship("Dinghy", new Coordinate(4, 4), new Coordinate(4, 4));
+
+        assertDoesNotThrow(() -> myBoard.setShip(shipA));
+        assertDoesNotThrow(() -> myBoard.setShip(shipB));
+        assertEquals(2, myBoard.numShipsRemaining());
+
+        assertTrue(myBoard.guessLocation(new Coordinate(0, 0)));
+        assertFalse(myBoard.guessLocation(new Coordinate(3, 3)));
+        assertEquals(2, myBoard.numShipsRemaining());
+
+        assertTrue(myBoard.guessLocation(new Coordinate(4, 4)));
+        assertEquals(1, myBoard.numShipsSunk());
+        assertEquals(1, myBoard.numShipsRemaining());
+
+        // Resetting a coordinate should not let its old ship be counted again.
+        assertDoesNotThrow(() -> myBoard.resetCoordinate(1, 0));
+        assertFalse(myBoard.guessLocation(new Coordinate(1, 0)));
+        assertEquals(1, myBoard.numShipsRemaining());
+        assertFalse(myBoard.allShipsSunk());
+    }
+
     @Test
     public void testSettingImproperShips() throws CoordinateAlreadyGuessedException {
         Board myBoardA = new Board();
@@ -156,6 +181,26 @@ public class BoardTests {
         assertEquals(testBoard.getYSize(), Board.DEFAULT_SIZE);
     }
 
+    @Test
+    public void testCustomBoardDimensions() throws CoordinateAlreadyGuessedException {
+        Board wideBoard = new Board(Board.MAX_SIZE, 3);
+        assertEquals(Board.MAX_SIZE, wideBoard.getXSize());
+        assertEquals(3, wideBoard.getYSize());
+
+        Ship farShip = new Ship("Far Away", new Coordinate(Board.MAX_SIZE - 1, 0), new Coordinate(Board.MAX_SIZE - 1, 2));
+        assertDoesNotThrow(() -> wideBoard.setShip(farShip));
+        assertFalse(wideBoard.coordinateOutsideBoard(new Coordinate(Board.MAX_SIZE - 1, 2)));
+        assertTrue(wideBoard.coordinateOutsideBoard(new Coordinate(Board.MAX_SIZE, 2)));
+        assertTrue(wideBoard.coordinateOutsideBoard(new Coordinate(0, 3)));
+
+        assertTrue(wideBoard.guessLocation(new Coordinate(Board.MAX_SIZE - 1, 1)));
+        assertFalse(wideBoard.guessLocation(new Coordinate(54321, 1)));
+        assertThrows(CoordinateAlreadyGuessedException.class, () -> wideBoard.guessLocation(new Coordinate(54321, 1)));
+
+        assertThrows(IllegalArgumentException.class, () -> new Board(0, 5));
+        assertThrows(IllegalArgumentException.class, () -> new Board(5, Board.MAX_SIZE + 1));
+    }
+
     @Test
     public void testResetCoordinates() {
         Board testBoard = new Board();
@@ -203,8 +248,111 @@ public class BoardTests {
             assertTrue(shipList.contains(shipB));
             assertTrue(shipList.contains(shipC));
             assertTrue(shipList.contains(new Ship("Cannon Carrier", new Coordinate(5, 5), new Coordinate(5,5))));
+            assertSame(shipList, testBoard.getShips());
+            assertThrows(UnsupportedOperationException.class, () -> shipList.remove(shipA));
+
+            // Snapshots are shared, so cannot be guessed, and are detached from the board.
+            Coordinate snapshotCoordinate = shipList.get(0).getCoordinates().get(0);
+            assertThrows(UnsupportedOperationException.class, snapshotCoordinate::guessCoordinate);
+            assertFalse(snapshotCoordinate.isGuessed());
+            assertFalse(shipList.get(0).isSunk());
+            assertTrue(testBoard.guessLocation(new Coordinate(8, 1)));
+        } catch (Exception e) {
+            fail();
+        }
+    }
+
+    @Test
+    public void testGetAssociatedShipCoords() {
+        Board testBoard = new Board();
+        Ship shipA = new Ship("Longboat", new Coordinate(2, 3), new Coordinate(2, 6));
+        Ship shipB = new Ship("Rowboat", new Coordinate(5, 5), new Coordinate(6, 5));
+
+        try {
+            testBoard.setShip(shipA);
+            testBoard.setShip(shipB);
+            testBoard.guessLocation(new Coordinate(2, 4));
+
+            List<Coordinate> coords = testBoard.getAssociatedShipCoords(2, 5);
+            assertEquals(shipA.getCoordinates(), coords);
+            assertTrue(coords.get(1).isGuessed());
+            assertFalse(coords.get(0).isGuessed());
+
+            // Guessing a returned coordinate must not change the board.
+            coords.get(0).guessCoordinate();
+            assertTrue(testBoard.guessLocation(new Coordinate(2, 3)));
+
+            assertEquals(shipB.getCoordinates(), testBoard.getAssociatedShipCoords(6, 5));
+            assertEquals(1, testBoard.getShipId(5, 5));
+            assertEquals(-1, testBoard.getShipId(0, 0));
+            assertTrue(testBoard.getAssociatedShipCoords(0, 0).isEmpty());
+            assertThrows(InvalidPlacementException.class, () -> testBoard.getAssociatedShipCoords(10, 0));
         } catch (Exception e) {
             fail();
         }
     }
+
+    @Test
+    public void testCellViews() throws Exception {
+        Board testBoard = new Board();
+        Ship shipA = new Ship("Viewed Ship", new Coordinate(3, 3), new Coordinate(3, 4));
+        testBoard.setShip(shipA);
+
+        Cell shipCell = testBoard.getCell(3, 4);
+        Cell emptyCell = testBoard.getCell(7, 7);
+        assertSame(shipCell, testBoard.getCell(3, 4));
+        assertEquals(Position.of(3, 4), shipCell.getPosition());
+        assertTrue(shipCell.isOccupied());
+        assertEquals("Viewed Ship", shipCell.getShipName());
+        assertFalse(shipCell.isGuessed());
+        assertFalse(emptyCell.isOccupied());
+        assertNull(emptyCell.getShipName());
+
+        // Views follow the board as it changes.
+        testBoard.guessLocation(new Coordinate(3, 4));
+        assertTrue(shipCell.isGuessed());
+        assertTrue(testBoard.isGuessed(3, 4));
+        assertFalse(shipCell.isShipSunk());
+        testBoard.guessLocation(new Coordinate(3, 3));
+        assertTrue(shipCell.isShipSunk());
+
+        List<Cell> shipCells = testBoard.getAssociatedShipCells(3, 3);
+        assertSame(shipCells, testBoard.getAssociatedShipCells(3, 4));
+        assertEquals(2, shipCells.size());
+        assertThrows(UnsupportedOperationException.class, () -> shipCells.remove(0));
+        assertTrue(testBoard.getAssociatedShipCells(7, 7).isEmpty());
+        assertFalse(testBoard.isOccupied(7, 7));
+        assertFalse(testBoard.isGuessed(-1, 7));
+    }
+
+    @Test
+    public void testManyMissesAndResets() throws Exception {
+        Board testBoard = new Board(100, 100);
+        testBoard.setShip(new Ship("Kept Ship", new Coordinate(50, 50), new Coordinate(50, 52)));
+
+        // Enough misses to grow the board's cell storage several times.
+        for (int y = 0; y < 40; y++) {
+            for (int x = 0; x < 40; x++) {
+                assertFalse(testBoard.guessLocation(new Coordinate(x, y)));
+            }
+        }
+        assertEquals(1600, testBoard.getGuessedCells().length);
+        assertTrue(testBoard.isGuessed(39, 39));
+        assertTrue(testBoard.getCell(39, 39).isGuessed());
+        assertFalse(testBoard.getCell(39, 39).isOccupied());
+        assertTrue(testBoard.getCoordinate(39, 39).isGuessed());
+        assertThrows(CoordinateAlreadyGuessedException.class, () -> testBoard.guessLocation(new Coordinate(0, 0)));
+        assertThrows(InvalidPlacementException.class,
+                () -> testBoard.setShip(new Ship("Late Ship", new Coordinate(0, 0), new Coordinate(1, 0))));
+
+        for (int x = 0; x < 40; x++) {
+            testBoard.resetCoordinate(x, 0);
+        }
+        assertFalse(testBoard.isGuessed(0, 0));
+        assertTrue(testBoard.isGuessed(0, 1));
+        assertEquals(1560, testBoard.getGuessedCells().length);
+        assertTrue(testBoard.isOccupied(50, 51));
+        assertEquals(0, testBoard.getShipId(50, 51));
+        assertTrue(testBoard.guessLocation(new Coordinate(50, 51)));
+    }
 }
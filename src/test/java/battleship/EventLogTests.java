@@ -0,0 +1,174 @@
+package battleship;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventLogTests {
+
+    @Test
+    public void testEventsRecordedInOrder() {
+        Game testGame = new Game();
+        testGame.setShip(false, new Ship("ship", new Coordinate(0, 0), new Coordinate(1, 0)));
+        testGame.setShip(false, new Ship("other ship", new Coordinate(5, 5), new Coordinate(5, 6)));
+
+        testGame.guessLocation(true, new Coordinate(0, 0));
+        testGame.guessLocation(false, new Coordinate(3, 4));
+        testGame.guessLocation(true, new Coordinate(1, 0));
+        testGame.guessLocation(true, new Coordinate(1, 0));
+        testGame.guessLocation(true, new Coordinate(-2, 11));
+
+        EventLog log = testGame.getEventLog();
+        assertEquals(5, log.size());
+
+        assertEquals(GuessOutcome.HIT, log.getOutcome(0));
+        assertEquals(GuessOutcome.MISS, log.getOutcome(1));
+        assertEquals(GuessOutcome.SUNK, log.getOutcome(2));
+        assertEquals(GuessOutcome.ALREADY_GUESSED, log.getOutcome(3));
+        assertEquals(GuessOutcome.OUTSIDE_BOARD, log.getOutcome(4));
+
+        assertTrue(log.isPlayerOneAttacker(0));
+        assertFalse(log.isPlayerOneAttacker(1));
+        assertEquals(3, log.getX(1));
+        assertEquals(4, log.getY(1));
+        assertEquals(-2, log.getX(4));
+        assertEquals(11, log.getY(4));
+
+        assertEquals(GuessResult.NO_SHIP, log.getSunkShipId(0));
+        assertEquals(0, log.getSunkShipId(2));
+
+        assertEquals(GameEventType.HIT, log.getEventType(2));
+        assertEquals(GameEventType.FAIL, log.getEventType(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> log.getOutcome(5));
+        assertThrows(IndexOutOfBoundsException.class, () -> log.getX(-1));
+    }
+
+    @Test
+    public void testCursor() {
+        Game testGame = new Game();
+        for (int i = 0; i < 40; i++) {
+            testGame.guessLocation(i % 2 == 0, new Coordinate(i % 10, i / 10));
+        }
+
+        EventLog.Cursor cursor = testGame.getEventLog().cursor(30);
+        assertEquals(30, cursor.getEventNum());
+
+        int read = 0;
+        while (cursor.next()) {
+            read++;
+            assertEquals(30 + read, cursor.getEventNum());
+            assertEquals((29 + read) % 10, cursor.getX());
+            assertEquals((29 + read) / 10, cursor.getY());
+            assertEquals((29 + read) % 2 == 0, cursor.isPlayerOneAttacker());
+        }
+        assertEquals(10, read);
+
+        /* The cursor picks up events added after it reached the end. */
+        testGame.guessLocation(true, new Coordinate(9, 9));
+        assertTrue(cursor.next());
+        assertEquals(41, cursor.getEventNum());
+        assertEquals(GuessOutcome.MISS, cursor.getOutcome());
+        assertFalse(cursor.next());
+
+        assertThrows(IllegalArgumentException.class, () -> testGame.getEventLog().cursor(42));
+        assertThrows(IllegalArgumentException.class, () -> testGame.getEventLog().cursor(-1));
+    }
+
+    @Test
+    public void testEventsBuiltOnDemand() {
+        Game testGame = new Game();
+        testGame.setShip(false, new Ship("ship", new Coordinate(2, 2), new Coordinate(2, 2)));
+
+        testGame.guessLocation(true, new Coordinate(4, 4));
+        testGame.guessLocation(true, new Coordinate(4, 4));
+        testGame.guessLocation(true, new Coordinate(2, 2));
+
+        List<GameEvent> events = testGame.getNewEvents(0);
+        assertEquals(2, events.size());
+        assertEquals(GameEventType.MISS, events.get(0).getEventType());
+        assertEquals(1, events.get(0).getEventNum());
+        assertEquals(GameEventType.HIT, events.get(1).getEventType());
+        assertEquals("win", events.get(1).getExtraInfo());
+        assertEquals(3, events.get(1).getEventNum());
+        assertEquals(Position.of(2, 2), events.get(1).getPosition());
+        assertTrue(events.get(1).getAttacker());
+
+        assertEquals("already guessed", testGame.getEventLog().getEvent(1).getExtraInfo());
+        assertEquals(1, testGame.getNewEvents(1).size());
+        assertTrue(testGame.getNewEvents(3).isEmpty());
+        assertTrue(testGame.getNewEvents(10).isEmpty());
+    }
+
+    @Test
+    public void testNumberingPerGame() {
+        Game gameA = new Game();
+        gameA.guessLocation(true, new Coordinate(0, 0));
+        gameA.guessLocation(true, new Coordinate(1, 0));
+
+        /* A new game starts its own numbering without disturbing the first. */
+        Game gameB = new Game();
+        gameB.guessLocation(true, new Coordinate(0, 0));
+        gameA.guessLocation(true, new Coordinate(2, 0));
+
+        assertEquals(List.of(1, 2, 3), eventNums(gameA.getNewEvents(0)));
+        assertEquals(List.of(1), eventNums(gameB.getNewEvents(0)));
+    }
+
+    @Test
+    public void testConcurrentGamesAndAppends() throws InterruptedException {
+        int threadCount = 8;
+        int guessesPerThread = 1000;
+        Game[] games = new Game[threadCount];
+        EventLog sharedLog = new EventLog();
+        List<Thread> threads = new ArrayList<>();
+
+        for (int t = 0; t < threadCount; t++) {
+            Game game = new Game(50, 50);
+            games[t] = game;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < guessesPerThread; i++) {
+                    game.guessLocation(true, new Coordinate(i % 50, i / 50));
+                    sharedLog.append(GuessResult.MISS, true, i, 0);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (Game game : games) {
+            List<GameEvent> events = game.getNewEvents(0);
+            assertEquals(guessesPerThread, events.size());
+            for (int i = 0; i < guessesPerThread; i++) {
+                assertEquals(i + 1, events.get(i).getEventNum());
+            }
+        }
+
+        /* Every append to the shared log got its own number, and none were lost. */
+        assertEquals(threadCount * guessesPerThread, sharedLog.size());
+        int[] timesGuessed = new int[guessesPerThread];
+        for (int i = 0; i < sharedLog.size(); i++) {
+            timesGuessed[sharedLog.getX(i)]++;
+        }
+        for (int count : timesGuessed) {
+            assertEquals(threadCount, count);
+        }
+    }
+
+    /**
+     * Helper for listing the numbers of a list of events.
+     * @param events events to list the numbers of.
+     * @return the event numbers, in order.
+     */
+    private static List<Integer> eventNums(List<GameEvent> events) {
+        List<Integer> nums = new ArrayList<>();
+        for (GameEvent event : events) {
+            nums.add(event.getEventNum());
+        }
+        return nums;
+    }
+}
@@ -0,0 +1,230 @@
+package battleship;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventPublisherTests {
+
+    /**
+     * Records everything it is sent, requesting a set number of events when subscribed.
+     */
+    private static class RecordingSubscriber implements Flow.Subscriber<GameEvent> {
+        private final long initialRequest;
+        private final List<GameEvent> events = new ArrayList<>();
+        private Flow.Subscription subscription;
+        private Throwable error = null;
+        private boolean completed = false;
+
+        RecordingSubscriber(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (initialRequest != 0) {
+                subscription.request(initialRequest);
+            }
+        }
+
+        @Override
+        public void onNext(GameEvent item) {
+            events.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+
+    @Test
+    public void testPastAndNewEventsPushed() {
+        Game testGame = new Game();
+        testGame.guessLocation(true, new Coordinate(0, 0));
+        testGame.guessLocation(false, new Coordinate(1, 1));
+
+        RecordingSubscriber fromStart = new RecordingSubscriber(Long.MAX_VALUE);
+        RecordingSubscriber fromLatest = new RecordingSubscriber(Long.MAX_VALUE);
+        testGame.subscribe(fromStart);
+        testGame.subscribe(fromLatest, 2);
+        assertEquals(2, fromStart.events.size());
+        assertTrue(fromLatest.events.isEmpty());
+
+        testGame.guessLocation(true, new Coordinate(2, 2));
+        testGame.guessLocation(true, new Coordinate(20, 2));
+
+        assertEquals(4, fromStart.events.size());
+        assertEquals(2, fromLatest.events.size());
+        assertEquals(3, fromLatest.events.get(0).getEventNum());
+        assertEquals(Position.of(2, 2), fromLatest.events.get(0).getPosition());
+        assertEquals(GameEventType.FAIL, fromLatest.events.get(1).getEventType());
+
+        assertThrows(IllegalArgumentException.class, () -> testGame.subscribe(new RecordingSubscriber(1), 5));
+    }
+
+    @Test
+    public void testBackpressure() {
+        Game testGame = new Game();
+        RecordingSubscriber subscriber = new RecordingSubscriber(0);
+        testGame.subscribe(subscriber);
+
+        for (int i = 0; i < 10; i++) {
+            testGame.guessLocation(true, new Coordinate(i, 0));
+        }
+        assertTrue(subscriber.events.isEmpty());
+
+        subscriber.subscription.request(3);
+        assertEquals(3, subscriber.events.size());
+
+        testGame.guessLocation(true, new Coordinate(0, 1));
+        assertEquals(3, subscriber.events.size());
+
+        /* Catches up on everything waiting in one go. */
+        subscriber.subscription.request(100);
+        assertEquals(11, subscriber.events.size());
+        for (int i = 0; i < 11; i++) {
+            assertEquals(i + 1, subscriber.events.get(i).getEventNum());
+        }
+
+        subscriber.subscription.cancel();
+        testGame.guessLocation(true, new Coordinate(1, 1));
+        assertEquals(11, subscriber.events.size());
+        assertFalse(subscriber.completed);
+    }
+
+    @Test
+    public void testCompletedOnceGameOver() {
+        Game testGame = new Game(Board.DEFAULT_SIZE, Board.DEFAULT_SIZE, true);
+        testGame.setShip(false, new Ship("ship", new Coordinate(4, 4), new Coordinate(4, 5)));
+        RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+        RecordingSubscriber slowSubscriber = new RecordingSubscriber(1);
+        testGame.subscribe(subscriber);
+        testGame.subscribe(slowSubscriber);
+
+        testGame.guessLocation(true, new Coordinate(4, 4));
+        testGame.guessLocation(true, new Coordinate(4, 5));
+        testGame.guessLocation(true, new Coordinate(0, 0));
+
+        assertTrue(subscriber.completed);
+        assertEquals(2, subscriber.events.size());
+        assertEquals("win", subscriber.events.get(1).getExtraInfo());
+
+        /* Not completed until it has been sent the winning guess. */
+        assertFalse(slowSubscriber.completed);
+        slowSubscriber.subscription.request(5);
+        assertTrue(slowSubscriber.completed);
+        assertEquals(2, slowSubscriber.events.size());
+
+        Game endedGame = new Game();
+        RecordingSubscriber endedSubscriber = new RecordingSubscriber(Long.MAX_VALUE);
+        endedGame.subscribe(endedSubscriber);
+        endedGame.endGame();
+        assertTrue(endedSubscriber.completed);
+    }
+
+    @Test
+    public void testUnenforcedWinCompletedOnceOver() {
+        Game testGame = new Game();
+        testGame.setShip(true, new Ship("ship", new Coordinate(9, 9), new Coordinate(9, 9)));
+        testGame.setShip(false, new Ship("ship", new Coordinate(4, 4), new Coordinate(4, 4)));
+        RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+        testGame.subscribe(subscriber);
+
+        /* Either player may still guess after a win, so the game is only over once checked. */
+        assertTrue(testGame.guessLocation(true, new Coordinate(4, 4)).isWin());
+        assertEquals(GamePhase.PLAYING, testGame.getPhase());
+        assertFalse(subscriber.completed);
+
+        testGame.guessLocation(false, new Coordinate(0, 0));
+        assertEquals(2, subscriber.events.size());
+        assertEquals("Player 1", testGame.checkWinner());
+        assertEquals(GamePhase.OVER, testGame.getPhase());
+        assertTrue(subscriber.completed);
+    }
+
+    @Test
+    public void testSubscribeToLog() {
+        Game testGame = new Game(Board.DEFAULT_SIZE, Board.DEFAULT_SIZE, true);
+        testGame.setShip(false, new Ship("ship", new Coordinate(4, 4), new Coordinate(4, 5)));
+        testGame.guessLocation(true, new Coordinate(0, 0));
+        List<Integer> eventNums = new ArrayList<>();
+        List<Integer> sunkShipIds = new ArrayList<>();
+        boolean[] completed = {false};
+
+        testGame.subscribeToLog(new Flow.Subscriber<EventLog.Cursor>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(EventLog.Cursor item) {
+                eventNums.add(item.getEventNum());
+                sunkShipIds.add(item.getSunkShipId());
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                fail("Unexpected error: " + throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                completed[0] = true;
+            }
+        }, 0);
+
+        testGame.guessLocation(false, new Coordinate(1, 1));
+        testGame.guessLocation(true, new Coordinate(4, 4));
+        testGame.guessLocation(true, new Coordinate(4, 5));
+        assertEquals(List.of(1, 2, 3, 4), eventNums);
+        assertEquals(List.of(GuessResult.NO_SHIP, GuessResult.NO_SHIP, GuessResult.NO_SHIP, 0), sunkShipIds);
+        assertTrue(completed[0]);
+    }
+
+    @Test
+    public void testGuessingFromSubscriber() {
+        Game testGame = new Game();
+        List<Integer> eventNums = new ArrayList<>();
+
+        /* Player two answers every guess by player one while being sent it. */
+        testGame.subscribe(new RecordingSubscriber(Long.MAX_VALUE) {
+            @Override
+            public void onNext(GameEvent item) {
+                eventNums.add(item.getEventNum());
+                if (item.getAttacker()) {
+                    testGame.guessLocation(false, item.getCoordinate());
+                }
+            }
+        });
+
+        testGame.guessLocation(true, new Coordinate(3, 3));
+        testGame.guessLocation(true, new Coordinate(5, 3));
+
+        assertEquals(List.of(1, 2, 3, 4), eventNums);
+        assertFalse(testGame.getEventLog().isPlayerOneAttacker(3));
+    }
+
+    @Test
+    public void testInvalidRequest() {
+        Game testGame = new Game();
+        RecordingSubscriber subscriber = new RecordingSubscriber(0);
+        testGame.subscribe(subscriber);
+
+        subscriber.subscription.request(0);
+        assertTrue(subscriber.error instanceof IllegalArgumentException);
+
+        subscriber.subscription.request(1);
+        testGame.guessLocation(true, new Coordinate(0, 0));
+        assertTrue(subscriber.events.isEmpty());
+    }
+}
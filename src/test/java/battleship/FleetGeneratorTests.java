@@ -0,0 +1,69 @@
+package battleship;
+
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FleetGeneratorTests {
+
+    @Test
+    public void testFleetsAreLegal() {
+        FleetGenerator generator = new FleetGenerator(42);
+
+        for (int i = 0; i < 1000; i++) {
+            List<Ship> fleet = generator.nextShips();
+            Game testGame = new Game();
+
+            assertEquals(Game.DEFAULT_SHIPS.size(), fleet.size());
+            for (int s = 0; s < fleet.size(); s++) {
+                assertEquals(Game.DEFAULT_SHIPS.get(s).getName(), fleet.get(s).getName());
+                assertEquals(Game.DEFAULT_SHIPS.get(s).getShipLength(), fleet.get(s).getShipLength());
+            }
+            assertTrue(testGame.setFleet(true, fleet));
+        }
+    }
+
+    @Test
+    public void testSameSeedSameFleets() {
+        FleetGenerator generatorA = new FleetGenerator(7);
+        FleetGenerator generatorB = new FleetGenerator(7);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(generatorA.nextShips(), generatorB.nextShips());
+        }
+    }
+
+    @Test
+    public void testOccupancyMatchesPlacements() throws Exception {
+        FleetGenerator generator = new FleetGenerator(300, 70, Game.DEFAULT_SHIPS, 99);
+        int[] placements = new int[generator.fleetSize()];
+        long[] occupancy = new long[generator.wordCount()];
+        generator.nextFleet(placements, occupancy);
+
+        BitBoard board = new BitBoard(300, 70);
+        long[] expected = new long[board.wordCount()];
+        for (int i = 0; i < placements.length; i++) {
+            board.placeShip(generator.placementX(placements[i]), generator.placementY(placements[i]),
+                    Game.DEFAULT_SHIPS.get(i).getShipLength(), FleetGenerator.isHorizontal(placements[i]));
+        }
+        board.copyOccupiedMask(expected);
+
+        assertArrayEquals(expected, occupancy);
+    }
+
+    @Test
+    public void testShipsThatDoNotFit() {
+        assertThrows(IllegalArgumentException.class, () -> new FleetGenerator(3, 3, Game.DEFAULT_SHIPS, 1));
+
+        /* Every ship fits alone, but together they cover more cells than the board has. */
+        assertThrows(IllegalArgumentException.class, () -> new FleetGenerator(5, 3, Game.DEFAULT_SHIPS, 1));
+    }
+
+    @Test
+    public void testFleetThatDoesNotFit() {
+        /* Small enough to cover, but only two ships of three fit side by side in two columns. */
+        Ship ship = new Ship("ship", new Coordinate(0, 0), new Coordinate(0, 2));
+        FleetGenerator generator = new FleetGenerator(2, 5, List.of(ship, ship, ship), 1);
+        assertThrows(IllegalStateException.class, generator::nextShips);
+    }
+}
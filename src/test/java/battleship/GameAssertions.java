@@ -0,0 +1,48 @@
+package battleship;
+
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Assertions shared by the tests of saving and rebuilding games.
+ */
+final class GameAssertions {
+
+    private GameAssertions() {
+    }
+
+    /**
+     * Check a saved or rebuilt game matches the game it came from. Only the first 100 rows and columns of
+     * each board are compared cell by cell, to keep checks of huge boards quick.
+     * @param expected the game saved.
+     * @param actual the game restored.
+     */
+    static void assertSameState(Game expected, Game actual) {
+        assertEquals(expected.getPhase(), actual.getPhase());
+        assertEquals(expected.isPlayerOneTurn(), actual.isPlayerOneTurn());
+        assertEquals(expected.isTurnEnforced(), actual.isTurnEnforced());
+        assertEquals(expected.checkWinner(), actual.checkWinner());
+
+        for (boolean isPlayerOne : new boolean[] {true, false}) {
+            assertEquals(expected.getShipsRemaining(isPlayerOne), actual.getShipsRemaining(isPlayerOne));
+            List<Ship> expectedShips = expected.getPlacedShips(isPlayerOne);
+            List<Ship> actualShips = actual.getPlacedShips(isPlayerOne);
+            assertEquals(expectedShips.size(), actualShips.size());
+            for (int i = 0; i < expectedShips.size(); i++) {
+                assertEquals(expectedShips.get(i).getName(), actualShips.get(i).getName());
+                assertEquals(expectedShips.get(i).getCoordinates(), actualShips.get(i).getCoordinates());
+            }
+
+            int width = Math.min(expected.getBoardWidth(isPlayerOne), 100);
+            int height = Math.min(expected.getBoardHeight(isPlayerOne), 100);
+            for (int x = 0; x < width; x++) {
+                for (int y = 0; y < height; y++) {
+                    Cell expectedCell = expected.getCell(isPlayerOne, x, y);
+                    Cell actualCell = actual.getCell(isPlayerOne, x, y);
+                    assertEquals(expectedCell.isGuessed(), actualCell.isGuessed());
+                    assertEquals(expectedCell.isOccupied(), actualCell.isOccupied());
+                }
+            }
+        }
+    }
+}
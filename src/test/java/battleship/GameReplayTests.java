@@ -0,0 +1,164 @@
+package battleship;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameReplayTests {
+
+    @Test
+    public void testSeekMatchesGame() {
+        FleetGenerator fleets = new FleetGenerator(3);
+        Game game = new Game(Board.DEFAULT_SIZE, Board.DEFAULT_SIZE, true);
+        game.setFleet(true, fleets.nextShips());
+        game.setFleet(false, fleets.nextShips());
+
+        /* Random shots from both players, including repeats, shots off the board and shots out of turn. */
+        Random random = new Random(17);
+        List<State> states = new ArrayList<>();
+        states.add(new State(game));
+        while (game.getPhase() != GamePhase.OVER) {
+            boolean isPlayerOne = random.nextInt(4) == 0 ? !game.isPlayerOneTurn() : game.isPlayerOneTurn();
+            game.guessLocation(isPlayerOne, new Coordinate(random.nextInt(11), random.nextInt(10)));
+            states.add(new State(game));
+        }
+        assertEquals(states.size() - 1, game.getEventLog().size());
+
+        GameReplay replay = new GameReplay(game, 5);
+        assertEquals(states.size() - 1, replay.getEventCount());
+        assertEquals(replay.getEventCount(), replay.getEventNumber());
+        states.get(states.size() - 1).assertMatches(replay);
+
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < states.size(); i++) {
+            order.add(i);
+        }
+        Collections.shuffle(order, random);
+        for (int eventNum : order) {
+            replay.seek(eventNum);
+            assertEquals(eventNum, replay.getEventNumber());
+            states.get(eventNum).assertMatches(replay);
+        }
+
+        replay.seek(0);
+        for (int eventNum = 1; replay.next(); eventNum++) {
+            states.get(eventNum).assertMatches(replay);
+        }
+        assertFalse(replay.next());
+    }
+
+    @Test
+    public void testCatchUp() {
+        Game game = new Game();
+        game.setShip(true, new Ship("ship", new Coordinate(0, 0), new Coordinate(0, 1)));
+        game.setShip(false, new Ship("ship", new Coordinate(5, 5), new Coordinate(6, 5)));
+
+        GameReplay replay = new GameReplay(game, 2);
+        assertEquals(0, replay.getEventCount());
+        assertTrue(replay.isPlayerOneTurn());
+
+        /* Whoever guesses first takes the turn, even with a guess off the board. */
+        game.guessLocation(false, new Coordinate(-1, 0));
+        game.guessLocation(false, new Coordinate(0, 0));
+        game.guessLocation(false, new Coordinate(3, 3));
+        assertEquals(3, replay.catchUp());
+        assertTrue(replay.isPlayerOneTurn());
+        assertEquals(1, replay.getShipsRemaining(true));
+        assertEquals(0, replay.getShipAt(true, 0, 1));
+
+        replay.seek(1);
+        assertFalse(replay.isPlayerOneTurn());
+        assertFalse(replay.isGuessed(true, 0, 0));
+
+        game.guessLocation(true, new Coordinate(5, 5));
+        game.guessLocation(true, new Coordinate(6, 5));
+        assertEquals(5, replay.catchUp());
+        assertTrue(replay.isShipSunk(false, 0));
+        assertEquals(0, replay.getShipsRemaining(false));
+
+        replay.seek(4);
+        assertFalse(replay.isShipSunk(false, 0));
+        assertTrue(replay.isOccupied(false, 6, 5));
+        long[] guessed = new long[replay.wordCount()];
+        replay.copyGuessedMask(false, guessed);
+        assertEquals(1, Long.bitCount(guessed[0]) + Long.bitCount(guessed[1]));
+    }
+
+    @Test
+    public void testRestoredGame() {
+        Game game = new Game(Board.DEFAULT_SIZE, Board.DEFAULT_SIZE, true);
+        game.setShip(true, new Ship("ship", new Coordinate(0, 0), new Coordinate(0, 1)));
+        game.setShip(false, new Ship("ship", new Coordinate(5, 5), new Coordinate(6, 5)));
+        game.guessLocation(true, new Coordinate(5, 5));
+        game.guessLocation(true, new Coordinate(9, 9));
+        game.guessLocation(false, new Coordinate(3, 3));
+
+        /* A restored game has no log of the guesses it was saved with, so they are already made at event 0. */
+        Game restored = GameSnapshot.of(game).toGame();
+        restored.guessLocation(true, new Coordinate(6, 5));
+        GameReplay replay = new GameReplay(restored);
+        assertEquals(1, replay.getEventCount());
+        assertEquals(0, replay.getShipsRemaining(false));
+
+        replay.seek(0);
+        assertTrue(replay.isPlayerOneTurn());
+        assertTrue(replay.isGuessed(false, 5, 5));
+        assertTrue(replay.isGuessed(false, 9, 9));
+        assertTrue(replay.isGuessed(true, 3, 3));
+        assertFalse(replay.isGuessed(false, 6, 5));
+        assertEquals(1, replay.getShipsRemaining(false));
+
+        /* Guesses made after restoring are seen at their own events, not at event 0. */
+        restored.guessLocation(false, new Coordinate(4, 4));
+        Game over = GameSnapshot.of(restored).toGame();
+        GameReplay overReplay = new GameReplay(over);
+        assertEquals(0, overReplay.getEventCount());
+        assertTrue(overReplay.isGuessed(false, 6, 5));
+        assertFalse(overReplay.isGuessed(true, 4, 4));
+    }
+
+    @Test
+    public void testBadArguments() {
+        Game game = new Game();
+        assertThrows(IllegalArgumentException.class, () -> new GameReplay(game, 0));
+
+        GameReplay replay = new GameReplay(game);
+        assertEquals(GameReplay.DEFAULT_SNAPSHOT_INTERVAL, replay.getSnapshotInterval());
+        assertThrows(IllegalArgumentException.class, () -> replay.seek(1));
+        assertThrows(IllegalArgumentException.class, () -> replay.seek(-1));
+    }
+
+    /**
+     * Both boards and the turn of a game after one event.
+     */
+    private static final class State {
+        private final boolean[][] guessed = new boolean[2][Board.DEFAULT_SIZE * Board.DEFAULT_SIZE];
+        private final int[] shipsRemaining = new int[2];
+        private final boolean isPlayerOneTurn;
+
+        State(Game game) {
+            for (int player = 0; player < 2; player++) {
+                for (int cell = 0; cell < guessed[player].length; cell++) {
+                    guessed[player][cell] = game.getCell(player == 0, cell % Board.DEFAULT_SIZE,
+                            cell / Board.DEFAULT_SIZE).isGuessed();
+                }
+                shipsRemaining[player] = game.getShipsRemaining(player == 0);
+            }
+            this.isPlayerOneTurn = game.isPlayerOneTurn();
+        }
+
+        void assertMatches(GameReplay replay) {
+            assertEquals(isPlayerOneTurn, replay.isPlayerOneTurn());
+            for (int player = 0; player < 2; player++) {
+                assertEquals(shipsRemaining[player], replay.getShipsRemaining(player == 0));
+                for (int cell = 0; cell < guessed[player].length; cell++) {
+                    assertEquals(guessed[player][cell], replay.isGuessed(player == 0, cell % Board.DEFAULT_SIZE,
+                            cell / Board.DEFAULT_SIZE));
+                }
+            }
+        }
+    }
+}
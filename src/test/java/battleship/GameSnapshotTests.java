@@ -0,0 +1,132 @@
+package battleship;
+
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import static battleship.GameAssertions.assertSameState;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameSnapshotTests {
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        Game game = new Game(Board.DEFAULT_SIZE, Board.DEFAULT_SIZE, true);
+        assertTrue(game.setShip(true, new Ship("Cruiser", new Coordinate(0, 0), new Coordinate(0, 2))));
+        assertTrue(game.setShip(false, new Ship("Patrol", new Coordinate(3, 3), new Coordinate(3, 4))));
+        assertTrue(game.setShip(false, new Ship(null, new Coordinate(9, 9), new Coordinate(9, 9))));
+
+        /* Player one sinks the patrol boat, then misses, leaving player two to move. */
+        game.guessLocation(true, new Coordinate(0, 0));
+        game.guessLocation(false, new Coordinate(5, 5));
+        game.guessLocation(true, new Coordinate(3, 3));
+        game.guessLocation(true, new Coordinate(3, 4));
+        game.guessLocation(true, new Coordinate(8, 8));
+        assertFalse(game.isPlayerOneTurn());
+
+        Game restored = saveAndLoad(List.of(game)).get(0);
+        assertSameState(game, restored);
+        assertEquals(1, restored.getShipsRemaining(false));
+        assertNull(restored.getPlacedShips(false).get(1).getName());
+        assertTrue(restored.getEventLog().size() == 0);
+
+        /* The restored game carries on under the same rules. */
+        assertEquals(GuessResult.OUT_OF_TURN, restored.guessLocation(true, new Coordinate(9, 9)));
+        assertEquals(GuessResult.ALREADY_GUESSED, restored.guessLocation(false, new Coordinate(5, 5)));
+        assertFalse(restored.setShip(true, new Ship("late", new Coordinate(0, 9), new Coordinate(1, 9))));
+    }
+
+    @Test
+    public void testPhasesAndSparseBoards() throws IOException {
+        Game preparing = new Game();
+        preparing.setShip(true, new Ship("ship", new Coordinate(1, 1), new Coordinate(1, 3)));
+
+        /* Few guesses on a big board are saved as a list rather than a bitmap. */
+        Game sparse = new Game(5000, 4000);
+        sparse.setShip(false, new Ship("far", new Coordinate(4990, 3999), new Coordinate(4999, 3999)));
+        sparse.guessLocation(true, new Coordinate(4995, 3999));
+        sparse.guessLocation(false, new Coordinate(0, 0));
+
+        Game over = new Game();
+        over.setShip(true, new Ship("ship", new Coordinate(0, 0), new Coordinate(0, 1)));
+        over.setShip(false, new Ship("ship", new Coordinate(2, 2), new Coordinate(2, 2)));
+        over.guessLocation(true, new Coordinate(2, 2));
+        assertEquals("Player 1", over.checkWinner());
+
+        List<Game> restored = saveAndLoad(List.of(preparing, sparse, over));
+        assertEquals(3, restored.size());
+        assertSameState(preparing, restored.get(0));
+        assertEquals(GamePhase.PREPARATION, restored.get(0).getPhase());
+        assertTrue(restored.get(0).setShip(true, new Ship("another", new Coordinate(5, 5), new Coordinate(6, 5))));
+
+        assertEquals(5000, restored.get(1).getBoardWidth(true));
+        assertTrue(restored.get(1).getCell(false, 4995, 3999).isGuessed());
+        assertTrue(restored.get(1).getCell(true, 0, 0).isGuessed());
+        assertFalse(restored.get(1).getCell(false, 4994, 3999).isGuessed());
+        assertFalse(restored.get(1).isTurnEnforced());
+
+        assertEquals(GamePhase.OVER, restored.get(2).getPhase());
+        assertEquals("Player 1", restored.get(2).checkWinner());
+        assertEquals(GuessResult.GAME_OVER, restored.get(2).guessLocation(true, new Coordinate(0, 0)));
+    }
+
+    @Test
+    public void testManyGames() throws IOException {
+        FleetGenerator fleets = new FleetGenerator(Board.DEFAULT_SIZE, Board.DEFAULT_SIZE, Game.DEFAULT_SHIPS, 11);
+        List<Game> games = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            Game game = new Game(Board.DEFAULT_SIZE, Board.DEFAULT_SIZE, true);
+            game.setFleet(true, fleets.nextShips());
+            game.setFleet(false, fleets.nextShips());
+            boolean isPlayerOne = true;
+            for (int cell = 0; cell < i % 60; cell++) {
+                GuessResult result = game.guessLocation(isPlayerOne, new Coordinate(cell % 10, cell / 10));
+                if (result.isMiss()) {
+                    isPlayerOne = !isPlayerOne;
+                }
+            }
+            games.add(game);
+        }
+
+        List<Game> restored = saveAndLoad(games);
+        assertEquals(games.size(), restored.size());
+        for (int i = 0; i < games.size(); i++) {
+            assertSameState(games.get(i), restored.get(i));
+        }
+    }
+
+    @Test
+    public void testNotASnapshot() throws IOException {
+        Path file = Files.createTempFile("battleship", ".snapshot");
+        try {
+            Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9});
+            assertThrows(IOException.class, () -> GameSnapshot.load(file));
+
+            /* A file cut short is reported rather than partly loaded. */
+            GameSnapshot.save(file, List.of(new Game(), new Game()));
+            byte[] saved = Files.readAllBytes(file);
+            Files.write(file, Arrays.copyOf(saved, saved.length - 3));
+            assertThrows(IOException.class, () -> GameSnapshot.load(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Helper for saving games to a temporary file and loading them back.
+     * @param games the games to save.
+     * @return the games loaded.
+     */
+    private static List<Game> saveAndLoad(List<Game> games) throws IOException {
+        Path file = Files.createTempFile("battleship", ".snapshot");
+        try {
+            GameSnapshot.save(file, games);
+            return GameSnapshot.load(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
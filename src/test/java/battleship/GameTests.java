@@ -1,6 +1,9 @@
 package battleship;
 
 import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class GameTests {
@@ -50,45 +53,45 @@ public class GameTests {
         assertTrue(testGame.setShip(true, shipE));
 
         // Testing coords of shipA were actually set.
-        assertTrue(testGame.guessLocation(true, new Coordinate(6,3)).contains("HIT"));
-        assertTrue(testGame.guessLocation(true, new Coordinate(6,1)).contains("HIT"));
-        assertTrue(testGame.guessLocation(true, new Coordinate(6,2)).contains("sunk"));
+        assertTrue(testGame.guessLocation(true, new Coordinate(6,3)).isHit());
+        assertTrue(testGame.guessLocation(true, new Coordinate(6,1)).isHit());
+        assertTrue(testGame.guessLocation(true, new Coordinate(6,2)).isSunk());
 
-        assertTrue(testGame.guessLocation(false, new Coordinate(6,1)).contains("HIT"));
-        assertTrue(testGame.guessLocation(false, new Coordinate(6,2)).contains("HIT"));
-        assertTrue(testGame.guessLocation(false, new Coordinate(6,3)).contains("sunk"));
+        assertTrue(testGame.guessLocation(false, new Coordinate(6,1)).isHit());
+        assertTrue(testGame.guessLocation(false, new Coordinate(6,2)).isHit());
+        assertTrue(testGame.guessLocation(false, new Coordinate(6,3)).isSunk());
 
         // Testing no coords of shipB were actually set.
-        assertTrue(testGame.guessLocation(true, new Coordinate(6,1)).contains("FAIL"));
-        assertTrue(testGame.guessLocation(true, new Coordinate(5,1)).contains("MISS"));
+        assertTrue(testGame.guessLocation(true, new Coordinate(6,1)).isFail());
+        assertTrue(testGame.guessLocation(true, new Coordinate(5,1)).isMiss());
 
-        assertTrue(testGame.guessLocation(false, new Coordinate(5,1)).contains("MISS"));
-        assertTrue(testGame.guessLocation(false, new Coordinate(6,1)).contains("FAIL"));
+        assertTrue(testGame.guessLocation(false, new Coordinate(5,1)).isMiss());
+        assertTrue(testGame.guessLocation(false, new Coordinate(6,1)).isFail());
 
         // Testing no coords of shipC were actually set, but (1, 8) is a coord of shipD.
-        assertTrue(testGame.guessLocation(true, new Coordinate(-1,8)).contains("FAIL"));
-        assertTrue(testGame.guessLocation(true, new Coordinate(1,8)).contains("HIT"));
-        assertTrue(testGame.guessLocation(true, new Coordinate(2,8)).contains("MISS"));
-        assertTrue(testGame.guessLocation(true, new Coordinate(0,8)).contains("MISS"));
+        assertTrue(testGame.guessLocation(true, new Coordinate(-1,8)).isFail());
+        assertTrue(testGame.guessLocation(true, new Coordinate(1,8)).isHit());
+        assertTrue(testGame.guessLocation(true, new Coordinate(2,8)).isMiss());
+        assertTrue(testGame.guessLocation(true, new Coordinate(0,8)).isMiss());
 
-        assertTrue(testGame.guessLocation(false, new Coordinate(1,8)).contains("HIT"));
-        assertTrue(testGame.guessLocation(false, new Coordinate(0,8)).contains("MISS"));
-        assertTrue(testGame.guessLocation(false, new Coordinate(2,8)).contains("MISS"));
-        assertTrue(testGame.guessLocation(false, new Coordinate(-1,8)).contains("FAIL"));
+        assertTrue(testGame.guessLocation(false, new Coordinate(1,8)).isHit());
+        assertTrue(testGame.guessLocation(false, new Coordinate(0,8)).isMiss());
+        assertTrue(testGame.guessLocation(false, new Coordinate(2,8)).isMiss());
+        assertTrue(testGame.guessLocation(false, new Coordinate(-1,8)).isFail());
 
         // Testing coords of shipD were actually set.
-        assertTrue(testGame.guessLocation(true, new Coordinate(1,7)).contains("HIT"));
-        assertTrue(testGame.guessLocation(true, new Coordinate(1,6)).contains("HIT"));
-        assertTrue(testGame.guessLocation(true, new Coordinate(1,9)).contains("sunk"));
+        assertTrue(testGame.guessLocation(true, new Coordinate(1,7)).isHit());
+        assertTrue(testGame.guessLocation(true, new Coordinate(1,6)).isHit());
+        assertTrue(testGame.guessLocation(true, new Coordinate(1,9)).isSunk());
 
-        assertTrue(testGame.guessLocation(false, new Coordinate(1,6)).contains("HIT"));
-        assertTrue(testGame.guessLocation(false, new Coordinate(1,9)).contains("HIT"));
-        assertTrue(testGame.guessLocation(false, new Coordinate(1,7)).contains("sunk"));
+        assertTrue(testGame.guessLocation(false, new Coordinate(1,6)).isHit());
+        assertTrue(testGame.guessLocation(false, new Coordinate(1,9)).isHit());
+        assertTrue(testGame.guessLocation(false, new Coordinate(1,7)).isSunk());
 
         // Testing shipE is exclusive to playerOne.
         assertFalse(testGame.setShip(false, shipE));
-        assertTrue(testGame.guessLocation(true, new Coordinate(0,0)).contains("MISS"));
-        assertTrue(testGame.guessLocation(false, new Coordinate(0,0)).contains("sunk"));
+        assertTrue(testGame.guessLocation(true, new Coordinate(0,0)).isMiss());
+        assertTrue(testGame.guessLocation(false, new Coordinate(0,0)).isSunk());
     }
 
     @Test
@@ -105,44 +108,44 @@ public class GameTests {
         testGame.setShip(false, shipB2);
 
         assertTrue(testGame.checkWinner().contains("Not Ended"));
-        assertTrue(testGame.guessLocation(true, new Coordinate(0, 0)).contains("HIT"));
-        assertTrue(testGame.guessLocation(false, new Coordinate(0, 0)).contains("MISS"));
+        assertTrue(testGame.guessLocation(true, new Coordinate(0, 0)).isHit());
+        assertTrue(testGame.guessLocation(false, new Coordinate(0, 0)).isMiss());
 
         assertTrue(testGame.checkWinner().contains("Not Ended"));
-        assertTrue(testGame.guessLocation(true, new Coordinate(9, 8)).contains("MISS"));
-        assertTrue(testGame.guessLocation(false, new Coordinate(9, 8)).contains("HIT"));
+        assertTrue(testGame.guessLocation(true, new Coordinate(9, 8)).isMiss());
+        assertTrue(testGame.guessLocation(false, new Coordinate(9, 8)).isHit());
 
         assertTrue(testGame.checkWinner().contains("Not Ended"));
-        assertTrue(testGame.guessLocation(true, new Coordinate(0, 2)).contains("HIT"));
-        assertTrue(testGame.guessLocation(false, new Coordinate(0, 2)).contains("MISS"));
+        assertTrue(testGame.guessLocation(true, new Coordinate(0, 2)).isHit());
+        assertTrue(testGame.guessLocation(false, new Coordinate(0, 2)).isMiss());
 
         assertTrue(testGame.checkWinner().contains("Not Ended"));
-        assertTrue(testGame.guessLocation(true, new Coordinate(0, 1)).contains("sunk"));
-        assertTrue(testGame.guessLocation(false, new Coordinate(0, 1)).contains("MISS"));
+        assertTrue(testGame.guessLocation(true, new Coordinate(0, 1)).isSunk());
+        assertTrue(testGame.guessLocation(false, new Coordinate(0, 1)).isMiss());
 
         assertTrue(testGame.checkWinner().contains("Not Ended"));
-        assertTrue(testGame.guessLocation(true, new Coordinate(3, 1)).contains("HIT"));
-        assertTrue(testGame.guessLocation(false, new Coordinate(3, 1)).contains("MISS"));
+        assertTrue(testGame.guessLocation(true, new Coordinate(3, 1)).isHit());
+        assertTrue(testGame.guessLocation(false, new Coordinate(3, 1)).isMiss());
 
         assertTrue(testGame.checkWinner().contains("Not Ended"));
-        assertTrue(testGame.guessLocation(true, new Coordinate(4, 3)).contains("MISS"));
-        assertTrue(testGame.guessLocation(false, new Coordinate(4, 3)).contains("MISS"));
+        assertTrue(testGame.guessLocation(true, new Coordinate(4, 3)).isMiss());
+        assertTrue(testGame.guessLocation(false, new Coordinate(4, 3)).isMiss());
 
         assertTrue(testGame.checkWinner().contains("Not Ended"));
-        assertTrue(testGame.guessLocation(true, new Coordinate(0, 1)).contains("FAIL"));
-        assertTrue(testGame.guessLocation(false, new Coordinate(0, 1)).contains("FAIL"));
+        assertTrue(testGame.guessLocation(true, new Coordinate(0, 1)).isFail());
+        assertTrue(testGame.guessLocation(false, new Coordinate(0, 1)).isFail());
 
         assertTrue(testGame.checkWinner().contains("Not Ended"));
-        assertTrue(testGame.guessLocation(true, new Coordinate(4, 1)).contains("HIT"));
-        assertTrue(testGame.guessLocation(false, new Coordinate(4, 1)).contains("MISS"));
+        assertTrue(testGame.guessLocation(true, new Coordinate(4, 1)).isHit());
+        assertTrue(testGame.guessLocation(false, new Coordinate(4, 1)).isMiss());
 
         assertTrue(testGame.checkWinner().contains("Not Ended"));
-        assertTrue(testGame.guessLocation(true, new Coordinate(5, 1)).contains("sunk"));
-        assertTrue(testGame.guessLocation(false, new Coordinate(5, 1)).contains("MISS"));
+        assertTrue(testGame.guessLocation(true, new Coordinate(5, 1)).isSunk());
+        assertTrue(testGame.guessLocation(false, new Coordinate(5, 1)).isMiss());
 
         assertTrue(testGame.checkWinner().contains("Player 1"));
-        assertTrue(testGame.guessLocation(true, new Coordinate(3, 3)).contains("FAIL"));
-        assertTrue(testGame.guessLocation(false, new Coordinate(3, 3)).contains("FAIL"));
+        assertTrue(testGame.guessLocation(true, new Coordinate(3, 3)).isFail());
+        assertTrue(testGame.guessLocation(false, new Coordinate(3, 3)).isFail());
     }
 
     @Test
@@ -194,11 +197,279 @@ public class GameTests {
         assertTrue(tiedGame.checkWinner().contains("Tie"));
         assertTrue(noWinners.checkWinner().contains("Neither"));
 
-        assertTrue(playerOneWin.guessLocation(false, coordToGuess).contains("FAIL"));
-        assertTrue(playerTwoWin.guessLocation(true, coordToGuess).contains("FAIL"));
+        assertTrue(playerOneWin.guessLocation(false, coordToGuess).isFail());
+        assertTrue(playerTwoWin.guessLocation(true, coordToGuess).isFail());
         assertTrue(playerOneWin.checkWinner().contains("Player 1"));
         assertTrue(playerTwoWin.checkWinner().contains("Player 2"));
         assertTrue(tiedGame.checkWinner().contains("Tie"));
         assertTrue(noWinners.checkWinner().contains("Neither"));
     }
+
+    @Test
+    public void testSettingFleet() {
+        Ship shipA = new Ship("Flagship", new Coordinate(0, 0), new Coordinate(4, 0));
+        Ship shipB = new Ship("Escort", new Coordinate(0, 1), new Coordinate(0, 3));
+        Ship shipC = new Ship("Collider", new Coordinate(2, 2), new Coordinate(2, 0));
+        Ship shipD = new Ship("Straggler", new Coordinate(9, 8), new Coordinate(9, 10));
+
+        Game testGame = new Game();
+
+        // Ships overlapping each other, or any ship off the board, places nothing.
+        assertFalse(testGame.setFleet(true, List.of(shipA, shipB, shipC)));
+        assertFalse(testGame.setFleet(true, List.of(shipA, shipD)));
+        assertEquals(0, testGame.getPlacedShips(true).size());
+
+        assertTrue(testGame.setFleet(true, List.of(shipA, shipB)));
+        assertEquals(List.of(shipA, shipB), testGame.getPlacedShips(true));
+
+        // Overlapping ships already on the board also places nothing.
+        assertFalse(testGame.setFleet(true, List.of(new Ship("Fine", new Coordinate(5, 5), new Coordinate(5, 6)), shipC)));
+        assertEquals(2, testGame.getPlacedShips(true).size());
+
+        assertTrue(testGame.guessLocation(false, new Coordinate(0, 2)).isHit());
+        assertFalse(testGame.setFleet(false, List.of(shipC)));
+    }
+
+    @Test
+    public void testGuessResults() {
+        Ship shipA = new Ship("First", new Coordinate(0, 0), new Coordinate(1, 0));
+        Ship shipB = new Ship("Second", new Coordinate(5, 5), new Coordinate(5, 5));
+
+        Game testGame = new Game();
+        assertTrue(testGame.setFleet(false, List.of(shipA, shipB)));
+        assertTrue(testGame.setShip(true, shipB));
+
+        assertSame(GuessResult.MISS, testGame.guessLocation(true, new Coordinate(9, 9)));
+        assertSame(GuessResult.HIT, testGame.guessLocation(true, new Coordinate(0, 0)));
+        assertEquals(GuessResult.NO_SHIP, GuessResult.HIT.getSunkShipId());
+
+        GuessResult sunk = testGame.guessLocation(true, new Coordinate(1, 0));
+        assertEquals(GuessOutcome.SUNK, sunk.getOutcome());
+        assertEquals(0, sunk.getSunkShipId());
+        assertTrue(sunk.isHit() && sunk.isSunk() && !sunk.isWin());
+
+        assertSame(GuessResult.ALREADY_GUESSED, testGame.guessLocation(true, new Coordinate(1, 0)));
+        assertSame(GuessResult.OUTSIDE_BOARD, testGame.guessLocation(true, new Coordinate(10, 0)));
+
+        GuessResult win = testGame.guessLocation(true, new Coordinate(5, 5));
+        assertEquals(GuessOutcome.WIN, win.getOutcome());
+        assertEquals(1, win.getSunkShipId());
+        assertSame(win, GuessResult.sunk(1, true));
+        assertTrue(win.isHit() && win.isSunk() && !win.isFail());
+
+        assertEquals("Player 1", testGame.checkWinner());
+        assertSame(GuessResult.GAME_OVER, testGame.guessLocation(false, new Coordinate(5, 5)));
+        assertEquals(GuessResult.sunk(1000, false), GuessResult.sunk(1000, false));
+    }
+
+    @Test
+    public void testConcurrentGuesses() throws InterruptedException {
+        int size = 40;
+        Game testGame = new Game(size, size);
+        FleetGenerator fleets = new FleetGenerator(size, size, Game.DEFAULT_SHIPS, 3);
+        assertTrue(testGame.setFleet(true, fleets.nextShips()));
+        assertTrue(testGame.setFleet(false, fleets.nextShips()));
+
+        /* Two threads race to guess every cell of player two's board; one races through player one's. */
+        AtomicInteger madeAtPlayerTwo = new AtomicInteger();
+        AtomicInteger sunkAtPlayerTwo = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 2; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < size * size; i++) {
+                    GuessResult result = testGame.guessLocation(true, new Coordinate(i % size, i / size));
+                    if (result != GuessResult.ALREADY_GUESSED) {
+                        madeAtPlayerTwo.incrementAndGet();
+                    }
+                    if (result.isSunk()) {
+                        sunkAtPlayerTwo.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        threads.add(new Thread(() -> {
+            for (int i = size * size - 1; i >= 0; i--) {
+                testGame.guessLocation(false, new Coordinate(i % size, i / size));
+            }
+        }));
+
+        /* Meanwhile, a spectator watches without ever seeing more ships sunk than exist. */
+        AtomicInteger badReads = new AtomicInteger();
+        Thread spectator = new Thread(() -> {
+            while (testGame.getEventLog().size() < 3 * size * size) {
+                int remaining = testGame.getShipsRemaining(false);
+                if (remaining < 0 || remaining > Game.DEFAULT_SHIPS.size()) {
+                    badReads.incrementAndGet();
+                }
+                testGame.getPlacedShips(true);
+            }
+        });
+
+        spectator.start();
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        spectator.join();
+
+        /* Every cell was guessed exactly once, and every ship sunk exactly once. */
+        assertEquals(size * size, madeAtPlayerTwo.get());
+        assertEquals(Game.DEFAULT_SHIPS.size(), sunkAtPlayerTwo.get());
+        assertEquals(0, testGame.getShipsRemaining(true));
+        assertEquals(0, testGame.getShipsRemaining(false));
+        assertEquals(0, badReads.get());
+        assertEquals("Tie", testGame.checkWinner());
+
+        /* The log holds player one's guesses in the order their board took them. */
+        EventLog log = testGame.getEventLog();
+        assertEquals(3 * size * size, log.size());
+        int afloat = Game.DEFAULT_SHIPS.size();
+        for (int i = 0; i < log.size(); i++) {
+            if (log.isPlayerOneAttacker(i) && log.getOutcome(i) == GuessOutcome.SUNK) {
+                afloat--;
+            } else if (log.isPlayerOneAttacker(i) && log.getOutcome(i) == GuessOutcome.WIN) {
+                assertEquals(1, afloat);
+                afloat--;
+            }
+        }
+        assertEquals(0, afloat);
+    }
+
+    @Test
+    public void testPhasesAndTurns() {
+        Game testGame = new Game(Board.DEFAULT_SIZE, Board.DEFAULT_SIZE, true);
+        assertTrue(testGame.isTurnEnforced());
+        assertTrue(testGame.setShip(true, new Ship("ship", new Coordinate(0, 0), new Coordinate(0, 0))));
+        assertTrue(testGame.setShip(false, new Ship("ship", new Coordinate(3, 3), new Coordinate(4, 3))));
+        assertEquals(GamePhase.PREPARATION, testGame.getPhase());
+
+        /* Player two guesses first, so takes the first turn. */
+        assertSame(GuessResult.MISS, testGame.guessLocation(false, new Coordinate(5, 5)));
+        assertEquals(GamePhase.PLAYING, testGame.getPhase());
+        assertTrue(testGame.isPlayerOneTurn());
+        assertFalse(testGame.setShip(true, new Ship("late ship", new Coordinate(9, 9), new Coordinate(9, 9))));
+
+        assertSame(GuessResult.OUT_OF_TURN, testGame.guessLocation(false, new Coordinate(0, 0)));
+        assertTrue(GuessResult.OUT_OF_TURN.isFail());
+
+        /* Hits and failed guesses keep the turn; a miss passes it. */
+        assertSame(GuessResult.HIT, testGame.guessLocation(true, new Coordinate(3, 3)));
+        assertSame(GuessResult.ALREADY_GUESSED, testGame.guessLocation(true, new Coordinate(3, 3)));
+        assertTrue(testGame.isPlayerOneTurn());
+        assertSame(GuessResult.MISS, testGame.guessLocation(true, new Coordinate(8, 8)));
+        assertFalse(testGame.isPlayerOneTurn());
+        assertSame(GuessResult.OUT_OF_TURN, testGame.guessLocation(true, new Coordinate(4, 3)));
+
+        assertSame(GuessResult.MISS, testGame.guessLocation(false, new Coordinate(6, 6)));
+        assertTrue(testGame.guessLocation(true, new Coordinate(4, 3)).isWin());
+
+        /* A winning guess ends the game straight away. */
+        assertEquals(GamePhase.OVER, testGame.getPhase());
+        assertSame(GuessResult.GAME_OVER, testGame.guessLocation(false, new Coordinate(0, 0)));
+        assertEquals("Player 1", testGame.checkWinner());
+        assertEquals("out of turn", testGame.getEventLog().getEvent(1).getExtraInfo());
+    }
+
+    @Test
+    public void testUnenforcedTurnsTracked() {
+        Game testGame = new Game();
+        assertFalse(testGame.isTurnEnforced());
+        assertTrue(testGame.setShip(true, new Ship("ship", new Coordinate(3, 3), new Coordinate(3, 3))));
+        assertTrue(testGame.setShip(false, new Ship("ship", new Coordinate(3, 3), new Coordinate(3, 3))));
+
+        assertSame(GuessResult.MISS, testGame.guessLocation(true, new Coordinate(0, 0)));
+        assertFalse(testGame.isPlayerOneTurn());
+
+        /* Accepted anyway, but still counted as player one's hit. */
+        assertTrue(testGame.guessLocation(true, new Coordinate(3, 3)).isWin());
+        assertTrue(testGame.isPlayerOneTurn());
+        assertEquals(GamePhase.PLAYING, testGame.getPhase());
+
+        assertEquals("Player 1", testGame.checkWinner());
+        assertEquals(GamePhase.OVER, testGame.getPhase());
+
+        Game endedGame = new Game();
+        endedGame.endGame();
+        assertEquals(GamePhase.OVER, endedGame.getPhase());
+        assertSame(GuessResult.GAME_OVER, endedGame.guessLocation(true, new Coordinate(0, 0)));
+    }
+
+    @Test
+    public void testConcurrentGuessesTakeTurns() throws InterruptedException {
+        int size = 30;
+        Game testGame = new Game(size, size, true);
+        FleetGenerator fleets = new FleetGenerator(size, size, Game.DEFAULT_SHIPS, 11);
+        assertTrue(testGame.setFleet(true, fleets.nextShips()));
+        assertTrue(testGame.setFleet(false, fleets.nextShips()));
+
+        /* Several threads per player fire at cells whether or not it is their turn, backing off when turned away. */
+        long deadline = System.nanoTime() + 20_000_000_000L;
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 6; t++) {
+            boolean isPlayerOne = t % 2 == 0;
+            int offset = t * 7;
+            threads.add(new Thread(() -> {
+                for (int i = 0; testGame.getPhase() != GamePhase.OVER && System.nanoTime() < deadline; i++) {
+                    int cell = (i + offset) % (size * size);
+                    if (testGame.guessLocation(isPlayerOne, new Coordinate(cell % size, cell / size)).isFail()) {
+                        Thread.yield();
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        /* Replaying the accepted guesses shows every one was made in turn. */
+        assertEquals(GamePhase.OVER, testGame.getPhase());
+        EventLog log = testGame.getEventLog();
+        Boolean playerOneToMove = null;
+        int wins = 0;
+        for (int i = 0; i < log.size(); i++) {
+            GuessOutcome outcome = log.getOutcome(i);
+            if (outcome == GuessOutcome.OUT_OF_TURN || outcome == GuessOutcome.GAME_OVER) {
+                continue;
+            }
+
+            boolean attacker = log.isPlayerOneAttacker(i);
+            if (playerOneToMove != null) {
+                assertEquals(playerOneToMove, attacker);
+            }
+            playerOneToMove = outcome == GuessOutcome.MISS ? !attacker : attacker;
+            if (outcome == GuessOutcome.WIN) {
+                wins++;
+            }
+        }
+        assertEquals(1, wins);
+    }
+
+    @Test
+    public void testCellsAreCopies() {
+        Game testGame = new Game();
+        testGame.setShip(false, new Ship("Patrol", new Coordinate(2, 2), new Coordinate(2, 3)));
+        Cell untouched = testGame.getCell(false, 5, 5);
+        Cell shipCell = testGame.getCell(false, 2, 2);
+        List<Cell> shipCells = testGame.getAssociatedShipCells(false, 2, 3);
+        assertNull(testGame.getCell(false, 10, 0));
+
+        testGame.guessLocation(true, new Coordinate(5, 5));
+        testGame.guessLocation(true, new Coordinate(2, 2));
+        testGame.guessLocation(true, new Coordinate(2, 3));
+
+        /* Cells stay as they stood when taken, however they were stored on the board. */
+        assertFalse(untouched.isGuessed());
+        assertFalse(shipCell.isGuessed());
+        assertEquals("Patrol", shipCell.getShipName());
+        assertFalse(shipCells.get(0).isShipSunk());
+        assertThrows(UnsupportedOperationException.class, () -> shipCells.remove(0));
+
+        assertTrue(testGame.getCell(false, 5, 5).isGuessed());
+        assertTrue(testGame.getAssociatedShipCells(false, 2, 2).get(1).isShipSunk());
+    }
 }
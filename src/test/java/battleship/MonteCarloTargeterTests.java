@@ -0,0 +1,53 @@
+package battleship;
+
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MonteCarloTargeterTests {
+
+    @Test
+    public void testWinsGames() {
+        FleetGenerator fleets = new FleetGenerator(11);
+        ForkJoinPool pool = new ForkJoinPool(2);
+
+        try {
+            for (int i = 0; i < 5; i++) {
+                Game testGame = new Game();
+                assertTrue(testGame.setFleet(true, fleets.nextShips()));
+                assertTrue(testGame.setFleet(false, fleets.nextShips()));
+                MonteCarloTargeter engine = new MonteCarloTargeter(testGame, false, i, pool, Duration.ofMillis(2));
+
+                GuessResult result;
+                int shots = 0;
+                do {
+                    result = engine.takeShot();
+                    shots++;
+                    assertFalse(result.isFail());
+                    assertTrue(engine.getLastSampleCount() > 0);
+                    assertTrue(engine.getLastSamplesPerSecond() > 0);
+                } while (!result.isWin());
+
+                assertEquals("Player 2", testGame.checkWinner());
+                assertTrue(shots < 100);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testFollowsUpHits() {
+        Game testGame = new Game();
+        assertTrue(testGame.setShip(false, new Ship("Carrier", new Coordinate(2, 4), new Coordinate(6, 4))));
+        MonteCarloTargeter engine = new MonteCarloTargeter(testGame, true, 1, ForkJoinPool.commonPool(), Duration.ofMillis(5));
+
+        GuessResult result = testGame.guessLocation(true, new Coordinate(4, 4));
+        engine.recordShot(4, 4, result);
+
+        Position next = engine.chooseShot();
+        assertEquals(1, Math.abs(next.getX() - 4) + Math.abs(next.getY() - 4));
+        assertTrue(engine.getLastAcceptedSampleCount() > 0);
+    }
+}
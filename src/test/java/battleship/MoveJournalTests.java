@@ -0,0 +1,197 @@
+package battleship;
+
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import static battleship.GameAssertions.assertSameState;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoveJournalTests {
+
+    @Test
+    public void testRecover() throws IOException, InterruptedException {
+        Path file = Files.createTempFile("battleship", ".journal");
+        try {
+            Game game = new Game(Board.DEFAULT_SIZE, Board.DEFAULT_SIZE, true);
+            Game unenforced = new Game(20, 30);
+            try (MoveJournal journal = new MoveJournal(file)) {
+                game.setJournal(journal, 7);
+                unenforced.setJournal(journal, 3);
+                assertEquals(7, journal.getLastGameId());
+                assertThrows(IllegalStateException.class, () -> game.setJournal(journal, 8));
+
+                assertTrue(game.setShip(true, new Ship("Cruiser", new Coordinate(0, 0), new Coordinate(0, 2))));
+                assertFalse(game.setShip(true, new Ship("Overlap", new Coordinate(0, 1), new Coordinate(1, 1))));
+                assertTrue(game.setFleet(false, List.of(new Ship("Patrol", new Coordinate(3, 3), new Coordinate(3, 4)),
+                        new Ship(null, new Coordinate(9, 9), new Coordinate(9, 9)))));
+
+                /* Only guesses the game accepts are journalled. */
+                game.guessLocation(true, new Coordinate(3, 3));
+                game.guessLocation(true, new Coordinate(3, 3));
+                game.guessLocation(true, new Coordinate(5, 5));
+                game.guessLocation(true, new Coordinate(6, 6));
+                game.guessLocation(false, new Coordinate(0, 0));
+                game.guessLocation(false, new Coordinate(40, 0));
+
+                unenforced.setShip(false, new Ship("far", new Coordinate(19, 29), new Coordinate(19, 28)));
+                unenforced.guessLocation(false, new Coordinate(1, 1));
+                unenforced.guessLocation(false, new Coordinate(2, 1));
+                unenforced.endGame();
+
+                /* Each game knows its own last record, so waiters need not wait for other games' moves. */
+                assertEquals(7, game.getLastJournalRecord());
+                assertEquals(11, unenforced.getLastJournalRecord());
+                assertEquals(0, new Game().getLastJournalRecord());
+
+                journal.awaitDurable(journal.getAppendedCount());
+                assertEquals(journal.getAppendedCount(), journal.getDurableCount());
+            }
+
+            Map<Long, Game> games = MoveJournal.recover(file);
+            assertEquals(List.of(7L, 3L), new ArrayList<>(games.keySet()));
+
+            Game restored = games.get(7L);
+            assertSameState(game, restored);
+            assertEquals(3, restored.getEventLog().size());
+            assertNull(restored.getPlacedShips(false).get(1).getName());
+            assertFalse(restored.isPlayerOneTurn());
+            assertEquals(GuessResult.OUT_OF_TURN, restored.guessLocation(true, new Coordinate(9, 9)));
+
+            assertSameState(unenforced, games.get(3L));
+            assertEquals(GamePhase.OVER, games.get(3L).getPhase());
+            assertEquals(30, games.get(3L).getBoardHeight(true));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testTornTail() throws IOException, InterruptedException {
+        Path file = Files.createTempFile("battleship", ".journal");
+        try {
+            Game game = new Game();
+            try (MoveJournal journal = new MoveJournal(file)) {
+                game.setJournal(journal, 1);
+                game.setShip(true, new Ship("ship", new Coordinate(0, 0), new Coordinate(0, 1)));
+                game.setShip(false, new Ship("ship", new Coordinate(4, 4), new Coordinate(4, 5)));
+                game.guessLocation(true, new Coordinate(4, 4));
+            }
+
+            /* A crash part way through the last guess leaves it cut short. */
+            long size = Files.size(file);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(size - 5);
+            }
+            Game restored = MoveJournal.recover(file).get(1L);
+            assertEquals(GamePhase.PREPARATION, restored.getPhase());
+            assertEquals(1, restored.getPlacedShips(false).size());
+
+            /* Reopening cuts the torn record off, so new records follow the last whole one. */
+            Game next = new Game();
+            try (MoveJournal journal = new MoveJournal(file)) {
+                assertEquals(1, journal.getLastGameId());
+                next.setJournal(journal, 2);
+                next.setShip(true, new Ship("ship", new Coordinate(2, 2), new Coordinate(3, 2)));
+            }
+            Map<Long, Game> games = MoveJournal.recover(file);
+            assertEquals(2, games.size());
+            assertEquals(1, games.get(2L).getPlacedShips(true).size());
+
+            /* A corrupt record ends the journal as well. */
+            byte[] bytes = Files.readAllBytes(file);
+            bytes[bytes.length - 3] ^= 1;
+            Files.write(file, bytes);
+            assertEquals(0, MoveJournal.recover(file).get(2L).getPlacedShips(true).size());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testManyGamesShareCommits() throws IOException, InterruptedException {
+        Path file = Files.createTempFile("battleship", ".journal");
+        int threads = 8;
+        int gamesEach = 25;
+        FleetGenerator fleets = new FleetGenerator(Board.DEFAULT_SIZE, Board.DEFAULT_SIZE, Game.DEFAULT_SHIPS, 5);
+        List<Game> games = new ArrayList<>();
+        try {
+            try (MoveJournal journal = new MoveJournal(file)) {
+                for (int i = 0; i < threads * gamesEach; i++) {
+                    Game game = new Game(Board.DEFAULT_SIZE, Board.DEFAULT_SIZE, true);
+                    game.setJournal(journal, i + 1);
+                    game.setFleet(true, fleets.nextShips());
+                    game.setFleet(false, fleets.nextShips());
+                    games.add(game);
+                }
+
+                /* Every thread waits on each of its moves, as a server would before replying. */
+                CountDownLatch done = new CountDownLatch(threads);
+                AtomicInteger errors = new AtomicInteger();
+                for (int t = 0; t < threads; t++) {
+                    List<Game> mine = games.subList(t * gamesEach, (t + 1) * gamesEach);
+                    new Thread(() -> {
+                        try {
+                            for (int cell = 0; cell < 40; cell++) {
+                                for (Game game : mine) {
+                                    Coordinate target = new Coordinate(cell % 10, cell / 10);
+                                    if (!game.guessLocation(game.isPlayerOneTurn(), target).isFail()) {
+                                        journal.awaitDurable(journal.getAppendedCount());
+                                    }
+                                }
+                            }
+                        } catch (IOException | InterruptedException e) {
+                            errors.incrementAndGet();
+                        } finally {
+                            done.countDown();
+                        }
+                    }).start();
+                }
+                done.await();
+                assertEquals(0, errors.get());
+            }
+
+            Map<Long, Game> restored = MoveJournal.recover(file);
+            assertEquals(games.size(), restored.size());
+            for (int i = 0; i < games.size(); i++) {
+                assertSameState(games.get(i), restored.get(i + 1L));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testWhenDurable() throws IOException, InterruptedException {
+        Path file = Files.createTempFile("battleship", ".journal");
+        try {
+            MoveJournal journal = new MoveJournal(file);
+            new Game().setJournal(journal, 1);
+            CountDownLatch written = new CountDownLatch(1);
+            journal.whenDurable(journal.getAppendedCount(), written::countDown);
+            written.await();
+            assertNull(journal.getFailure());
+            journal.close();
+
+            /* A clean close is not a failure, and nothing can be appended once closed. */
+            assertNull(journal.getFailure());
+            journal.awaitDurable(journal.getAppendedCount());
+            assertThrows(IllegalStateException.class, () -> new Game().setJournal(journal, 2));
+            assertThrows(IllegalStateException.class, () -> journal.appendGuess(1, true, 0, 0));
+            assertThrows(IOException.class, () -> journal.awaitDurable(journal.getAppendedCount() + 1));
+            boolean[] called = {false};
+            journal.whenDurable(journal.getAppendedCount() + 1, () -> called[0] = true);
+            assertTrue(called[0]);
+            assertEquals(1, MoveJournal.recover(file).size());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package battleship;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PlacementMasksTests {
+
+    @Test
+    public void testSharedPerBoardSize() {
+        assertSame(PlacementMasks.forBoard(10, 10), PlacementMasks.forBoard(10, 10));
+        assertNotSame(PlacementMasks.forBoard(10, 10), PlacementMasks.forBoard(10, 11));
+        assertThrows(IllegalArgumentException.class, () -> PlacementMasks.forBoard(0, 10));
+        assertThrows(IllegalArgumentException.class, () -> PlacementMasks.forBoard(32768, 32768));
+        assertThrows(IllegalArgumentException.class, () -> PlacementMasks.forBoard(10000, 10000));
+        assertThrows(IllegalArgumentException.class, () -> PlacementMasks.forBoard(Integer.MAX_VALUE, 1));
+    }
+
+    @Test
+    public void testCacheIsBounded() {
+        PlacementMasks first = PlacementMasks.forBoard(7, 7);
+        for (int width = 1; width <= 100; width++) {
+            PlacementMasks.forBoard(width, 1);
+        }
+
+        /* Evicted masks still work, but are no longer the shared ones. */
+        assertNotSame(first, PlacementMasks.forBoard(7, 7));
+        assertEquals(49, first.placementCount(1));
+    }
+
+    @Test
+    public void testPlacementCounts() {
+        PlacementMasks masks = PlacementMasks.forBoard(10, 10);
+
+        assertEquals(100, masks.placementCount(1));
+        assertEquals(120, masks.placementCount(5));
+        assertEquals(20, masks.placementCount(10));
+        assertEquals(0, PlacementMasks.forBoard(3, 3).placementCount(4));
+        assertThrows(IllegalArgumentException.class, () -> masks.placementCount(Ship.SIZE_LIMIT + 1));
+    }
+
+    @Test
+    public void testPlacementLookup() {
+        PlacementMasks masks = PlacementMasks.forBoard(10, 10);
+
+        int horizontal = masks.placementOf(3, 7, 4, true);
+        assertEquals(3, masks.placementX(4, horizontal));
+        assertEquals(7, masks.placementY(4, horizontal));
+        assertTrue(masks.isHorizontal(4, horizontal));
+
+        int vertical = masks.placementOf(9, 6, 4, false);
+        assertEquals(9, masks.placementX(4, vertical));
+        assertEquals(6, masks.placementY(4, vertical));
+        assertFalse(masks.isHorizontal(4, vertical));
+
+        assertEquals(-1, masks.placementOf(7, 0, 4, true));
+        assertEquals(-1, masks.placementOf(0, 7, 4, false));
+        assertEquals(-1, masks.placementOf(-1, 0, 2, true));
+    }
+
+    @Test
+    public void testMasksMatchBitBoard() throws Exception {
+        PlacementMasks masks = PlacementMasks.forBoard(130, 3);
+        long[] mask = new long[masks.wordCount()];
+        masks.set(3, masks.placementOf(62, 0, 3, true), mask);
+        masks.set(3, masks.placementOf(129, 0, 3, false), mask);
+
+        BitBoard board = new BitBoard(130, 3);
+        board.placeShip(62, 0, 3, true);
+        board.placeShip(129, 0, 3, false);
+        long[] expected = new long[board.wordCount()];
+        board.copyOccupiedMask(expected);
+
+        assertArrayEquals(expected, mask);
+    }
+
+    @Test
+    public void testCanPlaceAndCountFits() {
+        PlacementMasks masks = PlacementMasks.forBoard(10, 10);
+        long[] occupied = new long[masks.wordCount()];
+
+        assertTrue(masks.canPlace(0, 0, 5, true, occupied));
+        masks.set(5, masks.placementOf(0, 0, 5, true), occupied);
+
+        assertFalse(masks.canPlace(4, 0, 2, true, occupied));
+        assertFalse(masks.canPlace(2, 0, 3, false, occupied));
+        assertTrue(masks.canPlace(5, 0, 5, true, occupied));
+        assertFalse(masks.canPlace(6, 0, 5, true, occupied));
+
+        /* Blocking row 0 from x = 0 to 4 rules out 5 horizontal and 5 vertical placements of length 2. */
+        assertEquals(180 - 10, masks.countFits(2, occupied));
+    }
+}
@@ -0,0 +1,26 @@
+package battleship;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PositionTests {
+
+    @Test
+    public void testInterning() {
+        assertSame(Position.of(3, 7), Position.of(3, 7));
+        assertSame(Position.of(3, 7), new Coordinate(3, 7).getPosition());
+        assertEquals(Position.of(5000, -2), Position.of(5000, -2));
+        assertNotEquals(Position.of(7, 3), Position.of(3, 7));
+    }
+
+    @Test
+    public void testPacking() {
+        long packed = Position.pack(-12, Integer.MAX_VALUE);
+
+        assertEquals(-12, Position.unpackX(packed));
+        assertEquals(Integer.MAX_VALUE, Position.unpackY(packed));
+        assertEquals(Position.of(-12, Integer.MAX_VALUE), Position.fromPacked(packed));
+        assertEquals(Position.of(9, 4).toPacked(), Position.pack(9, 4));
+        assertEquals(new Coordinate(9, 4), Position.of(9, 4).toCoordinate());
+    }
+}
@@ -1,6 +1,7 @@
 package battleship;
 
 import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
 import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -179,7 +180,7 @@ public class ShipTests {
         assertFalse(myShipA.isSunk());
         assertFalse(myShipB.isSunk());
 
-        List<Coordinate> allShipCoords = myShipA.getCoordinates();
+        List<Coordinate> allShipCoords = new ArrayList<>(myShipA.getCoordinates());
         allShipCoords.addAll(myShipB.getCoordinates());
 
         for (Coordinate c : allShipCoords) {
@@ -214,4 +215,15 @@ public class ShipTests {
         assertTrue(myShipMutated.isSunk());
         assertFalse(myShipUnmutated.isSunk());
     }
+
+    @Test
+    public void testCoordinatesView() {
+        Ship myShip = new Ship("Read Only Ship", new Coordinate(2, 2), new Coordinate(2, 4));
+        List<Coordinate> shipCoords = myShip.getCoordinates();
+
+        assertSame(shipCoords, myShip.getCoordinates());
+        assertThrows(UnsupportedOperationException.class, () -> shipCoords.add(new Coordinate(2, 5)));
+        assertThrows(UnsupportedOperationException.class, shipCoords::clear);
+        assertEquals(3, myShip.getShipLength());
+    }
 }
@@ -0,0 +1,84 @@
+package battleship;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TargetingAITests {
+
+    @Test
+    public void testWinsEveryGame() {
+        FleetGenerator fleets = new FleetGenerator(5);
+        int totalShots = 0;
+
+        for (int i = 0; i < 50; i++) {
+            Game testGame = new Game();
+            assertTrue(testGame.setFleet(true, fleets.nextShips()));
+            assertTrue(testGame.setFleet(false, fleets.nextShips()));
+            TargetingAI ai = new TargetingAI(testGame, true, i);
+
+            int shots = 0;
+            GuessResult result;
+            do {
+                result = ai.takeShot();
+                shots++;
+                assertFalse(result.isFail());
+            } while (!result.isWin());
+
+            assertEquals("Player 1", testGame.checkWinner());
+            assertEquals(0, ai.shipsRemaining());
+            totalShots += shots;
+        }
+
+        /* Shooting at random averages over 95 shots; a density AI should need far fewer. */
+        assertTrue(totalShots / 50 < 60);
+    }
+
+    @Test
+    public void testFollowsUpHits() {
+        Game testGame = new Game();
+        assertTrue(testGame.setShip(true, new Ship("Carrier", new Coordinate(2, 4), new Coordinate(6, 4))));
+        TargetingAI ai = new TargetingAI(testGame, false, 1);
+
+        GuessResult result = testGame.guessLocation(false, new Coordinate(4, 4));
+        ai.recordShot(4, 4, result);
+
+        Position next = ai.chooseShot();
+        assertEquals(1, Math.abs(next.getX() - 4) + Math.abs(next.getY() - 4));
+    }
+
+    @Test
+    public void testLargeBoard() {
+        Game testGame = new Game(200, 150);
+        assertTrue(testGame.setFleet(false, new FleetGenerator(200, 150, Game.DEFAULT_SHIPS, 3).nextShips()));
+        TargetingAI ai = new TargetingAI(testGame, true, 3);
+
+        for (int i = 0; i < 100; i++) {
+            assertFalse(ai.takeShot().isFail());
+        }
+    }
+
+    @Test
+    public void testLearnsSunkShipBesideAnother() {
+        Game testGame = new Game();
+        assertTrue(testGame.setShip(true, new Ship("Destroyer", new Coordinate(3, 3), new Coordinate(4, 3))));
+        assertTrue(testGame.setShip(true, new Ship("Cruiser", new Coordinate(5, 3), new Coordinate(7, 3))));
+        TargetingAI ai = new TargetingAI(testGame, false, 1);
+        assertEquals(1, testGame.getShipId(true, 5, 3));
+        assertEquals(GuessResult.NO_SHIP, testGame.getShipId(true, -1, 3));
+
+        GuessResult result = testGame.guessLocation(false, new Coordinate(4, 3));
+        ai.recordShot(4, 3, result);
+        result = testGame.guessLocation(false, new Coordinate(3, 3));
+        assertTrue(result.isSunk());
+        ai.recordShot(3, 3, result);
+
+        // Only the destroyer is learned as sunk, so the cruiser is followed up as an unsunk hit.
+        assertEquals(Game.DEFAULT_SHIPS.size() - 1, ai.shipsRemaining());
+        result = testGame.guessLocation(false, new Coordinate(5, 3));
+        assertTrue(result.isHit());
+        ai.recordShot(5, 3, result);
+        Position next = ai.chooseShot();
+        assertEquals(1, Math.abs(next.getX() - 5) + Math.abs(next.getY() - 3));
+        assertNotEquals(4, next.getX());
+    }
+}
@@ -0,0 +1,288 @@
+package battleship.server;
+
+import battleship.Board;
+import battleship.Game;
+import battleship.GuessOutcome;
+import battleship.MoveJournal;
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinaryServerTests {
+    /* Ends of each ship in the default fleet, one ship per row. */
+    private static final int[][] FLEET = {{0, 0, 4, 0}, {0, 1, 3, 1}, {0, 2, 2, 2}, {0, 3, 2, 3}, {0, 4, 1, 4}};
+
+    @Test
+    public void testPacking() {
+        assertEquals(3, BinaryProtocol.unpackX(BinaryProtocol.pack(3, 7)));
+        assertEquals(7, BinaryProtocol.unpackY(BinaryProtocol.pack(3, 7)));
+        assertEquals(-2, BinaryProtocol.unpackX(BinaryProtocol.pack(-2, -11)));
+        assertEquals(-11, BinaryProtocol.unpackY(BinaryProtocol.pack(-2, -11)));
+        assertEquals(Short.MAX_VALUE, BinaryProtocol.unpackY(BinaryProtocol.pack(0, Short.MAX_VALUE)));
+    }
+
+    @Test
+    public void testScriptedGame() throws IOException {
+        try (BinaryServer server = new BinaryServer(0);
+             Client one = new Client(server.getPort());
+             Client two = new Client(server.getPort())) {
+            one.out.writeByte(BinaryProtocol.NEW);
+            one.flush();
+            assertEquals(BinaryProtocol.GAME, one.in.readByte());
+            long id = one.in.readLong();
+            assertEquals(1, one.in.readByte());
+
+            two.out.writeByte(BinaryProtocol.JOIN);
+            two.out.writeLong(id + 100);
+            two.out.writeByte(BinaryProtocol.JOIN);
+            two.out.writeLong(id);
+            two.flush();
+            assertError(two, BinaryProtocol.CANNOT_JOIN);
+            assertEquals(BinaryProtocol.GAME, two.in.readByte());
+            assertEquals(id, two.in.readLong());
+            assertEquals(2, two.in.readByte());
+
+            /* Nobody fires until both fleets are placed; player one is told when it may. */
+            fire(one, 0, 0);
+            one.flush();
+            assertError(one, BinaryProtocol.NOT_READY);
+            writeFleet(one);
+            writeFleet(two);
+            assertEquals(BinaryProtocol.OK, one.in.readByte());
+            assertEquals(BinaryProtocol.OK, two.in.readByte());
+            assertEquals(BinaryProtocol.TURN, one.in.readByte());
+
+            /* Several shots sent at once are answered in order. */
+            fire(one, 0, 0);
+            fire(one, 0, 0);
+            fire(one, 99, 0);
+            fire(one, 9, 9);
+            one.flush();
+            assertResult(one, GuessOutcome.HIT);
+            assertResult(one, GuessOutcome.ALREADY_GUESSED);
+            assertResult(one, GuessOutcome.OUTSIDE_BOARD);
+            assertResult(one, GuessOutcome.MISS);
+
+            /* Player two is pushed player one's shots, failures aside, then its turn. */
+            assertEvent(two, GuessOutcome.HIT, 0, 0);
+            assertEvent(two, GuessOutcome.MISS, 9, 9);
+            assertEquals(BinaryProtocol.TURN, two.in.readByte());
+
+            for (int[] ship : FLEET) {
+                for (int x = ship[0]; x <= ship[2]; x++) {
+                    fire(two, x, ship[1]);
+                }
+            }
+            two.flush();
+            for (int i = 0; i < 16; i++) {
+                byte outcome = readResult(two);
+                assertTrue(outcome == GuessOutcome.HIT.ordinal() || outcome == GuessOutcome.SUNK.ordinal());
+            }
+            assertEquals(GuessOutcome.WIN.ordinal(), readResult(two));
+            assertEquals(BinaryProtocol.OVER, two.in.readByte());
+            assertEquals(2, two.in.readByte());
+
+            for (int i = 0; i < 17; i++) {
+                assertEquals(BinaryProtocol.EVENT, one.in.readByte());
+                one.in.skipBytes(6);
+            }
+            assertEquals(BinaryProtocol.OVER, one.in.readByte());
+            assertEquals(2, one.in.readByte());
+
+            fire(one, 5, 5);
+            one.out.writeByte(BinaryProtocol.QUIT);
+            one.flush();
+            assertResult(one, GuessOutcome.GAME_OVER);
+            assertEquals(BinaryProtocol.BYE, one.in.readByte());
+            assertEquals(-1, one.in.read());
+        }
+    }
+
+    @Test
+    public void testBadFrames() throws IOException {
+        try (BinaryServer server = new BinaryServer(0);
+             Client client = new Client(server.getPort())) {
+            fire(client, 0, 0);
+            client.out.writeByte(BinaryProtocol.NEW);
+            client.out.writeByte(BinaryProtocol.FLEET);
+            client.out.writeByte(1);
+            client.out.writeInt(BinaryProtocol.pack(0, 0));
+            client.out.writeInt(BinaryProtocol.pack(2, 2));
+            client.out.writeByte(BinaryProtocol.RANDOM);
+            client.out.writeByte(BinaryProtocol.RANDOM);
+            client.out.writeByte(0x7F);
+            client.flush();
+
+            assertError(client, BinaryProtocol.NO_GAME);
+            assertEquals(BinaryProtocol.GAME, client.in.readByte());
+            client.in.skipBytes(9);
+            assertError(client, BinaryProtocol.INVALID_FLEET);
+            assertEquals(BinaryProtocol.OK, client.in.readByte());
+            assertError(client, BinaryProtocol.INVALID_FLEET);
+
+            /* An unknown opcode cannot be framed past, so the server hangs up. */
+            assertError(client, BinaryProtocol.BAD_FRAME);
+            assertEquals(-1, client.in.read());
+        }
+    }
+
+    @Test
+    public void testJournalledGame() throws IOException {
+        Path file = Files.createTempFile("battleship", ".journal");
+        try (MoveJournal journal = new MoveJournal(file);
+             BinaryServer server = new BinaryServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                     Board.DEFAULT_SIZE, Board.DEFAULT_SIZE, 1, journal);
+             Client one = new Client(server.getPort());
+             Client two = new Client(server.getPort())) {
+            one.out.writeByte(BinaryProtocol.NEW);
+            one.flush();
+            assertEquals(BinaryProtocol.GAME, one.in.readByte());
+            long id = one.in.readLong();
+            one.in.readByte();
+            two.out.writeByte(BinaryProtocol.JOIN);
+            two.out.writeLong(id);
+            two.flush();
+            two.in.skipBytes(10);
+
+            writeFleet(one);
+            two.out.writeByte(BinaryProtocol.RANDOM);
+            two.flush();
+            assertEquals(BinaryProtocol.OK, one.in.readByte());
+            assertEquals(BinaryProtocol.OK, two.in.readByte());
+            assertEquals(BinaryProtocol.TURN, one.in.readByte());
+            fire(one, 0, 9);
+            one.flush();
+            readResult(one);
+
+            /* The opponent is only told of a shot once it is on disk, as is the shooter. */
+            assertEquals(BinaryProtocol.EVENT, two.in.readByte());
+            two.in.skipBytes(6);
+            Game recovered = MoveJournal.recover(file).get(id);
+            assertTrue(recovered.getCell(false, 0, 9).isGuessed());
+            assertEquals(5, recovered.getPlacedShips(false).size());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testFailingSessionIsClosedAlone() throws IOException {
+        Path file = Files.createTempFile("battleship", ".journal");
+        try (MoveJournal journal = new MoveJournal(file);
+             BinaryServer server = new BinaryServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                     Board.DEFAULT_SIZE, Board.DEFAULT_SIZE, 1, journal);
+             Client one = new Client(server.getPort());
+             Client two = new Client(server.getPort());
+             Client bystander = new Client(server.getPort())) {
+            one.out.writeByte(BinaryProtocol.NEW);
+            one.flush();
+            assertEquals(BinaryProtocol.GAME, one.in.readByte());
+            long id = one.in.readLong();
+            one.in.readByte();
+            two.out.writeByte(BinaryProtocol.JOIN);
+            two.out.writeLong(id);
+            two.flush();
+            two.in.skipBytes(10);
+            writeFleet(one);
+            writeFleet(two);
+            assertEquals(BinaryProtocol.OK, one.in.readByte());
+            assertEquals(BinaryProtocol.OK, two.in.readByte());
+            assertEquals(BinaryProtocol.TURN, one.in.readByte());
+
+            /* A closed journal refuses the shot by throwing, which must only cost the shooter its connection. */
+            journal.close();
+            fire(one, 0, 9);
+            one.flush();
+            assertEquals(-1, one.in.read());
+
+            bystander.out.writeByte(BinaryProtocol.JOIN);
+            bystander.out.writeLong(id + 100);
+            bystander.flush();
+            assertError(bystander, BinaryProtocol.CANNOT_JOIN);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testBoardTooLarge() {
+        assertThrows(IllegalArgumentException.class, () -> new BinaryServer(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 40000, 10, 1));
+    }
+
+    /**
+     * Helper for writing the default fleet as a FLEET request.
+     * @param client the client to write to.
+     */
+    private static void writeFleet(Client client) throws IOException {
+        client.out.writeByte(BinaryProtocol.FLEET);
+        client.out.writeByte(FLEET.length);
+        for (int[] ship : FLEET) {
+            client.out.writeInt(BinaryProtocol.pack(ship[0], ship[1]));
+            client.out.writeInt(BinaryProtocol.pack(ship[2], ship[3]));
+        }
+        client.flush();
+    }
+
+    private static void fire(Client client, int x, int y) throws IOException {
+        client.out.writeByte(BinaryProtocol.FIRE);
+        client.out.writeInt(BinaryProtocol.pack(x, y));
+    }
+
+    private static byte readResult(Client client) throws IOException {
+        assertEquals(BinaryProtocol.RESULT, client.in.readByte());
+        byte outcome = client.in.readByte();
+        client.in.readByte();
+        return outcome;
+    }
+
+    private static void assertResult(Client client, GuessOutcome expected) throws IOException {
+        assertEquals(expected.ordinal(), readResult(client));
+    }
+
+    private static void assertError(Client client, byte reason) throws IOException {
+        assertEquals(BinaryProtocol.ERROR, client.in.readByte());
+        assertEquals(reason, client.in.readByte());
+    }
+
+    private static void assertEvent(Client client, GuessOutcome outcome, int x, int y) throws IOException {
+        assertEquals(BinaryProtocol.EVENT, client.in.readByte());
+        assertEquals(outcome.ordinal(), client.in.readByte());
+        client.in.readByte();
+        assertEquals(BinaryProtocol.pack(x, y), client.in.readInt());
+    }
+
+    /**
+     * A client connection, buffering requests until flushed so they reach the server together.
+     */
+    private static final class Client implements AutoCloseable {
+        private final Socket socket;
+        private final DataInputStream in;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(buffer);
+
+        Client(int port) throws IOException {
+            this.socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            this.socket.setSoTimeout(10_000);
+            this.in = new DataInputStream(socket.getInputStream());
+        }
+
+        void flush() throws IOException {
+            socket.getOutputStream().write(buffer.toByteArray());
+            buffer.reset();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package battleship.server;
+
+import battleship.Board;
+import battleship.Game;
+import battleship.GamePhase;
+import battleship.MoveJournal;
+import org.junit.jupiter.api.Test;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameServerTests {
+    private static final String FLEET =
+            "FLEET 0 0 4 0  0 1 3 1  0 2 2 2  0 3 2 3  0 4 1 4";
+    private static final int[][] FLEET_CELLS = {
+            {0, 0}, {1, 0}, {2, 0}, {3, 0}, {4, 0},
+            {0, 1}, {1, 1}, {2, 1}, {3, 1},
+            {0, 2}, {1, 2}, {2, 2},
+            {0, 3}, {1, 3}, {2, 3},
+            {0, 4}, {1, 4}};
+
+    @Test
+    public void testScriptedGame() throws IOException, InterruptedException {
+        try (GameServer server = new GameServer(0);
+             Client one = new Client(server.getPort());
+             Client two = new Client(server.getPort())) {
+            String created = one.send("NEW");
+            assertTrue(created.matches("GAME \\d+ 1"));
+            String id = created.split(" ")[1];
+
+            assertEquals("ERR cannot join", two.send("JOIN 999"));
+            assertEquals("GAME " + id + " 2", two.send("JOIN " + id));
+            assertEquals(1, server.getGameCount());
+
+            /* Nobody fires until both fleets are placed. */
+            assertEquals("ERR not ready", one.send("FIRE 0 0"));
+            assertEquals("OK", one.send(FLEET));
+            assertEquals("ERR invalid fleet", one.send(FLEET));
+            assertEquals("ERR not ready", one.send("FIRE 0 0"));
+            assertEquals("OK", two.send(FLEET));
+
+            /* Player one opens, and keeps firing until they miss. */
+            assertEquals("OUT_OF_TURN", two.send("FIRE 0 0"));
+            assertEquals("TURN", one.send("WAIT"));
+            assertEquals("HIT", one.send("FIRE 0 0"));
+            assertEquals("ALREADY_GUESSED", one.send("FIRE 0 0"));
+            assertEquals("MISS", one.send("FIRE 9 9"));
+            assertEquals("OUT_OF_TURN", one.send("FIRE 8 8"));
+
+            assertEquals("TURN", two.send("WAIT"));
+            assertEquals("PLAYING 2 5 5", two.send("STATE"));
+            for (int i = 0; i < FLEET_CELLS.length - 1; i++) {
+                String reply = two.send("FIRE " + FLEET_CELLS[i][0] + " " + FLEET_CELLS[i][1]);
+                assertTrue(reply.equals("HIT") || reply.startsWith("SUNK "), reply);
+            }
+            assertTrue(two.send("FIRE 1 4").startsWith("WIN "));
+
+            assertEquals("OVER 2", one.send("WAIT"));
+            assertEquals("GAME_OVER", one.send("FIRE 8 8"));
+            assertEquals("OVER 2 0 5", one.send("STATE"));
+            assertEquals("BYE", one.send("QUIT"));
+            assertEquals("BYE", two.send("QUIT"));
+
+            /* The game is dropped once both players have gone. */
+            long deadline = System.currentTimeMillis() + 5000;
+            while (server.getGameCount() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(0, server.getGameCount());
+        }
+    }
+
+    @Test
+    public void testBadCommands() throws IOException {
+        try (GameServer server = new GameServer(0);
+             Client client = new Client(server.getPort())) {
+            assertEquals("ERR no game", client.send("FIRE 0 0"));
+            assertEquals("ERR bad arguments", client.send("JOIN x"));
+            assertTrue(client.send("new").startsWith("GAME "));
+
+            assertEquals("ERR unknown command", client.send("SURRENDER"));
+            assertEquals("ERR bad arguments", client.send("FIRE 0"));
+            assertEquals("ERR bad arguments", client.send("FLEET 0 0 4"));
+            assertEquals("ERR invalid fleet", client.send("FLEET 0 0 4 0"));
+            assertEquals("ERR invalid fleet", client.send("FLEET 0 0 4 4  0 1 3 1  0 2 2 2  0 3 2 3  0 4 1 4"));
+            assertEquals("OK", client.send("RANDOM"));
+            assertEquals("ERR invalid fleet", client.send("RANDOM"));
+        }
+    }
+
+    @Test
+    public void testLongLines() throws IOException {
+        try (GameServer server = new GameServer(0);
+             Client client = new Client(server.getPort())) {
+            assertEquals("ERR no game", client.send("X".repeat(ClientSession.MAX_LINE_LENGTH)));
+
+            /* A line that never ends is cut off once too long, rather than read forever. */
+            client.out.write("X".repeat(ClientSession.MAX_LINE_LENGTH + 1).getBytes(StandardCharsets.US_ASCII));
+            client.out.flush();
+            assertEquals("ERR line too long", client.in.readLine());
+            assertNull(client.in.readLine());
+        }
+    }
+
+    @Test
+    public void testLeavingEndsGame() throws IOException, InterruptedException {
+        try (GameServer server = new GameServer(0);
+             Client one = new Client(server.getPort())) {
+            String id = one.send("NEW").split(" ")[1];
+            assertEquals("OK", one.send("RANDOM"));
+
+            try (Client two = new Client(server.getPort())) {
+                assertTrue(two.send("JOIN " + id).startsWith("GAME "));
+                assertEquals("OK", two.send("RANDOM"));
+            }
+
+            /* Player two disconnecting ends the game for player one. */
+            long deadline = System.currentTimeMillis() + 5000;
+            while (!one.send("STATE").startsWith("OVER") && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals("OVER 0", one.send("WAIT"));
+            assertEquals("GAME_OVER", one.send("FIRE 0 0"));
+        }
+    }
+
+    @Test
+    public void testCloseDisconnectsClients() throws IOException {
+        GameServer server = new GameServer(0);
+        try (Client idle = new Client(server.getPort());
+             Client playing = new Client(server.getPort())) {
+            assertTrue(playing.send("NEW").startsWith("GAME "));
+
+            /* Sessions blocked reading from their sockets are cut off, rather than left waiting on the client. */
+            server.close();
+            assertNull(idle.in.readLine());
+            assertNull(playing.in.readLine());
+        }
+    }
+
+    @Test
+    public void testJournalledGame() throws IOException {
+        Path file = Files.createTempFile("battleship", ".journal");
+        try (MoveJournal journal = new MoveJournal(file)) {
+            InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+            try (GameServer server = new GameServer(address, Board.DEFAULT_SIZE, Board.DEFAULT_SIZE, journal);
+                 Client one = new Client(server.getPort());
+                 Client two = new Client(server.getPort())) {
+                String id = one.send("NEW").split(" ")[1];
+                two.send("JOIN " + id);
+                assertEquals("OK", one.send(FLEET));
+                assertEquals("OK", two.send(FLEET));
+                assertEquals("HIT", one.send("FIRE 0 0"));
+                assertEquals("MISS", one.send("FIRE 9 9"));
+
+                /* Every move answered is on disk already. */
+                Game recovered = MoveJournal.recover(file).get(Long.parseLong(id));
+                assertEquals(GamePhase.PLAYING, recovered.getPhase());
+                assertFalse(recovered.isPlayerOneTurn());
+                assertEquals(5, recovered.getPlacedShips(true).size());
+                assertTrue(recovered.getCell(false, 9, 9).isGuessed());
+                assertEquals(2, recovered.getEventLog().size());
+            }
+
+            /* A new server on the same journal carries on from the last id. */
+            try (GameServer server = new GameServer(address, Board.DEFAULT_SIZE, Board.DEFAULT_SIZE, journal);
+                 Client client = new Client(server.getPort())) {
+                assertEquals("GAME 2 1", client.send("NEW"));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testLatencyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentileMicros(0.5));
+
+        for (int micros = 1; micros <= 100; micros++) {
+            histogram.record(micros * 1000L);
+        }
+        histogram.record(123_456_000L);
+
+        assertEquals(101, histogram.getCount());
+        assertEquals(51, histogram.getPercentileMicros(0.5));
+        assertEquals(100, histogram.getPercentileMicros(0.99));
+
+        /* Large latencies are kept to three significant figures. */
+        long max = histogram.getPercentileMicros(1);
+        assertTrue(max >= 123_456 && max < 124_000, Long.toString(max));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentileMicros(1.5));
+    }
+
+    /**
+     * A client connection, sending one command at a time.
+     */
+    private static final class Client implements AutoCloseable {
+        private final Socket socket;
+        private final BufferedReader in;
+        private final OutputStream out;
+
+        Client(int port) throws IOException {
+            this.socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            this.socket.setSoTimeout(10_000);
+            this.in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            this.out = socket.getOutputStream();
+        }
+
+        String send(String command) throws IOException {
+            out.write((command + "\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            return in.readLine();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
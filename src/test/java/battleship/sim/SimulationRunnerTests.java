@@ -0,0 +1,52 @@
+package battleship.sim;
+
+import battleship.TargetingAI;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SimulationRunnerTests {
+
+    @Test
+    public void testTotalsAddUp() {
+        SimulationRunner runner = new SimulationRunner(TargetingAI::new, TargetingAI::new);
+        SimulationResult result = runner.run(200, 4, 1);
+
+        assertEquals(200, result.getGames());
+        assertEquals(200, result.getWins(true) + result.getWins(false));
+        assertEquals(1.0, result.getWinRate(true) + result.getWinRate(false), 1e-9);
+
+        long histogramTotal = 0;
+        for (int shots = 0; shots <= result.getMaxShots(); shots++) {
+            histogramTotal += result.getWinsInShots(shots);
+        }
+        assertEquals(200, histogramTotal);
+
+        /* Every fleet covers 17 cells, so no win can take fewer shots. */
+        assertEquals(0, result.getWinsInShots(16));
+        assertTrue(result.getShotsToWinPercentile(0.0) >= 17);
+        assertTrue(result.getMeanShotsToWin() >= 17 && result.getMeanShotsToWin() <= 100);
+        assertTrue(result.getGamesPerSecond() > 0);
+    }
+
+    @Test
+    public void testSameSeedSameResultOnOneThread() {
+        SimulationRunner runner = new SimulationRunner(12, 8, TargetingAI::new, SimulationRunner.strategyNamed("density"));
+        SimulationResult first = runner.run(50, 1, 7);
+        SimulationResult second = runner.run(50, 1, 7);
+
+        assertEquals(first.getWins(true), second.getWins(true));
+        for (int shots = 0; shots <= first.getMaxShots(); shots++) {
+            assertEquals(first.getWinsInShots(shots), second.getWinsInShots(shots));
+        }
+    }
+
+    @Test
+    public void testImproperArguments() {
+        SimulationRunner runner = new SimulationRunner(TargetingAI::new, TargetingAI::new);
+
+        assertThrows(IllegalArgumentException.class, () -> runner.run(-1, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> runner.run(1, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> SimulationRunner.strategyNamed("psychic"));
+        assertEquals(0, runner.run(0, 2, 0).getGames());
+    }
+}